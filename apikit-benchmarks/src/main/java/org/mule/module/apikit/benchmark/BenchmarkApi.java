@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import org.mule.module.apikit.parser.ParserWrapperV1;
+import org.mule.raml.interfaces.model.IRaml;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated RAML descriptor shared by the benchmarks.
+ * <p/>
+ * Every top level resource <code>/resource{n}</code> declares the nested resources
+ * <code>/{id}</code>, <code>/{id}/items</code> and <code>/{id}/items/{itemId}</code>,
+ * so an api of n resources has 4n routes. Every collection accepts json and xml bodies
+ * validated by schemas and filters with typed query parameters.
+ */
+public class BenchmarkApi
+{
+
+    public static final String SMALL = "small";
+    public static final String LARGE = "large";
+
+    public static final String RAML_FILE = "benchmark-api.raml";
+
+    private static final String JSON_SCHEMA =
+            "{\n" +
+            "  \"$schema\": \"http://json-schema.org/draft-04/schema#\",\n" +
+            "  \"type\": \"object\",\n" +
+            "  \"properties\": {\n" +
+            "    \"items\": {\n" +
+            "      \"type\": \"array\",\n" +
+            "      \"items\": {\n" +
+            "        \"type\": \"object\",\n" +
+            "        \"properties\": {\n" +
+            "          \"id\": {\"type\": \"integer\"},\n" +
+            "          \"name\": {\"type\": \"string\", \"maxLength\": 64},\n" +
+            "          \"price\": {\"type\": \"number\", \"minimum\": 0}\n" +
+            "        },\n" +
+            "        \"required\": [\"id\", \"name\"]\n" +
+            "      }\n" +
+            "    }\n" +
+            "  },\n" +
+            "  \"required\": [\"items\"]\n" +
+            "}";
+
+    private static final String XML_SCHEMA =
+            "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" elementFormDefault=\"qualified\">\n" +
+            "  <xs:element name=\"items\">\n" +
+            "    <xs:complexType>\n" +
+            "      <xs:sequence>\n" +
+            "        <xs:element name=\"item\" minOccurs=\"0\" maxOccurs=\"unbounded\">\n" +
+            "          <xs:complexType>\n" +
+            "            <xs:sequence>\n" +
+            "              <xs:element name=\"name\" type=\"xs:string\"/>\n" +
+            "              <xs:element name=\"price\" type=\"xs:decimal\" minOccurs=\"0\"/>\n" +
+            "            </xs:sequence>\n" +
+            "            <xs:attribute name=\"id\" type=\"xs:integer\" use=\"required\"/>\n" +
+            "          </xs:complexType>\n" +
+            "        </xs:element>\n" +
+            "      </xs:sequence>\n" +
+            "    </xs:complexType>\n" +
+            "  </xs:element>\n" +
+            "</xs:schema>";
+
+    private BenchmarkApi()
+    {
+    }
+
+    /**
+     * Returns the number of top level resources of the given api size.
+     */
+    public static int resources(String size)
+    {
+        return LARGE.equals(size) ? 250 : 5;
+    }
+
+    public static String raml(int resources)
+    {
+        StringBuilder raml = new StringBuilder();
+        raml.append("#%RAML 0.8\n")
+                .append("title: Benchmark API\n")
+                .append("baseUri: http://localhost:8081/api\n")
+                .append("schemas:\n")
+                .append("  - items: |\n").append(indent(JSON_SCHEMA, 6)).append('\n')
+                .append("  - itemsXml: |\n").append(indent(XML_SCHEMA, 6)).append('\n');
+        for (int i = 0; i < resources; i++)
+        {
+            raml.append("/resource").append(i).append(":\n")
+                    .append("  get:\n")
+                    .append("    queryParameters:\n")
+                    .append("      limit:\n")
+                    .append("        type: integer\n")
+                    .append("        minimum: 1\n")
+                    .append("        maximum: 100\n")
+                    .append("      sort:\n")
+                    .append("        enum: [name, price, id]\n")
+                    .append("      since:\n")
+                    .append("        type: date\n")
+                    .append("      q:\n")
+                    .append("        pattern: ^[a-z0-9-]+$\n")
+                    .append("    headers:\n")
+                    .append("      X-Tenant:\n")
+                    .append("        required: true\n")
+                    .append("    responses:\n")
+                    .append("      200:\n")
+                    .append("        body:\n")
+                    .append("          application/json:\n")
+                    .append("          application/xml:\n")
+                    .append("  /{id}:\n")
+                    .append("    get:\n")
+                    .append("      responses:\n")
+                    .append("        200:\n")
+                    .append("          body:\n")
+                    .append("            application/json:\n")
+                    .append("    /items:\n")
+                    .append("      post:\n")
+                    .append("        body:\n")
+                    .append("          application/json:\n")
+                    .append("            schema: items\n")
+                    .append("          application/xml:\n")
+                    .append("            schema: itemsXml\n")
+                    .append("        responses:\n")
+                    .append("          201:\n")
+                    .append("      /{itemId}:\n")
+                    .append("        delete:\n");
+        }
+        return raml.toString();
+    }
+
+    /**
+     * Returns request paths for every kind of route of the api, spread over its resources.
+     */
+    public static List<String> paths(int resources)
+    {
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < resources; i += Math.max(1, resources / 16))
+        {
+            paths.add("/resource" + i);
+            paths.add("/resource" + i + "/" + (1000 + i));
+            paths.add("/resource" + i + "/" + (1000 + i) + "/items");
+            paths.add("/resource" + i + "/" + (1000 + i) + "/items/item-" + i);
+        }
+        return paths;
+    }
+
+    /**
+     * Parses the api model of the generated descriptor.
+     */
+    public static IRaml build(int resources)
+    {
+        return new ParserWrapperV1(RAML_FILE, null, raml(resources)).build();
+    }
+
+    /**
+     * Writes the generated descriptor to a new temporary directory, to be used as the
+     * application home of a configuration.
+     */
+    public static File write(int resources) throws IOException
+    {
+        File home = File.createTempFile("apikit-benchmark", "");
+        if (!home.delete() || !home.mkdir())
+        {
+            throw new IOException("Cannot create benchmark application home " + home);
+        }
+        FileUtils.writeStringToFile(new File(home, RAML_FILE), raml(resources), "UTF-8");
+        return home;
+    }
+
+    /**
+     * Returns a json body of about the given size accepted by the items schema.
+     */
+    public static String jsonItems(int bytes)
+    {
+        StringBuilder json = new StringBuilder("{\"items\": [");
+        for (int i = 0; json.length() < bytes; i++)
+        {
+            if (i > 0)
+            {
+                json.append(", ");
+            }
+            json.append("{\"id\": ").append(i).append(", \"name\": \"item-").append(i).append("\", \"price\": ").append(i % 100).append(".5}");
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Returns an xml body of about the given size accepted by the items xml schema.
+     */
+    public static String xmlItems(int bytes)
+    {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><items>");
+        for (int i = 0; xml.length() < bytes; i++)
+        {
+            xml.append("<item id=\"").append(i).append("\"><name>item-").append(i).append("</name><price>")
+                    .append(i % 100).append(".5</price></item>");
+        }
+        return xml.append("</items>").toString();
+    }
+
+    private static String indent(String text, int spaces)
+    {
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < spaces; i++)
+        {
+            prefix.append(' ');
+        }
+        return prefix + text.replace("\n", "\n" + prefix);
+    }
+}
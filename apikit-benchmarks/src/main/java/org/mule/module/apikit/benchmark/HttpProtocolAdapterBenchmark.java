@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import static org.mule.transport.http.HttpConnector.HTTP_CONTEXT_PATH_PROPERTY;
+import static org.mule.transport.http.HttpConnector.HTTP_METHOD_PROPERTY;
+import static org.mule.transport.http.HttpConnector.HTTP_REQUEST_PATH_PROPERTY;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleMessage;
+import org.mule.construct.Flow;
+import org.mule.context.DefaultMuleContextFactory;
+import org.mule.module.apikit.HttpProtocolAdapter;
+import org.mule.module.apikit.UrlUtils;
+import org.mule.module.apikit.uri.URICoder;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the request view against the previous eager adapter, which built a
+ * {@link URI} for every request.
+ * <p/>
+ * Run with the gc profiler to get the bytes allocated per request:
+ * <pre>
+ * java -jar apikit-benchmarks/target/benchmarks.jar HttpProtocolAdapterBenchmark -prof gc
+ * </pre>
+ * and compare the <code>gc.alloc.rate.norm</code> of both benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpProtocolAdapterBenchmark
+{
+
+    private MuleContext muleContext;
+    private MuleEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        muleContext = new DefaultMuleContextFactory().createMuleContext();
+        Map<String, Object> inbound = new HashMap<>();
+        inbound.put("host", "localhost:8081");
+        inbound.put(HTTP_METHOD_PROPERTY, "GET");
+        inbound.put(HTTP_CONTEXT_PATH_PROPERTY, "/api");
+        inbound.put(HTTP_REQUEST_PATH_PROPERTY, "/api/leagues/liga-bbva/teams/");
+        inbound.put("accept", "application/json");
+        inbound.put("content-type", "application/json; charset=UTF-8");
+        MuleMessage message = new DefaultMuleMessage("", inbound, null, null, muleContext);
+        event = new DefaultMuleEvent(message, MessageExchangePattern.REQUEST_RESPONSE, new Flow("benchmark", muleContext));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        muleContext.dispose();
+    }
+
+    @Benchmark
+    public void requestView(Blackhole blackhole)
+    {
+        HttpProtocolAdapter adapter = new HttpProtocolAdapter(event);
+        blackhole.consume(adapter.getResourcePath());
+        blackhole.consume(adapter.getMethod());
+        blackhole.consume(adapter.getRequestMediaType());
+        blackhole.consume(adapter.getRequestMediaType());
+        blackhole.consume(adapter.getAcceptableResponseMediaTypes());
+    }
+
+    @Benchmark
+    public void eagerAdapter(Blackhole blackhole) throws Exception
+    {
+        MuleMessage message = event.getMessage();
+        String basePath = UrlUtils.getBasePath(message);
+        String hostHeader = message.getInboundProperty("host");
+        String host = hostHeader.substring(0, hostHeader.indexOf(':'));
+        int port = Integer.parseInt(hostHeader.substring(hostHeader.indexOf(':') + 1));
+        URI uri = new URI("http", null, host, port, (String) message.getInboundProperty(HTTP_REQUEST_PATH_PROPERTY), null, null);
+        String contentType = message.getInboundProperty("content-type");
+
+        String path = uri.getPath();
+        int start = basePath.endsWith("/") ? basePath.length() - 1 : basePath.length();
+        int end = path.endsWith("/") ? path.length() - 1 : path.length();
+        blackhole.consume(URICoder.decode(path.substring(start, end)));
+        blackhole.consume(message.getInboundProperty(HTTP_METHOD_PROPERTY));
+        blackhole.consume(contentType.split(";")[0]);
+        blackhole.consume(contentType.split(";")[0]);
+        blackhole.consume(message.getInboundProperty("accept"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IRaml;
+import org.mule.raml.interfaces.model.parameter.IParameter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of the typed query parameters and headers of a collection: an integer
+ * range, an enum, a date and a pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterValidationBenchmark
+{
+
+    private IParameter limit;
+    private IParameter sort;
+    private IParameter since;
+    private IParameter query;
+    private IParameter tenant;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        IRaml api = BenchmarkApi.build(1);
+        IAction action = api.getResource("/resource0").getAction("get");
+        limit = action.getQueryParameters().get("limit");
+        sort = action.getQueryParameters().get("sort");
+        since = action.getQueryParameters().get("since");
+        query = action.getQueryParameters().get("q");
+        tenant = action.getHeaders().get("X-Tenant");
+    }
+
+    @Benchmark
+    public boolean validParameters()
+    {
+        return limit.validate("25") & sort.validate("price") & since.validate("Sun, 06 Nov 1994 08:49:37 GMT")
+               & query.validate("blue-shoes") & tenant.validate("acme");
+    }
+
+    @Benchmark
+    public boolean invalidParameters()
+    {
+        return limit.validate("250") | sort.validate("color") | since.validate("yesterday") | query.validate("Blue Shoes");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import org.mule.module.apikit.NegotiationCache;
+import org.mule.module.apikit.RestContentTypeParser;
+
+import com.google.common.net.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Negotiation of typical browser and api client Accept headers, through the negotiation
+ * cache used by the router and through the parser it falls back to.
+ * <p/>
+ * Run with the gc profiler to get the bytes allocated per header:
+ * <pre>
+ * java -jar apikit-benchmarks/target/benchmarks.jar RestContentTypeParserBenchmark -prof gc
+ * </pre>
+ * <code>guavaParse</code> splits and parses the header the way the parser did before
+ * the media range tokenizer, as a baseline for <code>parseMediaTypes</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestContentTypeParserBenchmark
+{
+
+    @Param({
+            // browser navigation
+            "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8",
+            // javascript http clients
+            "application/json, text/plain, */*",
+            // curl
+            "*/*",
+            // api clients
+            "application/json",
+            "application/xml;q=0.9, application/json;q=0.8"
+    })
+    public String accept;
+
+    private List<String> representations = Arrays.asList("application/json", "application/xml");
+
+    @Benchmark
+    public NegotiationCache.Negotiation negotiate()
+    {
+        return NegotiationCache.negotiate(representations, accept);
+    }
+
+    @Benchmark
+    public MediaType bestMatch()
+    {
+        return RestContentTypeParser.bestMatch(representations, accept);
+    }
+
+    @Benchmark
+    public List<MediaType> parseMediaTypes()
+    {
+        return RestContentTypeParser.parseMediaTypes(accept);
+    }
+
+    @Benchmark
+    public void guavaParse(Blackhole blackhole)
+    {
+        for (String range : accept.split(","))
+        {
+            blackhole.consume(MediaType.parse(range.trim()));
+        }
+    }
+
+    @Benchmark
+    public boolean isMediaTypeAcceptable()
+    {
+        return RestContentTypeParser.isMediaTypeAcceptable(RestContentTypeParser.parseMediaTypes(accept), MediaType.JSON_UTF_8.withoutParameters());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.transport.http.HttpConnector.HTTP_CONTEXT_PATH_PROPERTY;
+import static org.mule.transport.http.HttpConnector.HTTP_METHOD_PROPERTY;
+import static org.mule.transport.http.HttpConnector.HTTP_QUERY_PARAMS;
+import static org.mule.transport.http.HttpConnector.HTTP_REQUEST_PATH_PROPERTY;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleEvent;
+import org.mule.api.config.MuleProperties;
+import org.mule.api.processor.MessageProcessor;
+import org.mule.construct.Flow;
+import org.mule.context.DefaultMuleContextFactory;
+import org.mule.module.apikit.Configuration;
+import org.mule.module.apikit.Router;
+import org.mule.module.http.internal.listener.DefaultHttpListener;
+import org.mule.module.http.internal.listener.DefaultHttpListenerConfig;
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end processing of requests by the router, from the inbound event to the
+ * response of an empty implementation flow: routing, uri, query parameter and header
+ * validation, content negotiation and response transformation.
+ * <p/>
+ * The http listener is not started, so the numbers exclude the transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark
+{
+
+    @Param({BenchmarkApi.SMALL, BenchmarkApi.LARGE})
+    public String api;
+
+    private MuleContext muleContext;
+    private File appHome;
+    private Flow routerFlow;
+    private Router router;
+    private String collection;
+    private String item;
+    private String nestedItem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        int resources = BenchmarkApi.resources(api);
+        appHome = BenchmarkApi.write(resources);
+        muleContext = new DefaultMuleContextFactory().createMuleContext();
+        muleContext.getRegistry().registerObject(MuleProperties.APP_HOME_DIRECTORY_PROPERTY, appHome.getPath());
+
+        for (int i = 0; i < resources; i++)
+        {
+            registerFlow("get:/resource" + i);
+            registerFlow("get:/resource" + i + "/{id}");
+            registerFlow("post:/resource" + i + "/{id}/items");
+            registerFlow("delete:/resource" + i + "/{id}/items/{itemId}");
+        }
+
+        DefaultHttpListenerConfig listenerConfig = mock(DefaultHttpListenerConfig.class);
+        when(listenerConfig.getHost()).thenReturn("localhost");
+        when(listenerConfig.getPort()).thenReturn(8081);
+        DefaultHttpListener listener = mock(DefaultHttpListener.class);
+        when(listener.getConfig()).thenReturn(listenerConfig);
+        when(listener.getPath()).thenReturn("api/*");
+
+        Configuration config = new Configuration();
+        config.setName("benchmark-config");
+        config.setRaml(BenchmarkApi.RAML_FILE);
+        config.setConsoleEnabled(false);
+        config.setMuleContext(muleContext);
+        config.initialise();
+
+        router = new Router();
+        router.setConfig(config);
+        router.setMuleContext(muleContext);
+        routerFlow = new Flow("benchmark-router", muleContext);
+        routerFlow.setMessageSource(listener);
+        routerFlow.setMessageProcessors(Collections.<MessageProcessor>singletonList(router));
+        muleContext.getRegistry().registerFlowConstruct(routerFlow);
+        muleContext.start();
+
+        // the last resource, the worst case of the regex engines on a cache miss
+        int last = resources - 1;
+        collection = "/api/resource" + last;
+        item = "/api/resource" + last + "/1042";
+        nestedItem = "/api/resource" + last + "/1042/items/item-7";
+    }
+
+    private void registerFlow(String name) throws Exception
+    {
+        muleContext.getRegistry().registerFlowConstruct(new Flow(name, muleContext));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        muleContext.dispose();
+        FileUtils.deleteTree(appHome);
+    }
+
+    @Benchmark
+    public MuleEvent getCollection() throws Exception
+    {
+        Map<String, Object> query = new HashMap<>();
+        query.put("limit", "25");
+        query.put("sort", "price");
+        query.put("q", "blue-shoes");
+        return router.process(event("GET", collection, query));
+    }
+
+    @Benchmark
+    public MuleEvent getItem() throws Exception
+    {
+        return router.process(event("GET", item, new HashMap<String, Object>()));
+    }
+
+    @Benchmark
+    public MuleEvent deleteNestedItem() throws Exception
+    {
+        return router.process(event("DELETE", nestedItem, new HashMap<String, Object>()));
+    }
+
+    private MuleEvent event(String method, String path, Map<String, Object> query)
+    {
+        Map<String, Object> inbound = new HashMap<>();
+        inbound.put("host", "localhost:8081");
+        inbound.put(HTTP_METHOD_PROPERTY, method);
+        inbound.put(HTTP_CONTEXT_PATH_PROPERTY, "/api");
+        inbound.put(HTTP_REQUEST_PATH_PROPERTY, path);
+        inbound.put(HTTP_QUERY_PARAMS, query);
+        inbound.put("accept", "application/json");
+        inbound.put("x-tenant", "acme");
+        DefaultMuleMessage message = new DefaultMuleMessage("", inbound, null, null, muleContext);
+        return new DefaultMuleEvent(message, MessageExchangePattern.REQUEST_RESPONSE, routerFlow);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import org.mule.module.apikit.ApiSnapshot;
+import org.mule.module.apikit.RoutingEngine;
+import org.mule.module.apikit.uri.URIResolveResult;
+import org.mule.module.apikit.uri.URIResolver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolution of request paths to resources with every routing engine, against apis of
+ * 20 and 1000 routes. Each invocation resolves the next of a fixed set of paths covering
+ * static and parameterized routes at every depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark
+{
+
+    @Param({BenchmarkApi.SMALL, BenchmarkApi.LARGE})
+    public String api;
+
+    @Param({"TRIE", "REGEX", "TEMPLATE_CACHE"})
+    public RoutingEngine engine;
+
+    private ApiSnapshot snapshot;
+    private String[] paths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        int resources = BenchmarkApi.resources(api);
+        snapshot = new ApiSnapshot(1, BenchmarkApi.build(resources), engine);
+        List<String> paths = BenchmarkApi.paths(resources);
+        this.paths = paths.toArray(new String[paths.size()]);
+    }
+
+    @Benchmark
+    public URIResolveResult resolveRoute() throws Exception
+    {
+        String path = paths[next++ % paths.length];
+        return snapshot.resolveRoute(path);
+    }
+
+    /**
+     * Best match of a path against every resource pattern without caches, the work the
+     * regex engines do on a cache miss.
+     */
+    @Benchmark
+    public URIResolveResult uriResolverMiss() throws Exception
+    {
+        URIResolver resolver = new URIResolver(paths[next++ % paths.length]);
+        return resolver.resolve(resolver.find(snapshot.getRoutingTable().keySet(), URIResolver.MatchRule.BEST_MATCH));
+    }
+}
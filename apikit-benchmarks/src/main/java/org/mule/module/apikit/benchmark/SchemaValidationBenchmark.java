@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.benchmark;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.MessageExchangePattern;
+import org.mule.api.MuleContext;
+import org.mule.api.MuleEvent;
+import org.mule.construct.Flow;
+import org.mule.context.DefaultMuleContextFactory;
+import org.mule.module.apikit.validation.RestJsonSchemaValidator;
+import org.mule.module.apikit.validation.RestSchemaValidator;
+import org.mule.module.apikit.validation.RestXmlSchemaValidator;
+import org.mule.module.apikit.validation.cache.JsonSchemaCache;
+import org.mule.module.apikit.validation.cache.SchemaCacheUtils;
+import org.mule.module.apikit.validation.cache.XmlSchemaCache;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IRaml;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of request bodies against precompiled json and xml schemas, for bodies of
+ * 1 KB, 64 KB and 1 MB received as streams, the way the http listener delivers them.
+ * Json bodies are validated both buffered and streaming.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaValidationBenchmark
+{
+
+    private static final String CONFIG_ID = "benchmark";
+
+    @Param({"1", "64", "1024"})
+    public int sizeKb;
+
+    private MuleContext muleContext;
+    private IRaml api;
+    private Flow flow;
+    private byte[] json;
+    private byte[] xml;
+    private String jsonSchemaKey;
+    private String xmlSchemaKey;
+    private RestSchemaValidator bufferedJsonValidator;
+    private RestSchemaValidator streamingJsonValidator;
+    private RestSchemaValidator xmlValidator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        muleContext = new DefaultMuleContextFactory().createMuleContext();
+        flow = new Flow("benchmark", muleContext);
+        api = BenchmarkApi.build(1);
+        IAction action = api.getResource("/resource0").getResources().get("/{id}").getResources().get("/items").getAction("post");
+        jsonSchemaKey = SchemaCacheUtils.getSchemaCacheKey(action, "application/json");
+        xmlSchemaKey = SchemaCacheUtils.getSchemaCacheKey(action, "application/xml");
+        json = BenchmarkApi.jsonItems(sizeKb * 1024).getBytes(StandardCharsets.UTF_8);
+        xml = BenchmarkApi.xmlItems(sizeKb * 1024).getBytes(StandardCharsets.UTF_8);
+
+        bufferedJsonValidator = new RestJsonSchemaValidator(muleContext, JsonSchemaCache.newJsonSchemaCache(api), false, 0);
+        streamingJsonValidator = new RestJsonSchemaValidator(muleContext, JsonSchemaCache.newJsonSchemaCache(api), true, 1024 * 1024);
+        xmlValidator = new RestXmlSchemaValidator(muleContext, XmlSchemaCache.newXmlSchemaCache(api));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        muleContext.dispose();
+    }
+
+    @Benchmark
+    public MuleEvent jsonBuffered() throws Exception
+    {
+        return validate(bufferedJsonValidator, jsonSchemaKey, json, "application/json");
+    }
+
+    @Benchmark
+    public MuleEvent jsonStreaming() throws Exception
+    {
+        return validate(streamingJsonValidator, jsonSchemaKey, json, "application/json");
+    }
+
+    @Benchmark
+    public MuleEvent xml() throws Exception
+    {
+        return validate(xmlValidator, xmlSchemaKey, xml, "application/xml");
+    }
+
+    private MuleEvent validate(RestSchemaValidator validator, String schemaKey, byte[] body, String contentType) throws Exception
+    {
+        Map<String, Object> inbound = new HashMap<>();
+        inbound.put("content-type", contentType);
+        DefaultMuleMessage message = new DefaultMuleMessage(new ByteArrayInputStream(body), inbound, null, null, muleContext);
+        MuleEvent event = new DefaultMuleEvent(message, MessageExchangePattern.REQUEST_RESPONSE, flow);
+        validator.validate(CONFIG_ID, schemaKey, event, api);
+        return event;
+    }
+}
@@ -49,6 +49,7 @@ public class ExceptionStrategyScope implements Scope {
                 new StatusCodeMapping(405, "org.mule.module.apikit.exception.MethodNotAllowedException", "{ \"message\": \"Method not allowed\" }"),
                 new StatusCodeMapping(415, "org.mule.module.apikit.exception.UnsupportedMediaTypeException", "{ \"message\": \"Unsupported media type\" }"),
                 new StatusCodeMapping(406, "org.mule.module.apikit.exception.NotAcceptableException", "{ \"message\": \"Not acceptable\" }"),
+                new StatusCodeMapping(413, "org.mule.module.apikit.exception.RequestEntityTooLargeException", "{ \"message\": \"Request entity too large\" }"),
                 new StatusCodeMapping(400, "org.mule.module.apikit.exception.BadRequestException", "{ \"message\": \"Bad request\" }")
         );
 
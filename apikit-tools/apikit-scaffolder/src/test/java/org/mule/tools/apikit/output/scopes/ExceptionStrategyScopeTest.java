@@ -60,6 +60,11 @@ public class ExceptionStrategyScopeTest {
                 "<set-property propertyName=\"Content-Type\" value=\"application/json\"/>" +
                 "<set-payload value=\"{ &quot;message&quot;: &quot;Not acceptable&quot; }\"/>" +
                 "</apikit:mapping>" +
+                "<apikit:mapping statusCode=\"413\">" +
+                "<apikit:exception value=\"org.mule.module.apikit.exception.RequestEntityTooLargeException\"/>" +
+                "<set-property propertyName=\"Content-Type\" value=\"application/json\"/>" +
+                "<set-payload value=\"{ &quot;message&quot;: &quot;Request entity too large&quot; }\"/>" +
+                "</apikit:mapping>" +
                 "<apikit:mapping statusCode=\"400\">" +
                 "<apikit:exception value=\"org.mule.module.apikit.exception.BadRequestException\"/>" +
                 "<set-property propertyName=\"Content-Type\" value=\"application/json\"/>" +
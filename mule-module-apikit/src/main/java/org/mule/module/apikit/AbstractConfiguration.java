@@ -14,16 +14,26 @@ import org.mule.api.MuleException;
 import org.mule.api.config.MuleProperties;
 import org.mule.api.construct.FlowConstruct;
 import org.mule.api.context.MuleContextAware;
+import org.mule.api.lifecycle.Disposable;
 import org.mule.api.lifecycle.Initialisable;
 import org.mule.api.lifecycle.InitialisationException;
 import org.mule.api.lifecycle.Startable;
+import org.mule.api.registry.RegistrationException;
 import org.mule.construct.Flow;
 import org.mule.module.apikit.exception.ApikitRuntimeException;
 import org.mule.module.apikit.exception.NotFoundException;
 import org.mule.module.apikit.injector.RamlUpdater;
+import org.mule.module.apikit.management.MBeanRegistrar;
+import org.mule.module.apikit.management.RamlDumpStatistics;
+import org.mule.module.apikit.management.RequestMetrics;
+import org.mule.module.apikit.management.RoutingCacheStatistics;
+import org.mule.module.apikit.management.ValidationRejections;
 import org.mule.module.apikit.spi.RouterService;
+import org.mule.module.apikit.transform.SerializationContext;
 import org.mule.module.apikit.uri.URIPattern;
-import org.mule.module.apikit.uri.URIResolver;
+import org.mule.module.apikit.uri.URIResolveResult;
+import org.mule.module.apikit.validation.ValidationPipeline;
+import org.mule.module.apikit.validation.cache.SchemaPrecompiler;
 import org.mule.raml.interfaces.model.IAction;
 import org.mule.raml.interfaces.model.IActionType;
 import org.mule.raml.interfaces.model.IRaml;
@@ -33,11 +43,14 @@ import org.mule.util.StringMessageUtils;
 import org.mule.util.StringUtils;
 
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -46,6 +59,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -53,19 +67,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
+
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public abstract class AbstractConfiguration implements Initialisable, MuleContextAware, Startable
+public abstract class AbstractConfiguration implements Initialisable, MuleContextAware, Startable, Disposable
 {
 
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
     private static final boolean KEEP_RAML_BASEURI = Boolean.valueOf(System.getProperty("apikit.keep_raml_baseuri"));
     public static final String APPLICATION_RAML = "application/raml+yaml";
     private static final String CONSOLE_URL_FILE = "consoleurl";
-    private static final int URI_CACHE_SIZE = 1000;
+    // characters of host specific RAML descriptors kept in memory, about 32 MB
+    private static final long RAML_DUMP_CACHE_WEIGHT = 16 * 1024 * 1024;
+    private static final String API_CACHE_DIRECTORY = "apikit";
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -73,21 +89,36 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
     protected MuleContext muleContext;
     private String name;
     protected String raml;
-    protected IRaml api;
     private String baseSchemeHostPort;
     protected Boolean keepRamlBaseUri = KEEP_RAML_BASEURI;
-    private Map<String, String> apikitRaml = new ConcurrentHashMap<String, String>();
+    private volatile String baseRaml;
+    private volatile LoadingCache<String, String> hostRamlCache;
+    private final RamlDumpStatistics ramlDumpStatistics = new RamlDumpStatistics();
     private boolean disableValidations;
+    private boolean streamingValidation;
+    private int maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+    private long maxRequestBodySize;
+    private boolean streamingResponses;
+    private boolean apiCache;
+    private long reloadInterval;
+    private boolean metricsEnabled;
+    private RequestMetrics requestMetrics;
+    private String validationOrder;
+    private ValidationPipeline validationPipeline = new ValidationPipeline();
     protected Map<String, FlowResolver> restFlowMapWrapper;
-    protected Map<URIPattern, IResource> routingTable;
-    protected LoadingCache<String, URIResolver> uriResolverCache;
-    protected LoadingCache<String, URIPattern> uriPatternCache;
+    private volatile ApiSnapshot snapshot;
+    private final Object snapshotLock = new Object();
+    private RoutingEngine routingEngine = RoutingEngine.TRIE;
     private List<String> consoleUrls = new ArrayList<String>();
     private boolean started;
     protected boolean extensionEnabled = false;
     private RouterService routerExtension = null;
     private String appHome;
-    private ParserService parserService;
+    private volatile ParserService parserService;
+    private ApiReloader apiReloader;
+    private MBeanRegistrar mBeanRegistrar;
+    private RoutingCacheStatistics routingCacheStatistics;
+    private SerializationContext serializationContext;
 
     public static final String RAML_EXTERNAL_ENTITIES_PROPERTY = "raml.xml.expandExternalEntities";
     public static final String RAML_EXPAND_ENTITIES_PROPERTY = "raml.xml.expandInternalEntities";
@@ -108,14 +139,74 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
         String expandEntitiesValue = System.getProperty(MULE_EXPAND_ENTITIES_PROPERTY, "false");
         System.setProperty(RAML_EXPAND_ENTITIES_PROPERTY, expandEntitiesValue);
 
-        parserService = new ParserService(raml, getAppHome());
+        try
+        {
+            serializationContext = SerializationContext.getInstance(muleContext);
+        }
+        catch (RegistrationException e)
+        {
+            throw new InitialisationException(e, this);
+        }
+
+        try
+        {
+            validationPipeline = new ValidationPipeline(validationOrder);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new InitialisationException(e, this);
+        }
+
+        parserService = new ParserService(raml, getAppHome(), getApiCacheDirectory());
         parserService.validateRaml();
-        api = parserService.build();
+        ApiSnapshot initial;
+        try
+        {
+            initial = buildSnapshot(parserService.build(), parserService.isParserV2());
+        }
+        catch (ApikitRuntimeException e)
+        {
+            throw new InitialisationException(e, this);
+        }
+        publish(initial);
 
         initializeRestFlowMap();
         initializeRestFlowMapWrapper();
-        loadRoutingTable();
-        buildResourcePatternCaches();
+        compileDispatchTable();
+        registerMBeans();
+    }
+
+    private void registerMBeans()
+    {
+        mBeanRegistrar = new MBeanRegistrar(muleContext.getConfiguration().getId(), getName());
+        mBeanRegistrar.register("RamlDumpCache", ramlDumpStatistics);
+        mBeanRegistrar.register("ValidationRejections", new ValidationRejections(validationPipeline));
+        if (routingCacheStatistics != null)
+        {
+            mBeanRegistrar.register("RoutingCache", routingCacheStatistics);
+        }
+        if (metricsEnabled)
+        {
+            requestMetrics = new RequestMetrics(mBeanRegistrar);
+        }
+    }
+
+    protected MBeanRegistrar getMBeanRegistrar()
+    {
+        return mBeanRegistrar;
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (apiReloader != null)
+        {
+            apiReloader.stop();
+        }
+        if (mBeanRegistrar != null)
+        {
+            mBeanRegistrar.unregisterAll();
+        }
     }
 
     public boolean isParserV2()
@@ -139,89 +230,217 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
 
     }
 
-    private void loadRoutingTable()
+    private File getApiCacheDirectory()
     {
-        if (routingTable == null)
+        return apiCache ? new File(muleContext.getConfiguration().getWorkingDirectory(), API_CACHE_DIRECTORY) : null;
+    }
+
+    /**
+     * Builds the routing tables and caches of the given api and compiles every schema it
+     * references, so no request pays for schema compilation. Runs on the calling thread
+     * and leaves the current snapshot in place.
+     *
+     * @throws ApikitRuntimeException if a request body schema cannot be compiled
+     */
+    private ApiSnapshot buildSnapshot(IRaml api, boolean parserV2)
+    {
+        long version = snapshot != null ? snapshot.getVersion() + 1 : 1;
+        ApiSnapshot next = new ApiSnapshot(version, api, routingEngine);
+        if (!disableValidations && !parserV2)
         {
-            routingTable = new ConcurrentHashMap<>();
+            // RAML 1.0 bodies are validated by the parser
+            logger.info("Compiling schemas...");
+            new SchemaPrecompiler(next.getJsonSchemaCache(), next.getXmlSchemaCache(), Runtime.getRuntime().availableProcessors())
+                    .precompile(new ArrayList<>(next.getRoutingTable().values()));
         }
-        buildRoutingTable(getApi().getResources());
+        return next;
     }
 
-    private void buildResourcePatternCaches()
+    /**
+     * Compiles the dispatch table of the given snapshot with the current flows and makes
+     * it the one requests are served from.
+     */
+    private void publish(ApiSnapshot next)
     {
-        logger.info("Building resource URI cache...");
-        uriResolverCache = CacheBuilder.newBuilder()
-                .maximumSize(URI_CACHE_SIZE)
-                .build(
-                        new CacheLoader<String, URIResolver>()
-                        {
-                            public URIResolver load(String path) throws IOException
-                            {
-                                return new URIResolver(path);
-                            }
-                        });
-
-        uriPatternCache = CacheBuilder.newBuilder()
-                .maximumSize(URI_CACHE_SIZE)
-                .build(
-                        new CacheLoader<String, URIPattern>()
-                        {
-                            public URIPattern load(String path) throws Exception
-                            {
-                                URIResolver resolver = uriResolverCache.get(path);
-                                URIPattern match = resolver.find(routingTable.keySet(), URIResolver.MatchRule.BEST_MATCH);
-
-                                if (match == null)
-                                {
-                                    logger.warn("No matching patterns for URI " + path);
-                                    throw new NotFoundException(path);
-                                }
-                                return match;
-                            }
-                        });
-    }
-
-    private void buildRoutingTable(Map<String, IResource> resources)
-    {
-        for (IResource resource : resources.values())
-        {
-            String parentUri = resource.getParentUri();
-            String uri = resource.getResolvedUri(api.getVersion());
-            logger.debug("Adding URI to the routing table: " + uri);
-            routingTable.put(new URIPattern(uri), resource);
-            if (resource.getResources() != null)
+        synchronized (snapshotLock)
+        {
+            snapshot = next.withDispatchTable(compileDispatchTable(next));
+        }
+        if (next.getUriShapeCache() != null)
+        {
+            if (routingCacheStatistics == null)
             {
-                buildRoutingTable(resource.getResources());
+                routingCacheStatistics = new RoutingCacheStatistics(next.getUriShapeCache());
             }
+            routingCacheStatistics.setCache(next.getUriShapeCache());
         }
     }
 
+    private DispatchTable compileDispatchTable(ApiSnapshot target)
+    {
+        Map<String, Flow> flows = getDispatchFlows();
+        return new DispatchTable(target.getRoutingTable().values(), target.getApi().getVersion(),
+                                 flows != null ? flows : Collections.<String, Flow>emptyMap());
+    }
+
+    /**
+     * Compiles the dispatch table of the current api with the flows returned by
+     * {@link #getDispatchFlows()}, replacing the previous one.
+     */
+    protected void compileDispatchTable()
+    {
+        synchronized (snapshotLock)
+        {
+            snapshot = snapshot.withDispatchTable(compileDispatchTable(snapshot));
+        }
+    }
+
+    /**
+     * Returns the flows implementing the api keyed by method:resource[:media-type].
+     */
+    protected Map<String, Flow> getDispatchFlows()
+    {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the current version of the api along with its routing tables and caches.
+     * Read it once per request to route the whole request against the same version.
+     */
+    public ApiSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Returns the dispatch for the given resource and lower case http method,
+     * or null if the resource does not declare the method.
+     */
+    public ActionDispatch getActionDispatch(IResource resource, String method)
+    {
+        return snapshot.getActionDispatch(resource, method);
+    }
+
+    /**
+     * Returns the json mappers and JAXB contexts shared by the transformers and validators
+     * of the application.
+     */
+    public SerializationContext getSerializationContext()
+    {
+        return serializationContext;
+    }
+
     public void loadApiDefinition(FlowConstruct flowConstruct)
     {
         this.flowConstruct = flowConstruct;
-        injectEndpointUri(api);
-        resetRamlMap();
+        injectEndpointUri(getApi());
+        resetRamlMap(getApi());
+        startApiReloader();
+    }
+
+    private synchronized void startApiReloader()
+    {
+        if (reloadInterval <= 0 || apiReloader != null)
+        {
+            return;
+        }
+        ApiReloader reloader = new ApiReloader(this, reloadInterval, Thread.currentThread().getContextClassLoader());
+        if (!reloader.start())
+        {
+            logger.warn("Cannot reload API " + raml + ", it is not in the file system");
+            return;
+        }
+        apiReloader = reloader;
+    }
+
+    /**
+     * Returns the names of the descriptor and of the includes and libraries read to build
+     * the current api.
+     */
+    Set<String> getApiResourceNames()
+    {
+        return parserService.getResourceNames();
     }
 
-    public void updateApi(IRaml newApi)
+    /**
+     * Replaces the api requests are served from. The new routing tables and caches are
+     * built on the calling thread while requests keep using the current ones.
+     */
+    public synchronized void updateApi(IRaml newApi)
     {
-        api = newApi;
-        loadRoutingTable();
-        resetRamlMap();
+        publish(buildSnapshot(newApi, isParserV2()));
+        resetRamlMap(newApi);
+    }
+
+    /**
+     * Parses the descriptor again and replaces the api requests are served from, the
+     * current api is kept if the descriptor is not valid.
+     */
+    public synchronized void reloadApi()
+    {
+        long start = System.currentTimeMillis();
+        ParserService service = new ParserService(raml, getAppHome(), getApiCacheDirectory());
+        service.validateRaml();
+        IRaml newApi = service.build();
+        ApiSnapshot next = buildSnapshot(newApi, service.isParserV2());
+        parserService = service;
+        if (flowConstruct != null)
+        {
+            injectEndpointUri(newApi);
+        }
+        publish(next);
+        if (flowConstruct != null)
+        {
+            resetRamlMap(newApi);
+        }
+        logger.info(String.format("Reloaded API %s as version %d in %d ms", raml, next.getVersion(), System.currentTimeMillis() - start));
     }
 
-    private void resetRamlMap()
+    private void resetRamlMap(final IRaml dumpedApi)
     {
-        apikitRaml = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        // dumps are bound to the api and parser they were built from, a new one starts a new cache
+        final ParserService dumper = parserService;
+        final String raml;
         if (keepRamlBaseUri)
         {
-            apikitRaml.put(baseSchemeHostPort, parserService.dumpRaml(api));
+            raml = dumper.dumpRaml(dumpedApi);
         }
         else
         {
-            apikitRaml.put(baseSchemeHostPort, parserService.dumpRaml(api, getEndpointAddress(flowConstruct)));
+            raml = dumper.dumpRaml(dumpedApi, getEndpointAddress(flowConstruct));
         }
+        ramlDumpStatistics.dumped(System.nanoTime() - start);
+
+        hostRamlCache = CacheBuilder.newBuilder()
+                .maximumWeight(RAML_DUMP_CACHE_WEIGHT)
+                .weigher(new Weigher<String, String>()
+                {
+                    @Override
+                    public int weigh(String schemeHostPort, String hostRaml)
+                    {
+                        return schemeHostPort.length() + hostRaml.length();
+                    }
+                })
+                .recordStats()
+                .build(new CacheLoader<String, String>()
+                {
+                    @Override
+                    public String load(String schemeHostPort)
+                    {
+                        long start = System.nanoTime();
+                        try
+                        {
+                            return dumper.dumpRaml(raml, dumpedApi, baseSchemeHostPort, schemeHostPort);
+                        }
+                        finally
+                        {
+                            ramlDumpStatistics.dumped(System.nanoTime() - start);
+                        }
+                    }
+                });
+        ramlDumpStatistics.setCache(hostRamlCache);
+        baseRaml = raml;
     }
 
     protected abstract void initializeRestFlowMap();
@@ -246,9 +465,9 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
         String chBaseUri = scheme + "://" + chAddress + path;
         if (logger.isDebugEnabled())
         {
-            if (api != null)
+            if (snapshot != null)
             {
-                logger.debug("yaml baseUri: " + api.getBaseUri());
+                logger.debug("yaml baseUri: " + snapshot.getApi().getBaseUri());
             }
             logger.debug("mule baseUri: " + address);
             logger.debug("chub baseUri: " + chBaseUri);
@@ -271,18 +490,19 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
      */
     public String getApikitRaml(String schemeHostPort)
     {
-        String baseRaml = apikitRaml.get(baseSchemeHostPort);
-        if (schemeHostPort == null || keepRamlBaseUri)
+        if (schemeHostPort == null || keepRamlBaseUri || schemeHostPort.equals(baseSchemeHostPort))
         {
             return baseRaml;
         }
-        String hostRaml = apikitRaml.get(schemeHostPort);
-        if (hostRaml == null)
+        try
+        {
+            // concurrent requests for the same host wait for a single dump
+            return hostRamlCache.getUnchecked(schemeHostPort);
+        }
+        catch (UncheckedExecutionException e)
         {
-            hostRaml = parserService.dumpRaml(baseRaml, api, baseSchemeHostPort, schemeHostPort);
-            apikitRaml.put(schemeHostPort, hostRaml);
+            throw Throwables.propagate(e.getCause());
         }
-        return hostRaml;
     }
 
     public String getApikitRaml(MuleEvent event)
@@ -325,6 +545,121 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
         this.disableValidations = disableValidations;
     }
 
+    public boolean isStreamingValidation()
+    {
+        return streamingValidation;
+    }
+
+    public void setStreamingValidation(boolean streamingValidation)
+    {
+        this.streamingValidation = streamingValidation;
+    }
+
+    public int getMaxBufferSize()
+    {
+        return maxBufferSize;
+    }
+
+    public void setMaxBufferSize(int maxBufferSize)
+    {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    public long getMaxRequestBodySize()
+    {
+        return maxRequestBodySize;
+    }
+
+    /**
+     * @param maxRequestBodySize maximum size in bytes of request bodies of actions that do not
+     *                           declare one with the <code>maxBodySize</code> annotation, 0 for no limit
+     */
+    public void setMaxRequestBodySize(long maxRequestBodySize)
+    {
+        this.maxRequestBodySize = maxRequestBodySize;
+    }
+
+    public boolean isStreamingResponses()
+    {
+        return streamingResponses;
+    }
+
+    public void setStreamingResponses(boolean streamingResponses)
+    {
+        this.streamingResponses = streamingResponses;
+    }
+
+    public boolean isApiCache()
+    {
+        return apiCache;
+    }
+
+    public void setApiCache(boolean apiCache)
+    {
+        this.apiCache = apiCache;
+    }
+
+    public boolean isMetricsEnabled()
+    {
+        return metricsEnabled;
+    }
+
+    public void setMetricsEnabled(boolean metricsEnabled)
+    {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Returns the metrics of the routed requests, or null if metrics are not enabled.
+     */
+    public RequestMetrics getRequestMetrics()
+    {
+        return requestMetrics;
+    }
+
+    public String getValidationOrder()
+    {
+        return validationOrder;
+    }
+
+    /**
+     * @param validationOrder comma separated stages in the order they check requests, e.g.
+     *                        <code>content-type,accept,required,uri-parameters,query-parameters,headers,body</code>
+     */
+    public void setValidationOrder(String validationOrder)
+    {
+        this.validationOrder = validationOrder;
+    }
+
+    public ValidationPipeline getValidationPipeline()
+    {
+        return validationPipeline;
+    }
+
+    public RoutingEngine getRoutingEngine()
+    {
+        return routingEngine;
+    }
+
+    public void setRoutingEngine(RoutingEngine routingEngine)
+    {
+        this.routingEngine = routingEngine;
+    }
+
+    public long getReloadInterval()
+    {
+        return reloadInterval;
+    }
+
+    /**
+     * @param reloadInterval milliseconds between checks for changes of the descriptor,
+     *                       0 to never reload it
+     */
+    public void setReloadInterval(long reloadInterval)
+    {
+        this.reloadInterval = reloadInterval;
+    }
+
     public void setKeepRamlBaseUri(boolean keepRamlBaseUri)
     {
         this.keepRamlBaseUri = keepRamlBaseUri || KEEP_RAML_BASEURI;
@@ -332,7 +667,7 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
 
     public IRaml getApi()
     {
-        return api;
+        return snapshot != null ? snapshot.getApi() : null;
     }
 
     public Map<String, FlowResolver> getRestFlowMap()
@@ -358,7 +693,7 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
     protected Map<String, FlowResolver> populateFlowMapWrapper()
     {
         Map<String, FlowResolver> map = new HashMap<String, FlowResolver>();
-        populateMapKeys(map, api.getResources());
+        populateMapKeys(map, getApi().getResources());
         return map;
     }
 
@@ -366,7 +701,7 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
     {
         for (Map.Entry<String, IResource> resourceEntry : resources.entrySet())
         {
-            String resource = resourceEntry.getValue().getResolvedUri(api.getVersion());
+            String resource = resourceEntry.getValue().getResolvedUri(getApi().getVersion());
             for (Map.Entry<IActionType, IAction> actionEntry : resourceEntry.getValue().getActions().entrySet())
             {
                 String key = actionEntry.getKey().name().toLowerCase() + ":" + resource;
@@ -477,20 +812,34 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
         this.raml = raml;
     }
 
+    /**
+     * Finds the resource URI pattern of the current api that best matches the path and
+     * resolves its variables using the configured routing engine.
+     *
+     * @param path decoded resource path
+     * @return the matching pattern along with the resolved uri parameters
+     * @throws NotFoundException if no resource matches the path
+     */
+    public URIResolveResult resolveRoute(String path) throws MuleException
+    {
+        return snapshot.resolveRoute(path);
+    }
+
     public IAction getEventAction(MuleEvent event)
     {
         HttpRestRequest request = getHttpRestRequest(event);
         String path = request.getResourcePath();
+        ApiSnapshot current = snapshot;
         URIPattern uriPattern;
         try
         {
-            uriPattern = uriPatternCache.get(path);
+            uriPattern = current.resolveRoute(path).getURIPattern();
         }
-        catch (ExecutionException e)
+        catch (MuleException e)
         {
             return null;
         }
-        IResource resource = routingTable.get(uriPattern);
+        IResource resource = current.getRoutingTable().get(uriPattern);
         return resource.getAction(request.getMethod());
     }
 
@@ -506,7 +855,7 @@ public abstract class AbstractConfiguration implements Initialisable, MuleContex
 
     public RamlUpdater getRamlUpdater()
     {
-        return parserService.getRamlUpdater(api, this);
+        return parserService.getRamlUpdater(getApi(), this);
     }
 
     public FlowConstruct getParentFlow(MuleEvent event)
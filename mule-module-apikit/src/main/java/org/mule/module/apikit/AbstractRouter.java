@@ -12,7 +12,6 @@ import org.mule.DefaultMuleEvent;
 import org.mule.NonBlockingVoidMuleEvent;
 import org.mule.OptimizedRequestContext;
 import org.mule.VoidMuleEvent;
-import org.mule.api.DefaultMuleException;
 import org.mule.api.MessagingException;
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleException;
@@ -20,25 +19,27 @@ import org.mule.api.MuleMessage;
 import org.mule.api.NonBlockingSupported;
 import org.mule.api.construct.FlowConstruct;
 import org.mule.api.lifecycle.StartException;
+import org.mule.api.transport.PropertyScope;
 import org.mule.api.transport.ReplyToHandler;
 import org.mule.construct.Flow;
 import org.mule.module.apikit.exception.ApikitRuntimeException;
-import org.mule.module.apikit.exception.InvalidUriParameterException;
 import org.mule.module.apikit.exception.MethodNotAllowedException;
-import org.mule.module.apikit.exception.MuleRestException;
 import org.mule.module.apikit.exception.UnsupportedMediaTypeException;
+import org.mule.module.apikit.management.ActionMetrics;
+import org.mule.module.apikit.management.RequestMetrics;
+import org.mule.module.apikit.management.RequestStage;
+import org.mule.module.apikit.management.RequestTiming;
+import org.mule.module.apikit.transform.ApikitResponseTransformer;
 import org.mule.module.apikit.uri.ResolvedVariables;
 import org.mule.module.apikit.uri.URIPattern;
-import org.mule.module.apikit.uri.URIResolver;
+import org.mule.module.apikit.uri.URIResolveResult;
+import org.mule.module.apikit.validation.ValidationStage;
+import org.mule.module.apikit.validation.io.ReplayBuffer;
 import org.mule.processor.AbstractInterceptingMessageProcessor;
 import org.mule.raml.interfaces.model.IResource;
-import org.mule.raml.interfaces.model.parameter.IParameter;
-
-import com.google.common.cache.LoadingCache;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,7 +106,17 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         event = result.getEvent();
         if (result.getFlow() != null)
         {
-            event = result.getFlow().process(event);
+            long start = result.startFlow();
+            try
+            {
+                event = result.getFlow().process(event);
+            }
+            catch (MuleException | RuntimeException e)
+            {
+                result.flowCompleted(start, true);
+                throw e;
+            }
+            result.flowCompleted(start, false);
         }
         return processRouterResponse(event, result.getSuccessStatus());
     }
@@ -117,11 +128,13 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         event = result.getEvent();
 
         final ReplyToHandler originalReplyToHandler = event.getReplyToHandler();
+        final long flowStart = result.startFlow();
         event = new DefaultMuleEvent(event, new ReplyToHandler()
         {
             @Override
             public void processReplyTo(MuleEvent event, MuleMessage returnMessage, Object replyTo) throws MuleException
             {
+                result.flowCompleted(flowStart, false);
                 MuleEvent response = processRouterResponse(new DefaultMuleEvent(event, originalReplyToHandler), result.getSuccessStatus());
                 // Update RequestContext ThreadLocal for backwards compatibility
                 OptimizedRequestContext.unsafeSetEvent(response);
@@ -134,6 +147,7 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
             @Override
             public void processExceptionReplyTo(MessagingException exception, Object replyTo)
             {
+                result.flowCompleted(flowStart, true);
                 originalReplyToHandler.processExceptionReplyTo(exception, replyTo);
             }
         });
@@ -142,10 +156,20 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
 
         if (result.getFlow() != null)
         {
-            event = result.getFlow().process(event);
+            try
+            {
+                event = result.getFlow().process(event);
+            }
+            catch (MuleException | RuntimeException e)
+            {
+                result.flowCompleted(flowStart, true);
+                throw e;
+            }
         }
         if (!(event instanceof NonBlockingVoidMuleEvent))
         {
+            // processed without blocking, the reply handler is not called
+            result.flowCompleted(flowStart, false);
             return processRouterResponse(event, result.getSuccessStatus());
         }
         return event;
@@ -169,42 +193,79 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
             return new RouterRequest(handled);
         }
 
-        URIPattern uriPattern;
-        URIResolver uriResolver;
         path = path.isEmpty() ? "/" : path;
+        RequestMetrics requestMetrics = config.getRequestMetrics();
+        long start = requestMetrics != null ? System.nanoTime() : 0;
+        // the whole request is routed against the same version of the api
+        ApiSnapshot snapshot = config.getSnapshot();
+        URIResolveResult resolvedVariables = snapshot.resolveRoute(path);
+        URIPattern uriPattern = resolvedVariables.getURIPattern();
+
+        IResource resource = snapshot.getRoutingTable().get(uriPattern);
+        ActionDispatch dispatch = snapshot.getActionDispatch(resource, request.getMethod());
+        if (dispatch == null)
+        {
+            config.getValidationPipeline().rejected(ValidationStage.METHOD);
+            throw new MethodNotAllowedException(resource.getResolvedUri(snapshot.getApi().getVersion()), request.getMethod());
+        }
+
+        if (requestMetrics == null)
+        {
+            return routeAction(event, request, resolvedVariables, resource, dispatch, snapshot, null);
+        }
+        // only declared actions are measured, so requests cannot add entries at will
+        ActionMetrics metrics = requestMetrics.get(request.getMethod(), resource.getResolvedUri(snapshot.getApi().getVersion()));
+        metrics.requested();
+        metrics.record(RequestStage.ROUTING, System.nanoTime() - start);
         try
         {
-            uriPattern = getUriPatternCache().get(path);
-            uriResolver = getUriResolverCache().get(path);
+            return routeAction(event, request, resolvedVariables, resource, dispatch, snapshot, metrics);
         }
-        catch (ExecutionException e)
+        catch (MuleException | RuntimeException e)
         {
-            if (e.getCause() instanceof MuleRestException)
-            {
-                throw (MuleRestException) e.getCause();
-            }
-            throw new DefaultMuleException(e);
+            metrics.failed();
+            throw e;
         }
+    }
 
-        IResource resource = getRoutingTable().get(uriPattern);
-        if (resource.getAction(request.getMethod()) == null)
+    private RouterRequest routeAction(MuleEvent event, HttpRestRequest request, URIResolveResult resolvedVariables, IResource resource,
+                                      ActionDispatch dispatch, ApiSnapshot snapshot, ActionMetrics metrics) throws MuleException
+    {
+        Flow flow;
+        try
         {
-            throw new MethodNotAllowedException(resource.getResolvedUri(config.getApi().getVersion()), request.getMethod());
+            flow = getFlow(dispatch, request, snapshot.getApi().getVersion());
+        }
+        catch (UnsupportedMediaTypeException e)
+        {
+            config.getValidationPipeline().rejected(ValidationStage.CONTENT_TYPE);
+            throw e;
         }
-
-        ResolvedVariables resolvedVariables = uriResolver.resolve(uriPattern);
-
-        processUriParameters(resolvedVariables, resource, event);
-
-        Flow flow = getFlow(resource, request, config.getApi().getVersion());
         if (flow == null)
         {
             throw new ApikitRuntimeException("Flow not found for resource: " + resource);
         }
 
-        MuleEvent validatedEvent = request.validate(resource.getAction(request.getMethod()));
+        setUriParameters(resolvedVariables, event);
+        // uri parameters are validated with the other checks, in the configured order
+        MuleEvent validatedEvent;
+        try
+        {
+            validatedEvent = request.validate(dispatch, snapshot, resolvedVariables, metrics);
+        }
+        catch (MuleException | RuntimeException e)
+        {
+            releasePayload(event);
+            throw e;
+        }
+        RequestTiming timing = null;
+        if (metrics != null)
+        {
+            timing = new RequestTiming(metrics);
+            validatedEvent.getMessage().setInvocationProperty(ApikitResponseTransformer.REQUEST_TIMING, timing);
+        }
 
-        return new RouterRequest(validatedEvent, flow, request.getSuccessStatus());
+        return new RouterRequest(validatedEvent, flow, dispatch.getSuccessStatus(), timing);
     }
 
     private MuleEvent processRouterResponse(MuleEvent event, Integer successStatus)
@@ -225,21 +286,6 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         throw new UnsupportedOperationException();
     }
 
-    private Map<URIPattern, IResource> getRoutingTable()
-    {
-        return config.routingTable;
-    }
-
-    private LoadingCache<String, URIResolver> getUriResolverCache()
-    {
-        return config.uriResolverCache;
-    }
-
-    private LoadingCache<String, URIPattern> getUriPatternCache()
-    {
-        return config.uriPatternCache;
-    }
-
     protected abstract MuleEvent handleEvent(MuleEvent event, String path) throws MuleException;
 
     private HttpRestRequest getHttpRestRequest(MuleEvent event)
@@ -247,7 +293,7 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         return config.getHttpRestRequest(event);
     }
 
-    private void processUriParameters(ResolvedVariables resolvedVariables, IResource resource, MuleEvent event) throws InvalidUriParameterException
+    private void setUriParameters(ResolvedVariables resolvedVariables, MuleEvent event)
     {
         if (logger.isDebugEnabled())
         {
@@ -257,21 +303,6 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
             }
         }
 
-        if (!config.isDisableValidations())
-        {
-            for (Map.Entry<String, IParameter> entry : resource.getResolvedUriParameters().entrySet())
-            {
-                String value = (String) resolvedVariables.get(entry.getKey());
-                IParameter uriParameter = entry.getValue();
-                if (!uriParameter.validate(value))
-                {
-                    String msg = String.format("Invalid value '%s' for uri parameter %s. %s",
-                                               value, entry.getKey(), uriParameter.message(value));
-                    throw new InvalidUriParameterException(msg);
-                }
-            }
-        }
-
         Map<String, String> uriParams = new HashMap<>();
         for (String name : resolvedVariables.names())
         {
@@ -285,7 +316,20 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         }
     }
 
-    protected abstract Flow getFlow(IResource resource, HttpRestRequest request, String version) throws UnsupportedMediaTypeException;
+    protected abstract Flow getFlow(ActionDispatch dispatch, HttpRestRequest request, String version) throws UnsupportedMediaTypeException;
+
+    /**
+     * Deletes the temporary file of a request payload retained by the validation, if any.
+     */
+    private static void releasePayload(MuleEvent event)
+    {
+        ReplayBuffer replayBuffer = event.getMessage().getInvocationProperty(ReplayBuffer.REPLAY_BUFFER);
+        if (replayBuffer != null)
+        {
+            event.getMessage().removeProperty(ReplayBuffer.REPLAY_BUFFER, PropertyScope.INVOCATION);
+            replayBuffer.discard();
+        }
+    }
 
     private static class RouterRequest
     {
@@ -293,17 +337,33 @@ public abstract class AbstractRouter extends AbstractInterceptingMessageProcesso
         private MuleEvent event;
         private Flow flow;
         private Integer successStatus;
+        private RequestTiming timing;
 
         public RouterRequest(MuleEvent event)
         {
-            this(event, null, null);
+            this(event, null, null, null);
         }
 
-        public RouterRequest(MuleEvent event, Flow flow, Integer successStatus)
+        public RouterRequest(MuleEvent event, Flow flow, Integer successStatus, RequestTiming timing)
         {
             this.event = event;
             this.flow = flow;
             this.successStatus = successStatus;
+            this.timing = timing;
+        }
+
+        public long startFlow()
+        {
+            return timing != null ? System.nanoTime() : 0;
+        }
+
+        public void flowCompleted(long start, boolean failed)
+        {
+            releasePayload(event);
+            if (timing != null)
+            {
+                timing.flowCompleted(System.nanoTime() - start, failed);
+            }
         }
 
         public MuleEvent getEvent()
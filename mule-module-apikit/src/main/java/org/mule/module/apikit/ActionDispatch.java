@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import org.mule.construct.Flow;
+import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.module.apikit.exception.UnsupportedMediaTypeException;
+import org.mule.module.apikit.validation.HeaderValidationPlan;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IMimeType;
+import org.mule.raml.interfaces.model.IResource;
+import org.mule.raml.interfaces.model.IResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the router needs to dispatch a request to a RAML action, computed once
+ * when the dispatch table is compiled.
+ */
+public class ActionDispatch
+{
+
+    /**
+     * RAML 1.0 annotation declaring the maximum request body size of an action in bytes.
+     */
+    public static final String MAX_BODY_SIZE_ANNOTATION = "maxBodySize";
+
+    private final IResource resource;
+    private final IAction action;
+    private final int successStatus;
+    private final List<String> responseMimeTypes;
+    private final HeaderValidationPlan headerValidationPlan;
+    private final Flow flow;
+    private final Map<String, Flow> flowsByMediaType;
+    private final long maxBodySize;
+
+    public ActionDispatch(IResource resource, IAction action, Flow flow, Map<String, Flow> flowsByMediaType)
+    {
+        this.resource = resource;
+        this.action = action;
+        this.successStatus = successStatus(action);
+        this.responseMimeTypes = Collections.unmodifiableList(responseMimeTypes(action, successStatus));
+        this.headerValidationPlan = new HeaderValidationPlan(action.getHeaders());
+        this.flow = flow;
+        this.flowsByMediaType = new HashMap<>(flowsByMediaType);
+        this.maxBodySize = declaredMaxBodySize(action);
+    }
+
+    public IResource getResource()
+    {
+        return resource;
+    }
+
+    public IAction getAction()
+    {
+        return action;
+    }
+
+    public int getSuccessStatus()
+    {
+        return successStatus;
+    }
+
+    public List<String> getResponseMimeTypes()
+    {
+        return responseMimeTypes;
+    }
+
+    public HeaderValidationPlan getHeaderValidationPlan()
+    {
+        return headerValidationPlan;
+    }
+
+    /**
+     * Returns the maximum request body size declared by the action, 0 if unlimited,
+     * or -1 if the action does not declare one.
+     */
+    public long getMaxBodySize()
+    {
+        return maxBodySize;
+    }
+
+    /**
+     * Returns the flow that handles the request or null if there is none.
+     * First tries to match a flow by the request media type,
+     * if there is no match it falls back to the flow declared without media type.
+     *
+     * @throws UnsupportedMediaTypeException if there is no match but the action
+     *                                       is implemented for other media types
+     */
+    public Flow getFlow(String mediaType) throws UnsupportedMediaTypeException
+    {
+        Flow match = mediaType != null ? flowsByMediaType.get(mediaType) : null;
+        if (match == null)
+        {
+            match = flow;
+            if (match == null && !flowsByMediaType.isEmpty())
+            {
+                throw new UnsupportedMediaTypeException();
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the maximum request body size declared by the <code>maxBodySize</code>
+     * annotation of the action, or -1 if it is not declared.
+     *
+     * @throws ApikitRuntimeException if the declared value is not a non negative integer
+     */
+    public static long declaredMaxBodySize(IAction action)
+    {
+        String value = action.getAnnotation(MAX_BODY_SIZE_ANNOTATION);
+        if (value == null)
+        {
+            return -1;
+        }
+        long maxBodySize;
+        try
+        {
+            maxBodySize = new BigDecimal(value.trim()).longValueExact();
+        }
+        catch (NumberFormatException | ArithmeticException e)
+        {
+            throw invalidMaxBodySize(action, value);
+        }
+        if (maxBodySize < 0)
+        {
+            throw invalidMaxBodySize(action, value);
+        }
+        return maxBodySize;
+    }
+
+    private static ApikitRuntimeException invalidMaxBodySize(IAction action, String value)
+    {
+        String key = action.getType().name().toLowerCase() + ":" + action.getResource().getUri();
+        return new ApikitRuntimeException("Invalid " + MAX_BODY_SIZE_ANNOTATION + " '" + value + "' for action " + key);
+    }
+
+    private static int successStatus(IAction action)
+    {
+        for (String status : action.getResponses().keySet())
+        {
+            int code = Integer.parseInt(status);
+            if (code >= 200 && code < 300)
+            {
+                return code;
+            }
+        }
+        //default success status
+        return 200;
+    }
+
+    private static List<String> responseMimeTypes(IAction action, int status)
+    {
+        List<String> mimeTypes = new ArrayList<>();
+        IResponse response = action.getResponses().get(String.valueOf(status));
+        if (response != null && response.hasBody())
+        {
+            for (IMimeType mimeType : response.getBody().values())
+            {
+                mimeTypes.add(mimeType.getType());
+            }
+        }
+        return mimeTypes;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the files of a RAML descriptor and reloads the api of a configuration when
+ * the descriptor or any include or library it references changes.
+ * <p/>
+ * Only the files the parser read are watched, and they are resolved again after every
+ * reload so added and removed includes are picked up. Reloads run on a single background
+ * thread, so requests keep being served by the current version of the api while the new
+ * one is parsed and built.
+ */
+public class ApiReloader
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiReloader.class);
+
+    private final AbstractConfiguration configuration;
+    private final long interval;
+    private final ClassLoader classLoader;
+    private ScheduledExecutorService executor;
+    private List<File> files;
+    private long fingerprint;
+
+    public ApiReloader(AbstractConfiguration configuration, long interval, ClassLoader classLoader)
+    {
+        this.configuration = configuration;
+        this.interval = interval;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Returns the files of the given descriptor resources that are in the file system,
+     * looking each one up in the class loader and then in the application home, both by
+     * its name and relative to the directory of the descriptor.
+     */
+    public static List<File> findFiles(String ramlPath, Collection<String> resourceNames, String appHome, ClassLoader classLoader)
+    {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(ramlPath);
+        names.addAll(resourceNames);
+        int separator = ramlPath.lastIndexOf('/');
+        String ramlDirectory = separator > 0 ? ramlPath.substring(0, separator + 1) : null;
+        List<File> files = new ArrayList<>();
+        for (String name : names)
+        {
+            File file = findFile(name, appHome, classLoader);
+            if (file == null && ramlDirectory != null && !name.startsWith(ramlDirectory))
+            {
+                file = findFile(ramlDirectory + name, appHome, classLoader);
+            }
+            if (file != null && !files.contains(file))
+            {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static File findFile(String name, String appHome, ClassLoader classLoader)
+    {
+        URL url = classLoader.getResource(name);
+        if (url != null && "file".equals(url.getProtocol()))
+        {
+            try
+            {
+                return new File(url.toURI());
+            }
+            catch (URISyntaxException e)
+            {
+                logger.debug("Invalid RAML resource url " + url, e);
+            }
+        }
+        File file = appHome != null ? new File(appHome, name) : new File(name);
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Returns false, without watching anything, if none of the files of the descriptor
+     * are in the file system.
+     */
+    public synchronized boolean start()
+    {
+        if (executor != null)
+        {
+            return true;
+        }
+        files = resolveFiles();
+        if (files.isEmpty())
+        {
+            return false;
+        }
+        fingerprint = fingerprint(files);
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "apikit-reload-" + configuration.getName());
+                thread.setDaemon(true);
+                // the parser resolves descriptors with the application class loader
+                thread.setContextClassLoader(classLoader);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                poll();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info(String.format("Watching %d files of %s for API changes every %d ms", files.size(), configuration.getRaml(), interval));
+        return true;
+    }
+
+    public synchronized void stop()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private List<File> resolveFiles()
+    {
+        return findFiles(configuration.getRaml(), configuration.getApiResourceNames(), configuration.getAppHome(), classLoader);
+    }
+
+    private void poll()
+    {
+        long current = fingerprint(files);
+        if (current == fingerprint)
+        {
+            return;
+        }
+        try
+        {
+            configuration.reloadApi();
+            files = resolveFiles();
+            current = fingerprint(files);
+        }
+        catch (RuntimeException e)
+        {
+            logger.error("Cannot reload API " + configuration.getRaml() + ", keeping version "
+                         + configuration.getSnapshot().getVersion(), e);
+        }
+        fingerprint = current;
+    }
+
+    /**
+     * Returns a value that changes when any of the files is created, deleted, modified
+     * or resized.
+     */
+    static long fingerprint(List<File> files)
+    {
+        long fingerprint = 17;
+        for (File file : files)
+        {
+            fingerprint = fingerprint * 31 + (file.getPath().hashCode() ^ (file.lastModified() * 31 + file.length()));
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import org.mule.api.DefaultMuleException;
+import org.mule.api.MuleException;
+import org.mule.module.apikit.exception.MuleRestException;
+import org.mule.module.apikit.exception.NotFoundException;
+import org.mule.module.apikit.uri.URIPattern;
+import org.mule.module.apikit.uri.URIPatternTrie;
+import org.mule.module.apikit.uri.URIResolveResult;
+import org.mule.module.apikit.uri.URIResolver;
+import org.mule.module.apikit.uri.URIShapeIndex;
+import org.mule.module.apikit.validation.cache.CompiledXmlSchema;
+import org.mule.module.apikit.validation.cache.JsonSchemaCache;
+import org.mule.module.apikit.validation.cache.XmlSchemaCache;
+import org.mule.raml.interfaces.model.IRaml;
+import org.mule.raml.interfaces.model.IResource;
+
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Everything a request is routed and validated against for one version of the api: the
+ * routing table and its indexes, the uri and schema caches and the dispatch table.
+ * <p/>
+ * A snapshot is never modified once published, an api update builds a new one and
+ * replaces the previous with a single write. A request reads the snapshot once and
+ * routes against it, so it never sees tables from different versions of the api, and
+ * the caches of a snapshot only ever hold entries of its own api.
+ */
+public class ApiSnapshot
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiSnapshot.class);
+
+    private static final int URI_CACHE_SIZE = 1000;
+
+    private final long version;
+    private final IRaml api;
+    private final Map<URIPattern, IResource> routingTable;
+    private final URIPatternTrie routingTrie;
+    private final URIShapeIndex uriShapeIndex;
+    private final LoadingCache<String, URIResolver> uriResolverCache;
+    private final LoadingCache<String, URIPattern> uriPatternCache;
+    private final Cache<String, Optional<URIPattern>> uriShapeCache;
+    private final LoadingCache<String, JsonSchema> jsonSchemaCache;
+    private final LoadingCache<String, CompiledXmlSchema> xmlSchemaCache;
+    private final DispatchTable dispatchTable;
+
+    /**
+     * Builds the routing structures of the given api, its dispatch table is compiled
+     * separately with {@link #withDispatchTable(DispatchTable)}.
+     */
+    public ApiSnapshot(long version, IRaml api, RoutingEngine routingEngine)
+    {
+        this.version = version;
+        this.api = api;
+        Map<URIPattern, IResource> table = new LinkedHashMap<>();
+        buildRoutingTable(table, api.getResources());
+        this.routingTable = Collections.unmodifiableMap(table);
+        this.routingTrie = routingEngine == RoutingEngine.TRIE ? buildRoutingTrie() : null;
+        this.uriShapeIndex = routingEngine == RoutingEngine.TEMPLATE_CACHE ? new URIShapeIndex(routingTable.keySet()) : null;
+        this.uriResolverCache = CacheBuilder.newBuilder()
+                .maximumSize(URI_CACHE_SIZE)
+                .build(new CacheLoader<String, URIResolver>()
+                {
+                    public URIResolver load(String path) throws IOException
+                    {
+                        return new URIResolver(path);
+                    }
+                });
+        this.uriPatternCache = CacheBuilder.newBuilder()
+                .maximumSize(URI_CACHE_SIZE)
+                .build(new CacheLoader<String, URIPattern>()
+                {
+                    public URIPattern load(String path) throws Exception
+                    {
+                        URIResolver resolver = uriResolverCache.get(path);
+                        URIPattern match = resolver.find(routingTable.keySet(), URIResolver.MatchRule.BEST_MATCH);
+
+                        if (match == null)
+                        {
+                            logger.warn("No matching patterns for URI " + path);
+                            throw new NotFoundException(path);
+                        }
+                        return match;
+                    }
+                });
+        this.uriShapeCache = uriShapeIndex == null ? null : CacheBuilder.newBuilder()
+                .maximumSize(URI_CACHE_SIZE)
+                .recordStats()
+                .<String, Optional<URIPattern>>build();
+        this.jsonSchemaCache = JsonSchemaCache.newJsonSchemaCache(api);
+        this.xmlSchemaCache = XmlSchemaCache.newXmlSchemaCache(api);
+        this.dispatchTable = null;
+    }
+
+    private ApiSnapshot(ApiSnapshot snapshot, DispatchTable dispatchTable)
+    {
+        this.version = snapshot.version;
+        this.api = snapshot.api;
+        this.routingTable = snapshot.routingTable;
+        this.routingTrie = snapshot.routingTrie;
+        this.uriShapeIndex = snapshot.uriShapeIndex;
+        this.uriResolverCache = snapshot.uriResolverCache;
+        this.uriPatternCache = snapshot.uriPatternCache;
+        this.uriShapeCache = snapshot.uriShapeCache;
+        this.jsonSchemaCache = snapshot.jsonSchemaCache;
+        this.xmlSchemaCache = snapshot.xmlSchemaCache;
+        this.dispatchTable = dispatchTable;
+    }
+
+    /**
+     * Returns a copy of this snapshot sharing its routing structures and caches, with the
+     * given dispatch table.
+     */
+    public ApiSnapshot withDispatchTable(DispatchTable dispatchTable)
+    {
+        return new ApiSnapshot(this, dispatchTable);
+    }
+
+    private void buildRoutingTable(Map<URIPattern, IResource> table, Map<String, IResource> resources)
+    {
+        for (IResource resource : resources.values())
+        {
+            String uri = resource.getResolvedUri(api.getVersion());
+            logger.debug("Adding URI to the routing table: " + uri);
+            table.put(new URIPattern(uri), resource);
+            if (resource.getResources() != null)
+            {
+                buildRoutingTable(table, resource.getResources());
+            }
+        }
+    }
+
+    private URIPatternTrie buildRoutingTrie()
+    {
+        try
+        {
+            return new URIPatternTrie(routingTable.keySet());
+        }
+        catch (IllegalArgumentException e)
+        {
+            logger.warn("Cannot compile routing trie, falling back to regex routing: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finds the resource URI pattern that best matches the path and resolves its variables.
+     *
+     * @param path decoded resource path
+     * @return the matching pattern along with the resolved uri parameters
+     * @throws NotFoundException if no resource matches the path
+     */
+    public URIResolveResult resolveRoute(String path) throws MuleException
+    {
+        if (routingTrie != null)
+        {
+            URIResolveResult result = routingTrie.resolve(path);
+            if (result == null)
+            {
+                logger.warn("No matching patterns for URI " + path);
+                throw new NotFoundException(path);
+            }
+            return result;
+        }
+        try
+        {
+            if (uriShapeCache != null)
+            {
+                return resolveRouteByShape(path);
+            }
+            URIPattern uriPattern = uriPatternCache.get(path);
+            return uriResolverCache.get(path).resolve(uriPattern);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof MuleRestException)
+            {
+                throw (MuleRestException) e.getCause();
+            }
+            throw new DefaultMuleException(e);
+        }
+    }
+
+    private URIResolveResult resolveRouteByShape(String path) throws ExecutionException, NotFoundException
+    {
+        final URIResolver resolver = new URIResolver(path);
+        Optional<URIPattern> match = uriShapeCache.get(uriShapeIndex.shapeOf(resolver.uri()), new Callable<Optional<URIPattern>>()
+        {
+            @Override
+            public Optional<URIPattern> call() throws Exception
+            {
+                return Optional.fromNullable(resolver.find(routingTable.keySet(), URIResolver.MatchRule.BEST_MATCH));
+            }
+        });
+        if (!match.isPresent())
+        {
+            logger.warn("No matching patterns for URI " + path);
+            throw new NotFoundException(path);
+        }
+        return resolver.resolve(match.get());
+    }
+
+    /**
+     * Returns the dispatch for the given resource of this snapshot and lower case http
+     * method, or null if the resource does not declare the method.
+     */
+    public ActionDispatch getActionDispatch(IResource resource, String method)
+    {
+        return dispatchTable.get(resource, method);
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public IRaml getApi()
+    {
+        return api;
+    }
+
+    public Map<URIPattern, IResource> getRoutingTable()
+    {
+        return routingTable;
+    }
+
+    public Cache<String, Optional<URIPattern>> getUriShapeCache()
+    {
+        return uriShapeCache;
+    }
+
+    public LoadingCache<String, JsonSchema> getJsonSchemaCache()
+    {
+        return jsonSchemaCache;
+    }
+
+    public LoadingCache<String, CompiledXmlSchema> getXmlSchemaCache()
+    {
+        return xmlSchemaCache;
+    }
+}
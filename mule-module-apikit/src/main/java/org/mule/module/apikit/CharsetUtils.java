@@ -65,7 +65,24 @@ public class CharsetUtils
      */
     public static String getXmlEncoding(MuleEvent muleEvent, byte[] payload, Document document, Logger logger)
     {
-        String encoding = document.getXmlEncoding();
+        return getXmlEncoding(muleEvent, payload, document.getXmlEncoding(), logger);
+    }
+
+    /**
+     * Tries to figure out the encoding of an xml request in the following order
+     *  - uses the encoding declared in the xml declaration
+     *  - detects the payload encoding using BOM, or tries to auto-detect it
+     *  - return the mule message encoding
+     *
+     * @param muleEvent mule event
+     * @param payload xml payload as byte array
+     * @param declaredEncoding encoding of the xml declaration or null if not declared
+     * @param logger where to log
+     * @return xml payload encoding
+     */
+    public static String getXmlEncoding(MuleEvent muleEvent, byte[] payload, String declaredEncoding, Logger logger)
+    {
+        String encoding = declaredEncoding;
         logger.debug("Xml declaration encoding: " + logEncoding(encoding));
         if (encoding == null)
         {
@@ -108,42 +125,53 @@ public class CharsetUtils
      */
     public static byte[] trimBom(byte[] content)
     {
-        int bomSize = 0;
-        if (content.length > 4)
+        int bomSize = getBomSize(content, content.length);
+        if (bomSize > 0)
+        {
+            LOGGER.debug("Trimming {}-byte BOM", bomSize);
+            int trimmedSize = content.length - bomSize;
+            byte[] trimmedArray = new byte[trimmedSize];
+            System.arraycopy(content, bomSize, trimmedArray, 0, trimmedSize);
+            return trimmedArray;
+        }
+        return content;
+    }
+
+    /**
+     * Returns the size of the BOM at the beginning of the content or 0 if there is none
+     *
+     * @param content byte array holding the beginning of the payload
+     * @param length number of valid bytes in the array
+     * @return BOM size in bytes
+     */
+    public static int getBomSize(byte[] content, int length)
+    {
+        if (length > 4)
         {
             // check for UTF_32BE and UTF_32LE BOMs
             if (content[0] == 0x00 && content[1] == 0x00 && content[2] == (byte) 0xFE && content[3] == (byte) 0xFF ||
                 content[0] == (byte) 0xFF && content[1] == (byte) 0xFE && content[2] == 0x00 && content[3] == 0x00)
             {
-                bomSize = 4;
+                return 4;
             }
         }
-        if (content.length > 3 && bomSize == 0)
+        if (length > 3)
         {
             // check for UTF-8 BOM
             if (content[0] == (byte) 0xEF && content[1] == (byte) 0xBB && content[2] == (byte) 0xBF)
             {
-                bomSize = 3;
+                return 3;
             }
         }
-        if (content.length > 2 && bomSize == 0)
+        if (length > 2)
         {
             // check for UTF_16BE and UTF_16LE BOMs
             if (content[0] == (byte) 0xFE && content[1] == (byte) 0xFF || content[0] == (byte) 0xFF && content[1] == (byte) 0xFE)
             {
-                bomSize = 2;
+                return 2;
             }
         }
-
-        if (bomSize > 0)
-        {
-            LOGGER.debug("Trimming {}-byte BOM", bomSize);
-            int trimmedSize = content.length - bomSize;
-            byte[] trimmedArray = new byte[trimmedSize];
-            System.arraycopy(content, bomSize, trimmedArray, 0, trimmedSize);
-            return trimmedArray;
-        }
-        return content;
+        return 0;
     }
 
 
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +39,7 @@ public class Configuration extends AbstractConfiguration
 
     private boolean consoleEnabled = true;
     private String consolePath = DEFAULT_CONSOLE_PATH;
+    private String metricsPath;
     private List<FlowMapping> flowMappings = new ArrayList<FlowMapping>();
     private Map<String, Flow> restFlowMap;
     private Map<String, Flow> restFlowMapUnwrapped;
@@ -63,6 +65,16 @@ public class Configuration extends AbstractConfiguration
         this.consolePath = consolePath;
     }
 
+    public String getMetricsPath()
+    {
+        return metricsPath;
+    }
+
+    public void setMetricsPath(String metricsPath)
+    {
+        this.metricsPath = metricsPath;
+    }
+
     public List<FlowMapping> getFlowMappings()
     {
         return flowMappings;
@@ -85,7 +97,8 @@ public class Configuration extends AbstractConfiguration
 
         if (restFlowMap == null)
         {
-            restFlowMap = new HashMap<>();
+            // gateway wrappers are put by request threads while a reload compiles its dispatch table
+            restFlowMap = new ConcurrentHashMap<>();
 
             //init flows by convention
             Collection<Flow> flows = muleContext.getRegistry().lookupObjects(Flow.class);
@@ -114,7 +127,7 @@ public class Configuration extends AbstractConfiguration
     {
         for (IResource resource : resources.values())
         {
-            flatResourceTree.put(resource.getResolvedUri(api.getVersion()), resource);
+            flatResourceTree.put(resource.getResolvedUri(getApi().getVersion()), resource);
             if (resource.getResources() != null)
             {
                 flattenResourceTree(resource.getResources());
@@ -126,7 +139,7 @@ public class Configuration extends AbstractConfiguration
     {
         for (IResource resource : flatResourceTree.values())
         {
-            String fullResource = resource.getResolvedUri(api.getVersion());
+            String fullResource = resource.getResolvedUri(getApi().getVersion());
             for (IAction action : resource.getActions().values())
             {
                 String method = action.getType().name().toLowerCase();
@@ -171,7 +184,13 @@ public class Configuration extends AbstractConfiguration
 
             try
             {
-                flow.dynamicPipeline(null).injectAfter(new ApikitResponseTransformer()).resetAndUpdate();
+                ApikitResponseTransformer responseTransformer = new ApikitResponseTransformer();
+                responseTransformer.setStreaming(isStreamingResponses());
+                flow.dynamicPipeline(null).injectAfter(responseTransformer).resetAndUpdate();
+                if (getMBeanRegistrar() != null)
+                {
+                    getMBeanRegistrar().register("ResponseTransformation", flow.getName(), responseTransformer.getStatistics());
+                }
             }
             catch (DynamicPipelineException e)
             {
@@ -203,6 +222,12 @@ public class Configuration extends AbstractConfiguration
         return restFlowMap;
     }
 
+    @Override
+    protected Map<String, Flow> getDispatchFlows()
+    {
+        return restFlowMap;
+    }
+
     /**
      * validates if name is a valid router flow name according to the following pattern:
      *  method:/resource[:content-type][:config-name]
@@ -294,13 +319,15 @@ public class Configuration extends AbstractConfiguration
 
         private static final String WRAPPER_FLOW_SUFFIX = "-gateway-wrapper";
 
+        private Configuration configuration;
         private Map<String, Flow> restFlowMap;
         private String key;
         private Flow targetFlow;
-        private Flow wrapperFlow;
+        private volatile Flow wrapperFlow;
 
         RouterFlowResolver(Configuration configuration, String key)
         {
+            this.configuration = configuration;
             this.restFlowMap = configuration.restFlowMap;
             this.key = key;
             this.targetFlow = restFlowMap.get(key);
@@ -322,8 +349,16 @@ public class Configuration extends AbstractConfiguration
             }
 
             //wrap target
-            wrapperFlow = wrapFlow();
-            restFlowMap.put(key, wrapperFlow);
+            synchronized (this)
+            {
+                if (wrapperFlow == null)
+                {
+                    Flow wrapper = wrapFlow();
+                    restFlowMap.put(key, wrapper);
+                    configuration.compileDispatchTable();
+                    wrapperFlow = wrapper;
+                }
+            }
             return wrapperFlow;
         }
 
@@ -22,12 +22,13 @@ import org.mule.util.FilenameUtils;
 import org.mule.util.IOUtils;
 import org.mule.util.StringUtils;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,7 +51,8 @@ public class ConsoleHandler implements MessageProcessor
     private static final String DEFAULT_API_RESOURCES_PATH = "api/";
     private static final String RAML_QUERY_STRING = "raml";
 
-    private String cachedIndexHtml;
+    private volatile StaticResource indexResource;
+    private final ConcurrentMap<String, StaticResource> consoleResources = new ConcurrentHashMap<>();
     private String embeddedConsolePath;
     private String apiResourcesRelativePath = DEFAULT_API_RESOURCES_PATH;
     private boolean standalone;
@@ -89,11 +91,12 @@ public class ConsoleHandler implements MessageProcessor
             IOUtils.closeQuietly(indexInputStream);
             indexHtml = indexHtml.replaceFirst(consoleElement + " src=\"[^\"]+\"",
                                                consoleElement + " src=\"" + relativeRamlUri + "\"");
-            cachedIndexHtml = indexHtml.replaceFirst(CONSOLE_ATTRIBUTES_PLACEHOLDER, consoleAttributes);
+            indexHtml = indexHtml.replaceFirst(CONSOLE_ATTRIBUTES_PLACEHOLDER, consoleAttributes);
+            indexResource = StaticResource.of(indexHtml.getBytes(), MimeTypes.HTML, StaticResource.CACHE_REVALIDATE);
         }
         else
         {
-            cachedIndexHtml = "RAML Console is DISABLED.";
+            indexResource = StaticResource.of("RAML Console is DISABLED.".getBytes(), MimeTypes.HTML, StaticResource.CACHE_REVALIDATE);
         }
     }
 
@@ -170,7 +173,6 @@ public class ConsoleHandler implements MessageProcessor
         ByteArrayOutputStream baos = null;
         try
         {
-            boolean addContentEncodingHeader = false;
             if (path.equals(embeddedConsolePath) && !(contextPath.endsWith("/") && standalone))
             {
                 // client redirect
@@ -187,10 +189,11 @@ public class ConsoleHandler implements MessageProcessor
                 event.getMessage().setOutboundProperty(HttpConstants.HEADER_LOCATION, redirectLocation);
                 return event;
             }
+            StaticResource resource = null;
             if (path.equals(embeddedConsolePath) || path.equals(embeddedConsolePath + "/") || path.equals(embeddedConsolePath + "/index.html"))
             {
                 path = RESOURCE_BASE + "/index.html";
-                in = new ByteArrayInputStream(cachedIndexHtml.getBytes());
+                resource = indexResource;
             }
             else
             {
@@ -200,8 +203,7 @@ public class ConsoleHandler implements MessageProcessor
                     // check for root raml
                     if (path.equals(apiResourcesFullPath) && queryString.equals(RAML_QUERY_STRING))
                     {
-                        path += ".raml"; // to set raml mime type
-                        in = new ByteArrayInputStream(configuration.getApikitRamlConsole(event).getBytes());
+                        resource = StaticResource.forRaml(configuration.getApikitRamlConsole(event));
                     }
                     else
                     {
@@ -210,24 +212,15 @@ public class ConsoleHandler implements MessageProcessor
                         in = new FileInputStream(apiResource);
                     }
                 }
-                else if (path.startsWith(embeddedConsolePath + "/scripts"))
-                {
-                    String acceptEncoding = event.getMessage().getInboundProperty("accept-encoding");
-                    if (acceptEncoding != null && acceptEncoding.contains("gzip"))
-                    {
-                        in = getClass().getResourceAsStream(RESOURCE_BASE + path.substring(embeddedConsolePath.length()) + ".gz");
-                        addContentEncodingHeader = true;
-                    }
-                    else
-                    {
-                        in = getClass().getResourceAsStream(RESOURCE_BASE + path.substring(embeddedConsolePath.length()));
-                    }
-                }
                 else if (path.startsWith(embeddedConsolePath))
                 {
-                    in = getClass().getResourceAsStream(RESOURCE_BASE + path.substring(embeddedConsolePath.length()));
+                    resource = getConsoleResource(RESOURCE_BASE + path.substring(embeddedConsolePath.length()));
                 }
             }
+            if (resource != null)
+            {
+                return resource.respond(event);
+            }
             if (in == null)
             {
                 throw new NotFoundException(path);
@@ -237,10 +230,6 @@ public class ConsoleHandler implements MessageProcessor
             IOUtils.copyLarge(in, baos);
             byte[] buffer = baos.toByteArray();
             String mimetype = getMimeType(path);
-            if (mimetype == null)
-            {
-                mimetype = DEFAULT_MIME_TYPE;
-            }
 
             resultEvent = new DefaultMuleEvent(new DefaultMuleMessage(buffer, event.getMuleContext()), event);
             resultEvent.getMessage().setOutboundProperty(HttpConnector.HTTP_STATUS_PROPERTY,
@@ -248,11 +237,6 @@ public class ConsoleHandler implements MessageProcessor
             resultEvent.getMessage().setOutboundProperty(HttpConstants.HEADER_CONTENT_TYPE, mimetype);
             resultEvent.getMessage().setOutboundProperty(HttpConstants.HEADER_CONTENT_LENGTH, buffer.length);
             resultEvent.getMessage().setOutboundProperty("Access-Control-Allow-Origin", "*");
-
-            if (addContentEncodingHeader)
-            {
-                resultEvent.getMessage().setOutboundProperty("Content-Encoding", "gzip");
-            }
             if (mimetype.equals(MimeTypes.HTML))
             {
                 resultEvent.getMessage().setOutboundProperty(HttpConstants.HEADER_EXPIRES, -1); //avoid IE ajax response caching
@@ -271,6 +255,27 @@ public class ConsoleHandler implements MessageProcessor
         return resultEvent;
     }
 
+    /**
+     * Returns the console asset at the given classpath location, loading it on first use.
+     * Api resources are read from the application on every request as they are not
+     * packaged with the console.
+     *
+     * @return null if there is no such asset
+     */
+    private StaticResource getConsoleResource(String resourcePath) throws IOException
+    {
+        StaticResource resource = consoleResources.get(resourcePath);
+        if (resource == null)
+        {
+            resource = StaticResource.load(getClass(), resourcePath, getMimeType(resourcePath), StaticResource.CACHE_ONE_DAY);
+            if (resource != null)
+            {
+                consoleResources.putIfAbsent(resourcePath, resource);
+            }
+        }
+        return resource;
+    }
+
     private String getMimeType(String path)
     {
         String mimeType = DEFAULT_MIME_TYPE;
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import org.mule.construct.Flow;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IActionType;
+import org.mule.raml.interfaces.model.IResource;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Immutable table mapping every RAML resource and action to its {@link ActionDispatch}.
+ * <p/>
+ * Resources are looked up by identity, so the table must be compiled again whenever the
+ * resources of the routing table change.
+ */
+public class DispatchTable
+{
+
+    private static final Map<String, IActionType> METHODS = new HashMap<>();
+
+    static
+    {
+        for (IActionType type : IActionType.values())
+        {
+            METHODS.put(type.name().toLowerCase(), type);
+        }
+    }
+
+    private final Map<IResource, ActionDispatch[]> table = new IdentityHashMap<>();
+
+    /**
+     * Compiles the table for the given resources.
+     *
+     * @param resources the resources of the routing table
+     * @param version the api version used to resolve resource uris
+     * @param flows the flows implementing the api keyed by method:resource[:media-type]
+     */
+    public DispatchTable(Collection<IResource> resources, String version, Map<String, Flow> flows)
+    {
+        Map<String, Map<String, Flow>> flowsByMediaType = new HashMap<>();
+        for (Map.Entry<String, Flow> entry : flows.entrySet())
+        {
+            String[] coords = entry.getKey().split(":");
+            if (coords.length == 3)
+            {
+                String baseKey = coords[0] + ":" + coords[1];
+                if (!flowsByMediaType.containsKey(baseKey))
+                {
+                    flowsByMediaType.put(baseKey, new HashMap<String, Flow>());
+                }
+                flowsByMediaType.get(baseKey).put(coords[2], entry.getValue());
+            }
+        }
+
+        for (IResource resource : resources)
+        {
+            ActionDispatch[] dispatches = new ActionDispatch[IActionType.values().length];
+            for (Map.Entry<IActionType, IAction> entry : resource.getActions().entrySet())
+            {
+                String baseKey = entry.getKey().name().toLowerCase() + ":" + resource.getResolvedUri(version);
+                Map<String, Flow> mediaTypeFlows = flowsByMediaType.get(baseKey);
+                dispatches[entry.getKey().ordinal()] = new ActionDispatch(resource, entry.getValue(), flows.get(baseKey),
+                                                                          mediaTypeFlows != null ? mediaTypeFlows : new HashMap<String, Flow>());
+            }
+            table.put(resource, dispatches);
+        }
+    }
+
+    /**
+     * Returns the dispatch for the given resource and lower case http method,
+     * or null if the resource does not declare the method.
+     */
+    public ActionDispatch get(IResource resource, String method)
+    {
+        ActionDispatch[] dispatches = table.get(resource);
+        IActionType type = METHODS.get(method);
+        if (dispatches == null || type == null)
+        {
+            return null;
+        }
+        return dispatches[type.ordinal()];
+    }
+}
@@ -12,85 +12,128 @@ import static org.mule.transport.http.HttpConnector.HTTP_REQUEST_PATH_PROPERTY;
 
 import org.mule.api.MuleEvent;
 import org.mule.api.MuleMessage;
+import org.mule.module.apikit.uri.URICoder;
 import org.mule.util.StringUtils;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
 
+/**
+ * View of the http request carried by a mule event.
+ * <p/>
+ * Every value is read from the inbound properties the first time it is requested and
+ * kept for subsequent calls, so requests only pay for what the router actually uses.
+ */
 public class HttpProtocolAdapter
 {
 
+    private final MuleMessage message;
+    private final String hostHeader;
+
     private String basePath;
+    private String requestPath;
+    private String resourcePath;
     private URI resourceURI;
     private String method;
     private String acceptableResponseMediaTypes;
+    private boolean acceptableResponseMediaTypesRead;
     private String requestMediaType;
+    private boolean requestMediaTypeRead;
     private Map<String, Object> queryParams;
+    private boolean queryParamsRead;
 
     public HttpProtocolAdapter(MuleEvent event)
     {
-        MuleMessage message = event.getMessage();
-        this.basePath = UrlUtils.getBasePath(message);
-        String hostHeader = message.getInboundProperty("host");
+        this.message = event.getMessage();
+        this.hostHeader = message.getInboundProperty("host");
         if (hostHeader == null)
         {
             throw new IllegalArgumentException("host header cannot be null");
         }
-        String host = hostHeader;
-        int port = 80;
-        String requestPath = message.getInboundProperty(HTTP_REQUEST_PATH_PROPERTY);
-        if (hostHeader.contains(":"))
-        {
-            host = hostHeader.substring(0, hostHeader.indexOf(':'));
-            port = Integer.parseInt(hostHeader.substring(hostHeader.indexOf(':') + 1));
-        }
-        try
-        {
-            this.resourceURI = new URI("http", null, host, port, requestPath, null, null);
-        }
-        catch (URISyntaxException e)
-        {
-            throw new IllegalArgumentException("Cannot parse URI", e);
-        }
-
-        method = message.getInboundProperty(HTTP_METHOD_PROPERTY);
+    }
 
-        if (!StringUtils.isBlank((String) message.getInboundProperty("accept")))
+    public String getBasePath()
+    {
+        if (basePath == null)
         {
-            this.acceptableResponseMediaTypes = message.getInboundProperty("accept");
+            basePath = UrlUtils.getBasePath(message);
         }
+        return basePath;
+    }
 
-        if (!StringUtils.isBlank((String) message.getInboundProperty("content-type")))
-        {
-            this.requestMediaType = message.getInboundProperty("content-type");
-        }
-        if (this.requestMediaType == null
-            && !StringUtils.isBlank((String) message.getOutboundProperty("content-type")))
+    /**
+     * Returns the request path as received, including the base path.
+     */
+    public String getRequestPath()
+    {
+        if (requestPath == null)
         {
-            this.requestMediaType = message.getOutboundProperty("content-type");
+            requestPath = message.getInboundProperty(HTTP_REQUEST_PATH_PROPERTY);
         }
-
-        this.queryParams = message.getInboundProperty(HTTP_QUERY_PARAMS);
+        return requestPath;
     }
 
-    public String getBasePath()
+    /**
+     * Returns the decoded request path relative to the base path, without trailing slash.
+     */
+    public String getResourcePath()
     {
-        return basePath;
+        if (resourcePath == null)
+        {
+            String path = getRequestPath();
+            String base = getBasePath();
+            int start = base.endsWith("/") ? base.length() - 1 : base.length();
+            int end = path.endsWith("/") ? path.length() - 1 : path.length();
+            resourcePath = URICoder.decode(path.substring(start, end));
+        }
+        return resourcePath;
     }
 
     public URI getResourceURI()
     {
+        if (resourceURI == null)
+        {
+            String host = hostHeader;
+            int port = 80;
+            int colon = hostHeader.indexOf(':');
+            if (colon >= 0)
+            {
+                host = hostHeader.substring(0, colon);
+                port = Integer.parseInt(hostHeader.substring(colon + 1));
+            }
+            try
+            {
+                resourceURI = new URI("http", null, host, port, getRequestPath(), null, null);
+            }
+            catch (URISyntaxException e)
+            {
+                throw new IllegalArgumentException("Cannot parse URI", e);
+            }
+        }
         return resourceURI;
     }
 
     public String getMethod()
     {
+        if (method == null)
+        {
+            method = message.getInboundProperty(HTTP_METHOD_PROPERTY);
+        }
         return method;
     }
 
     public String getAcceptableResponseMediaTypes()
     {
+        if (!acceptableResponseMediaTypesRead)
+        {
+            String accept = message.getInboundProperty("accept");
+            if (!StringUtils.isBlank(accept))
+            {
+                acceptableResponseMediaTypes = accept;
+            }
+            acceptableResponseMediaTypesRead = true;
+        }
         if (acceptableResponseMediaTypes == null)
         {
             return "*/*";
@@ -100,11 +143,30 @@ public class HttpProtocolAdapter
 
     public String getRequestMediaType()
     {
-        return requestMediaType != null ? requestMediaType.split(";")[0] : null;
+        if (!requestMediaTypeRead)
+        {
+            String contentType = message.getInboundProperty("content-type");
+            if (StringUtils.isBlank(contentType))
+            {
+                contentType = message.getOutboundProperty("content-type");
+            }
+            if (!StringUtils.isBlank(contentType))
+            {
+                int semicolon = contentType.indexOf(';');
+                requestMediaType = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+            }
+            requestMediaTypeRead = true;
+        }
+        return requestMediaType;
     }
 
     public Map<String, Object> getQueryParams()
     {
+        if (!queryParamsRead)
+        {
+            queryParams = message.getInboundProperty(HTTP_QUERY_PARAMS);
+            queryParamsRead = true;
+        }
         return queryParams;
     }
 }
@@ -12,6 +12,7 @@ import static org.mule.module.apikit.transform.ApikitResponseTransformer.ACCEPT_
 import static org.mule.module.apikit.transform.ApikitResponseTransformer.APIKIT_ROUTER_REQUEST;
 import static org.mule.module.apikit.transform.ApikitResponseTransformer.BEST_MATCH_REPRESENTATION;
 import static org.mule.module.apikit.transform.ApikitResponseTransformer.CONTRACT_MIME_TYPES;
+import static org.mule.transport.http.HttpConstants.HEADER_CONTENT_LENGTH;
 
 import org.mule.DefaultMuleMessage;
 import org.mule.api.MuleEvent;
@@ -25,33 +26,43 @@ import org.mule.module.apikit.exception.BadRequestException;
 import org.mule.module.apikit.exception.InvalidFormParameterException;
 import org.mule.module.apikit.exception.InvalidHeaderException;
 import org.mule.module.apikit.exception.InvalidQueryParameterException;
+import org.mule.module.apikit.exception.InvalidUriParameterException;
 import org.mule.module.apikit.exception.MuleRestException;
 import org.mule.module.apikit.exception.NotAcceptableException;
+import org.mule.module.apikit.exception.RequestEntityTooLargeException;
 import org.mule.module.apikit.exception.UnsupportedMediaTypeException;
-import org.mule.module.apikit.uri.URICoder;
+import org.mule.module.apikit.management.ActionMetrics;
+import org.mule.module.apikit.management.RequestStage;
+import org.mule.module.apikit.uri.ResolvedVariables;
+import org.mule.module.apikit.validation.HeaderValidationPlan;
 import org.mule.module.apikit.validation.RestSchemaValidator;
 import org.mule.module.apikit.validation.RestSchemaValidatorFactory;
 import org.mule.module.apikit.validation.SchemaType;
+import org.mule.module.apikit.validation.ValidationPipeline;
+import org.mule.module.apikit.validation.ValidationStage;
 import org.mule.module.apikit.validation.cache.SchemaCacheUtils;
+import org.mule.module.apikit.validation.io.SizeLimitedInputStream;
+import org.mule.module.apikit.validation.io.SizeLimitedInputStream.BodySizeExceededException;
 import org.mule.module.http.internal.ParameterMap;
 import org.mule.raml.implv2.v10.model.MimeTypeImpl;
 import org.mule.raml.interfaces.model.IAction;
 import org.mule.raml.interfaces.model.IMimeType;
+import org.mule.raml.interfaces.model.IResource;
 import org.mule.raml.interfaces.model.IResponse;
 import org.mule.raml.interfaces.model.parameter.IParameter;
 import org.mule.transformer.types.DataTypeFactory;
 import org.mule.transport.http.transformers.FormTransformer;
 import org.mule.util.CaseInsensitiveHashMap;
+import org.mule.util.ExceptionUtils;
 import org.mule.util.IOUtils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
-import com.google.common.net.MediaType;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -74,6 +85,9 @@ public class HttpRestRequest
     protected AbstractConfiguration config;
     protected IAction action;
     protected HttpProtocolAdapter adapter;
+    private ApiSnapshot snapshot;
+    private String method;
+    private Map<String, String> incomingHeaders;
 
     public HttpRestRequest(MuleEvent event, AbstractConfiguration config)
     {
@@ -89,16 +103,16 @@ public class HttpRestRequest
 
     public String getResourcePath()
     {
-        String path = adapter.getResourceURI().getPath();
-        String basePath = adapter.getBasePath();
-        int start = basePath.endsWith("/") ? basePath.length() - 1 : basePath.length();
-        int end = path.endsWith("/") ? path.length() - 1 : path.length();
-        return URICoder.decode(path.substring(start, end));
+        return adapter.getResourcePath();
     }
 
     public String getMethod()
     {
-        return adapter.getMethod().toLowerCase();
+        if (method == null)
+        {
+            method = adapter.getMethod().toLowerCase();
+        }
+        return method;
     }
 
     public String getContentType()
@@ -116,15 +130,113 @@ public class HttpRestRequest
      */
     public MuleEvent validate(IAction action) throws MuleException
     {
+        ApiSnapshot current = config.getSnapshot();
+        ActionDispatch dispatch = current.getActionDispatch(action.getResource(), action.getType().name().toLowerCase());
+        if (dispatch != null && dispatch.getAction() == action)
+        {
+            return validate(dispatch, current, null, null);
+        }
+        // action of a previous version of the api, not in the dispatch table
         this.action = action;
-        if (!config.isDisableValidations())
+        this.snapshot = current;
+        return validate(new HeaderValidationPlan(action.getHeaders()), getResponseMimeTypes(), ActionDispatch.declaredMaxBodySize(action),
+                        null, null, null);
+    }
+
+    /**
+     * Validates the request against the precompiled dispatch of a RAML action
+     * and negotiates the response representation.
+     *
+     * @param dispatch precompiled dispatch of the action to be invoked
+     * @return the updated Mule Event
+     * @throws MuleException
+     */
+    public MuleEvent validate(ActionDispatch dispatch) throws MuleException
+    {
+        return validate(dispatch, config.getSnapshot(), null, null);
+    }
+
+    /**
+     * Validates the request against the precompiled dispatch of a RAML action, running the
+     * checks in the order of the validation pipeline of the configuration and stopping at
+     * the first one that fails, and records the latency of validation in the given metrics.
+     *
+     * @param dispatch precompiled dispatch of the action to be invoked
+     * @param snapshot version of the api the request was routed with, its schemas validate the body
+     * @param uriParameters values of the uri parameters of the request, null to not validate them
+     * @param metrics metrics of the action, null to not measure validation
+     * @return the updated Mule Event
+     * @throws MuleException
+     */
+    public MuleEvent validate(ActionDispatch dispatch, ApiSnapshot snapshot, ResolvedVariables uriParameters, ActionMetrics metrics) throws MuleException
+    {
+        this.action = dispatch.getAction();
+        this.snapshot = snapshot;
+        return validate(dispatch.getHeaderValidationPlan(), dispatch.getResponseMimeTypes(), dispatch.getMaxBodySize(),
+                        dispatch.getResource(), uriParameters, metrics);
+    }
+
+    private MuleEvent validate(HeaderValidationPlan headerValidationPlan, List<String> responseMimeTypes, long maxBodySize,
+                               IResource resource, ResolvedVariables uriParameters, ActionMetrics metrics) throws MuleException
+    {
+        ValidationPipeline pipeline = config.getValidationPipeline();
+        long[] elapsed = metrics != null ? new long[RequestStage.values().length] : null;
+        String responseRepresentation = null;
+        for (ValidationStage stage : pipeline.getOrder())
+        {
+            if (stage == ValidationStage.METHOD || (!stage.isAlwaysChecked() && config.isDisableValidations()))
+            {
+                // the method is checked while routing
+                continue;
+            }
+            long start = metrics != null ? System.nanoTime() : 0;
+            try
+            {
+                switch (stage)
+                {
+                    case BODY_SIZE:
+                        limitBodySize(maxBodySize >= 0 ? maxBodySize : config.getMaxRequestBodySize());
+                        break;
+                    case CONTENT_TYPE:
+                        negotiateInputRepresentation();
+                        break;
+                    case ACCEPT:
+                        responseRepresentation = negotiateOutputRepresentation(responseMimeTypes);
+                        break;
+                    case REQUIRED:
+                        processRequiredParameters(headerValidationPlan);
+                        break;
+                    case URI_PARAMETERS:
+                        processUriParameters(resource, uriParameters);
+                        break;
+                    case QUERY_PARAMETERS:
+                        processQueryParameters();
+                        break;
+                    case HEADERS:
+                        processHeaders(headerValidationPlan);
+                        break;
+                    case BODY:
+                        processBody();
+                        break;
+                }
+            }
+            catch (MuleException e)
+            {
+                // oversized bodies are detected by the stage that reads them
+                pipeline.rejected(e instanceof RequestEntityTooLargeException ? ValidationStage.BODY_SIZE : stage);
+                throw e;
+            }
+            if (metrics != null)
+            {
+                elapsed[stage.getRequestStage().ordinal()] += System.nanoTime() - start;
+            }
+        }
+        if (metrics != null)
         {
-            processQueryParameters();
-            processHeaders();
+            metrics.record(RequestStage.URI_PARAMETERS, elapsed[RequestStage.URI_PARAMETERS.ordinal()]);
+            metrics.record(RequestStage.PARAMETERS, elapsed[RequestStage.PARAMETERS.ordinal()]);
+            metrics.record(RequestStage.BODY, elapsed[RequestStage.BODY.ordinal()]);
         }
-        negotiateInputRepresentation();
-        List<String> responseMimeTypes = getResponseMimeTypes();
-        String responseRepresentation = negotiateOutputRepresentation(responseMimeTypes);
 
         if (responseMimeTypes != null)
         {
@@ -139,6 +251,90 @@ public class HttpRestRequest
         return requestEvent;
     }
 
+    /**
+     * Rejects the request if its content length is larger than the given size, and makes
+     * reads of a stream payload fail once they go past it. Byte array payloads and string
+     * payloads set by an earlier processor are checked by their size, strings in the
+     * encoding of the event.
+     */
+    private void limitBodySize(long maxBodySize) throws RequestEntityTooLargeException
+    {
+        if (maxBodySize <= 0)
+        {
+            return;
+        }
+        MuleMessage message = requestEvent.getMessage();
+        Object contentLength = message.getInboundProperty(HEADER_CONTENT_LENGTH);
+        if (contentLength != null)
+        {
+            try
+            {
+                checkBodySize(Long.parseLong(String.valueOf(contentLength).trim()), maxBodySize);
+            }
+            catch (NumberFormatException e)
+            {
+                logger.debug("Invalid content length " + contentLength + ", counting the body while it is read");
+            }
+        }
+        Object payload = message.getPayload();
+        if (payload instanceof InputStream)
+        {
+            DataType<InputStream> dataType = DataTypeFactory.create(InputStream.class, message.getDataType().getMimeType());
+            dataType.setEncoding(message.getDataType().getEncoding());
+            message.setPayload(new SizeLimitedInputStream((InputStream) payload, maxBodySize), dataType);
+        }
+        else if (payload instanceof byte[])
+        {
+            checkBodySize(((byte[]) payload).length, maxBodySize);
+        }
+        else if (payload instanceof String)
+        {
+            checkBodySize(((String) payload).getBytes(Charset.forName(requestEvent.getEncoding())).length, maxBodySize);
+        }
+    }
+
+    private static void checkBodySize(long size, long maxBodySize) throws RequestEntityTooLargeException
+    {
+        if (size > maxBodySize)
+        {
+            throw new RequestEntityTooLargeException("Request body of " + size + " bytes larger than " + maxBodySize + " bytes");
+        }
+    }
+
+    private void processRequiredParameters(HeaderValidationPlan headerValidationPlan) throws MuleRestException
+    {
+        for (Map.Entry<String, IParameter> entry : action.getQueryParameters().entrySet())
+        {
+            if (entry.getValue().isRequired() && getActualQueryParam(entry.getKey()).isEmpty())
+            {
+                throw new InvalidQueryParameterException("Required query parameter " + entry.getKey() + " not specified");
+            }
+        }
+        if (!headerValidationPlan.isEmpty())
+        {
+            headerValidationPlan.validateRequired(getIncomingHeaders());
+        }
+    }
+
+    private void processUriParameters(IResource resource, ResolvedVariables uriParameters) throws InvalidUriParameterException
+    {
+        if (resource == null || uriParameters == null)
+        {
+            return;
+        }
+        for (Map.Entry<String, IParameter> entry : resource.getResolvedUriParameters().entrySet())
+        {
+            String value = (String) uriParameters.get(entry.getKey());
+            IParameter uriParameter = entry.getValue();
+            if (!uriParameter.validate(value))
+            {
+                String msg = String.format("Invalid value '%s' for uri parameter %s. %s",
+                                           value, entry.getKey(), uriParameter.message(value));
+                throw new InvalidUriParameterException(msg);
+            }
+        }
+    }
+
     private void processQueryParameters() throws InvalidQueryParameterException
     {
         for (String expectedKey : action.getQueryParameters().keySet())
@@ -249,55 +445,22 @@ public class HttpRestRequest
 
 
     @SuppressWarnings("unchecked")
-    private void processHeaders() throws InvalidHeaderException
+    private void processHeaders(HeaderValidationPlan plan) throws InvalidHeaderException
     {
-        for (String expectedKey : action.getHeaders().keySet())
+        if (!plan.isEmpty())
         {
-            IParameter expected = action.getHeaders().get(expectedKey);
-            Map<String, String> incomingHeaders = getIncomingHeaders(requestEvent.getMessage());
-
-            if (expectedKey.contains("{?}"))
-            {
-                String regex = expectedKey.replace("{?}", ".*");
-                for (String incoming : incomingHeaders.keySet())
-                {
-                    String incomingValue = incomingHeaders.get(incoming);
-                    if (incoming.matches(regex) && !expected.validate(incomingValue))
-                    {
-                        String msg = String.format("Invalid value '%s' for header %s. %s",
-                                                   incomingValue, expectedKey, expected.message(incomingValue));
-                        throw new InvalidHeaderException(msg);
-                    }
-                }
-            }
-            else
-            {
-                String actual = incomingHeaders.get(expectedKey);
-                if (actual == null && expected.isRequired())
-                {
-                    throw new InvalidHeaderException("Required header " + expectedKey + " not specified");
-                }
-                if (actual == null && expected.getDefaultValue() != null)
-                {
-                    setHeader(expectedKey, expected.getDefaultValue());
-                }
-                if (actual != null)
-                {
-                    if (!expected.validate(actual))
-                    {
-                        String msg = String.format("Invalid value '%s' for header %s. %s",
-                                                   actual, expectedKey, expected.message(actual));
-                        throw new InvalidHeaderException(msg);
-                    }
-                }
-            }
+            plan.validate(getIncomingHeaders(), requestEvent.getMessage());
         }
     }
 
-    private Map<String,String> getIncomingHeaders(MuleMessage message)
+    private Map<String, String> getIncomingHeaders()
     {
-
-        Map<String, String> incomingHeaders = new CaseInsensitiveHashMap();
+        if (incomingHeaders != null)
+        {
+            return incomingHeaders;
+        }
+        MuleMessage message = requestEvent.getMessage();
+        incomingHeaders = new CaseInsensitiveHashMap();
         if (message.getInboundProperty("http.headers") != null)
         {
             incomingHeaders = new CaseInsensitiveHashMap(message.<Map>getInboundProperty("http.headers"));
@@ -315,29 +478,39 @@ public class HttpRestRequest
         return incomingHeaders;
     }
 
-    private void setHeader(String key, String value)
+    private void negotiateInputRepresentation() throws MuleRestException
     {
-        requestEvent.getMessage().setProperty(key, value, PropertyScope.INBOUND);
-        if (requestEvent.getMessage().getInboundProperty("http.headers") != null)
+        if (action == null || !action.hasBody())
+        {
+            logger.debug("=== no body types defined: accepting any request content-type");
+            return;
+        }
+        if (findRequestMimeType() == null)
         {
-            //TODO MULE-8131
-            requestEvent.getMessage().<Map<String, String>>getInboundProperty("http.headers").put(key, value);
+            handleUnsupportedMediaType();
         }
     }
 
-    private void negotiateInputRepresentation() throws MuleRestException
+    private void processBody() throws MuleRestException
     {
         if (action == null || !action.hasBody())
         {
-            logger.debug("=== no body types defined: accepting any request content-type");
             return;
         }
-        String requestMimeTypeName = null;
-        boolean found = false;
-        if (adapter.getRequestMediaType() != null)
+        String mimeTypeName = findRequestMimeType();
+        if (mimeTypeName != null)
         {
-            requestMimeTypeName = adapter.getRequestMediaType();
+            validateBody(mimeTypeName);
         }
+    }
+
+    /**
+     * Returns the body type of the action matching the request media type, or null if
+     * there is none.
+     */
+    private String findRequestMimeType()
+    {
+        String requestMimeTypeName = adapter.getRequestMediaType();
         for (String mimeTypeName : action.getBody().keySet())
         {
             if (logger.isDebugEnabled())
@@ -347,18 +520,10 @@ public class HttpRestRequest
             }
             if (mimeTypeName.equals(requestMimeTypeName))
             {
-                found = true;
-                if (!config.isDisableValidations())
-                {
-                    validateBody(mimeTypeName);
-                }
-                break;
+                return mimeTypeName;
             }
         }
-        if (!found)
-        {
-            handleUnsupportedMediaType();
-        }
+        return null;
     }
 
     protected void handleUnsupportedMediaType() throws UnsupportedMediaTypeException
@@ -420,6 +585,11 @@ public class HttpRestRequest
         }
         catch (TransformerException e)
         {
+            RequestEntityTooLargeException tooLarge = ExceptionUtils.getDeepestOccurenceOfType(e, RequestEntityTooLargeException.class);
+            if (tooLarge != null)
+            {
+                throw tooLarge;
+            }
             logger.warn("Cannot validate url-encoded form", e);
             return;
         }
@@ -466,7 +636,7 @@ public class HttpRestRequest
         try
         {
             Map<String, String> payload = (Map<String, String>) requestEvent.getMessage().getPayload();
-            jsonText = new ObjectMapper().writeValueAsString(payload);
+            jsonText = config.getSerializationContext().getJsonWriter().writeValueAsString(payload);
         }
         catch (Exception e)
         {
@@ -560,6 +730,10 @@ public class HttpRestRequest
                 message.setPayload(new ByteArrayInputStream(bytes), dataType);
 
             }
+            catch (BodySizeExceededException e)
+            {
+                throw e.getRestException();
+            }
             catch (IOException e)
             {
                 throw new BadRequestException("Error processing request: " + e.getMessage());
@@ -610,8 +784,8 @@ public class HttpRestRequest
     private void validateSchema(String mimeTypeName) throws MuleRestException
     {
         SchemaType schemaType = mimeTypeName.contains("json") ? SchemaType.JSONSchema : SchemaType.XMLSchema;
-        RestSchemaValidator validator = RestSchemaValidatorFactory.getInstance().createValidator(schemaType, requestEvent.getMuleContext());
-        validator.validate(config.getName(), SchemaCacheUtils.getSchemaCacheKey(action, mimeTypeName), requestEvent, config.getApi());
+        RestSchemaValidator validator = RestSchemaValidatorFactory.getInstance().createValidator(schemaType, requestEvent.getMuleContext(), config, snapshot);
+        validator.validate(config.getName(), SchemaCacheUtils.getSchemaCacheKey(action, mimeTypeName), requestEvent, snapshot.getApi());
     }
 
     private String negotiateOutputRepresentation(List<String> mimeTypes) throws MuleRestException
@@ -621,20 +795,13 @@ public class HttpRestRequest
             //no response media-types defined, return no body
             return null;
         }
-        MediaType bestMatch = RestContentTypeParser.bestMatch(mimeTypes, adapter.getAcceptableResponseMediaTypes());
-        if (bestMatch == null)
+        String representation = NegotiationCache.negotiate(mimeTypes, adapter.getAcceptableResponseMediaTypes()).getRepresentation();
+        if (representation == null)
         {
             return handleNotAcceptable();
         }
-        logger.debug("=== negotiated response content-type: " + bestMatch.toString());
-        for (String representation : mimeTypes)
-        {
-            if (representation.equals(bestMatch.withoutParameters().toString()))
-            {
-                return representation;
-            }
-        }
-        return handleNotAcceptable();
+        logger.debug("=== negotiated response content-type: " + representation);
+        return representation;
     }
 
     protected String handleNotAcceptable() throws NotAcceptableException
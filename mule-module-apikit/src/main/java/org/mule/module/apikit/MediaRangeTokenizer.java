@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import com.google.common.net.MediaType;
+
+/**
+ * Cursor over the comma separated media ranges of an Accept or Content-Type header.
+ * <p/>
+ * Ranges are not copied out of the header: the type, subtype and parameters of the
+ * current range are kept as offsets into it and compared in place. The quality factor
+ * is kept as an integer in thousandths, the precision allowed by RFC 7231.
+ */
+final class MediaRangeTokenizer
+{
+
+    static final int MAX_QUALITY = 1000;
+
+    private static final String WILDCARD = "*";
+    private static final long NOT_FOUND = -1;
+
+    /**
+     * Media types common enough in Accept headers to be parsed only once.
+     */
+    private static final MediaType[] KNOWN_MEDIA_TYPES = {
+            MediaType.ANY_TYPE,
+            MediaType.create("application", "json"),
+            MediaType.create("application", "xml"),
+            MediaType.create("application", "xhtml+xml"),
+            MediaType.create("application", "octet-stream"),
+            MediaType.create("application", "x-www-form-urlencoded"),
+            MediaType.create("multipart", "form-data"),
+            MediaType.create("text", "html"),
+            MediaType.create("text", "plain"),
+            MediaType.create("text", "xml"),
+            MediaType.create("image", "webp")
+    };
+    private static final String[] KNOWN_MEDIA_TYPE_NAMES = new String[KNOWN_MEDIA_TYPES.length];
+
+    static
+    {
+        for (int i = 0; i < KNOWN_MEDIA_TYPES.length; i++)
+        {
+            KNOWN_MEDIA_TYPE_NAMES[i] = KNOWN_MEDIA_TYPES[i].toString();
+        }
+    }
+
+    private final String header;
+    private int position;
+
+    // offsets of the current range, end offsets are exclusive
+    private int rangeStart;
+    private int rangeEnd;
+    private int typeStart;
+    private int typeEnd;
+    private int subtypeStart;
+    private int subtypeEnd;
+    private int parametersStart;
+    private int quality;
+
+    MediaRangeTokenizer(String header)
+    {
+        this.header = header;
+    }
+
+    /**
+     * Moves to the next non blank media range.
+     *
+     * @return false if there are no more ranges
+     */
+    boolean next()
+    {
+        while (position < header.length())
+        {
+            int end = header.indexOf(',', position);
+            if (end == -1)
+            {
+                end = header.length();
+            }
+            int start = position;
+            position = end + 1;
+            if (tokenize(start, end))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tokenize(int start, int end)
+    {
+        rangeStart = skipWhitespace(start, end);
+        rangeEnd = trimEnd(rangeStart, end);
+        if (rangeStart == rangeEnd)
+        {
+            return false;
+        }
+        int semicolon = header.indexOf(';', rangeStart);
+        int fullTypeEnd = semicolon == -1 || semicolon > rangeEnd ? rangeEnd : semicolon;
+        parametersStart = fullTypeEnd;
+
+        typeStart = rangeStart;
+        fullTypeEnd = trimEnd(typeStart, fullTypeEnd);
+        int slash = header.indexOf('/', typeStart);
+        if (slash == -1 || slash >= fullTypeEnd)
+        {
+            typeEnd = fullTypeEnd;
+            // a single "*" stands for "*/*"
+            boolean wildcard = typeEnd - typeStart == 1 && header.charAt(typeStart) == '*';
+            subtypeStart = wildcard ? typeStart : -1;
+            subtypeEnd = wildcard ? typeEnd : -1;
+        }
+        else
+        {
+            typeEnd = trimEnd(typeStart, slash);
+            subtypeStart = skipWhitespace(slash + 1, fullTypeEnd);
+            int nextSlash = header.indexOf('/', subtypeStart);
+            subtypeEnd = trimEnd(subtypeStart, nextSlash == -1 || nextSlash > fullTypeEnd ? fullTypeEnd : nextSlash);
+        }
+        quality = parseQuality();
+        return true;
+    }
+
+    /**
+     * Returns false if the range has no subtype, such ranges never match.
+     */
+    boolean hasSubtype()
+    {
+        return subtypeStart != -1 && subtypeStart < subtypeEnd && typeStart < typeEnd;
+    }
+
+    boolean sameType(MediaRangeTokenizer other)
+    {
+        return regionEquals(typeStart, typeEnd, other.header, other.typeStart, other.typeEnd);
+    }
+
+    boolean sameSubtype(MediaRangeTokenizer other)
+    {
+        return regionEquals(subtypeStart, subtypeEnd, other.header, other.subtypeStart, other.subtypeEnd);
+    }
+
+    boolean isTypeWildcard()
+    {
+        return regionEquals(typeStart, typeEnd, WILDCARD, 0, 1);
+    }
+
+    boolean isSubtypeWildcard()
+    {
+        return regionEquals(subtypeStart, subtypeEnd, WILDCARD, 0, 1);
+    }
+
+    boolean isWildcard()
+    {
+        return isTypeWildcard() && isSubtypeWildcard();
+    }
+
+    /**
+     * Returns the quality factor of the range in thousandths.
+     */
+    int getQuality()
+    {
+        return quality;
+    }
+
+    /**
+     * Returns true if any parameter of the other range, other than the quality factor,
+     * is present in this range with the same value. When a parameter is repeated its
+     * last value is the one that counts.
+     */
+    boolean matchesAnyParameter(MediaRangeTokenizer other)
+    {
+        int start = other.parametersStart;
+        while (start < other.rangeEnd)
+        {
+            int end = other.parameterEnd(start + 1);
+            int equals = other.header.indexOf('=', start + 1);
+            if (equals != -1 && equals < end)
+            {
+                int keyStart = other.skipWhitespace(start + 1, equals);
+                int keyEnd = other.trimEnd(keyStart, equals);
+                if (keyStart < keyEnd && !other.isQuality(keyStart, keyEnd)
+                    && other.findParameter(other.header, keyStart, keyEnd, end) == NOT_FOUND)
+                {
+                    long value = other.findParameter(other.header, keyStart, keyEnd, other.parametersStart);
+                    long match = findParameter(other.header, keyStart, keyEnd, parametersStart);
+                    if (match != NOT_FOUND && other.regionEquals(start(value), end(value), header, start(match), end(match)))
+                    {
+                        return true;
+                    }
+                }
+            }
+            start = end;
+        }
+        return false;
+    }
+
+    /*
+     * Returns the offsets of the value of the last parameter with the given key found
+     * from the given offset, packed in a long, or NOT_FOUND.
+     */
+    private long findParameter(String source, int keyStart, int keyEnd, int from)
+    {
+        long found = NOT_FOUND;
+        int start = from;
+        while (start < rangeEnd)
+        {
+            int end = parameterEnd(start + 1);
+            int equals = header.indexOf('=', start + 1);
+            if (equals != -1 && equals < end)
+            {
+                int key = skipWhitespace(start + 1, equals);
+                if (regionEquals(key, trimEnd(key, equals), source, keyStart, keyEnd))
+                {
+                    int value = skipWhitespace(equals + 1, end);
+                    int valueEnd = trimEnd(value, end);
+                    int nextEquals = header.indexOf('=', value);
+                    // parameters without a value or with more than one are ignored
+                    if (value < valueEnd && (nextEquals == -1 || nextEquals >= valueEnd))
+                    {
+                        found = ((long) value << 32) | valueEnd;
+                    }
+                }
+            }
+            start = end;
+        }
+        return found;
+    }
+
+    private static int start(long region)
+    {
+        return (int) (region >>> 32);
+    }
+
+    private static int end(long region)
+    {
+        return (int) region;
+    }
+
+    /**
+     * Returns the media type of the current range, reusing a shared instance for the
+     * most common ones.
+     *
+     * @throws IllegalArgumentException if the range is not a valid media type
+     */
+    MediaType toMediaType()
+    {
+        for (int i = 0; i < KNOWN_MEDIA_TYPE_NAMES.length; i++)
+        {
+            String name = KNOWN_MEDIA_TYPE_NAMES[i];
+            if (regionEquals(rangeStart, rangeEnd, name, 0, name.length()))
+            {
+                return KNOWN_MEDIA_TYPES[i];
+            }
+        }
+        return MediaType.parse(header.substring(rangeStart, rangeEnd));
+    }
+
+    /**
+     * Parses a media type, reusing a shared instance for the most common ones.
+     */
+    static MediaType parse(String mediaType)
+    {
+        MediaRangeTokenizer tokenizer = new MediaRangeTokenizer(mediaType);
+        tokenizer.tokenize(0, mediaType.length());
+        return tokenizer.toMediaType();
+    }
+
+    /*
+     * Invalid values give a quality of 0, missing, blank or out of range ones a quality of 1.
+     */
+    private int parseQuality()
+    {
+        long value = findParameter("q", 0, 1, parametersStart);
+        return value == NOT_FOUND ? MAX_QUALITY : parseQuality(start(value), end(value));
+    }
+
+    private int parseQuality(int start, int end)
+    {
+        if (start == end)
+        {
+            return MAX_QUALITY;
+        }
+        boolean negative = header.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        int integer = 0;
+        int fraction = 0;
+        int digits = 0;
+        int scale = MAX_QUALITY;
+        boolean point = false;
+        boolean truncated = false;
+        for (; i < end; i++)
+        {
+            char c = header.charAt(i);
+            if (c == '.' && !point)
+            {
+                point = true;
+            }
+            else if (c >= '0' && c <= '9')
+            {
+                digits++;
+                if (!point)
+                {
+                    integer = Math.min(integer * 10 + c - '0', 10);
+                }
+                else if (scale > 1)
+                {
+                    scale /= 10;
+                    fraction += (c - '0') * scale;
+                }
+                else if (c != '0')
+                {
+                    truncated = true;
+                }
+            }
+            else
+            {
+                return 0;
+            }
+        }
+        if (digits == 0)
+        {
+            return 0;
+        }
+        int value = integer * MAX_QUALITY + fraction;
+        if (value == 0 && truncated)
+        {
+            // too precise but still acceptable
+            return 1;
+        }
+        return negative || value > MAX_QUALITY ? MAX_QUALITY : value;
+    }
+
+    private boolean isQuality(int start, int end)
+    {
+        return end - start == 1 && header.charAt(start) == 'q';
+    }
+
+    private int parameterEnd(int from)
+    {
+        int semicolon = header.indexOf(';', from);
+        return semicolon == -1 || semicolon > rangeEnd ? rangeEnd : semicolon;
+    }
+
+    private int skipWhitespace(int start, int end)
+    {
+        while (start < end && header.charAt(start) <= ' ')
+        {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end)
+    {
+        while (end > start && header.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+        return end;
+    }
+
+    private boolean regionEquals(int start, int end, String other, int otherStart, int otherEnd)
+    {
+        int length = end - start;
+        return length == otherEnd - otherStart && header.regionMatches(start, other, otherStart, length);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.MediaType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded cache of content negotiation results, keyed by the response mime types of an
+ * action and the Accept header of the request.
+ * <p/>
+ * The result is shared by the router, that negotiates the response representation, and
+ * the response transformer, that checks whether the payload is already in an accepted type,
+ * so the Accept header is parsed once per distinct value.
+ */
+public final class NegotiationCache
+{
+
+    private static final int CACHE_SIZE = 1000;
+
+    // longer headers are negotiated every time instead of filling the cache
+    private static final int MAX_CACHED_HEADER_LENGTH = 512;
+
+    private static final Cache<Key, Negotiation> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    private NegotiationCache()
+    {
+    }
+
+    /**
+     * Negotiates the representation for the given response mime types and Accept header.
+     * Mime type lists of the dispatch table are reused, so looking them up only compares
+     * references.
+     */
+    public static Negotiation negotiate(List<String> responseMimeTypes, String acceptHeader)
+    {
+        if (acceptHeader.length() > MAX_CACHED_HEADER_LENGTH)
+        {
+            return new Negotiation(responseMimeTypes, acceptHeader);
+        }
+        Key key = new Key(responseMimeTypes, acceptHeader);
+        Negotiation negotiation = cache.getIfPresent(key);
+        if (negotiation == null)
+        {
+            // computed outside the cache so parsing errors reach the caller unwrapped
+            negotiation = new Negotiation(responseMimeTypes, acceptHeader);
+            cache.put(key, negotiation);
+        }
+        return negotiation;
+    }
+
+    /**
+     * Result of negotiating a response representation.
+     */
+    public static class Negotiation
+    {
+
+        private final String representation;
+        private final Collection<String> conjunctionTypes;
+
+        Negotiation(List<String> responseMimeTypes, String acceptHeader)
+        {
+            this.representation = bestRepresentation(responseMimeTypes, acceptHeader);
+            this.conjunctionTypes = Collections.unmodifiableCollection(conjunctionTypes(responseMimeTypes, acceptHeader));
+        }
+
+        /**
+         * Returns the response mime type that best matches the Accept header
+         * or null if none is acceptable.
+         */
+        public String getRepresentation()
+        {
+            return representation;
+        }
+
+        /**
+         * Returns the response mime types accepted by the Accept header, ignoring
+         * its quality factors.
+         */
+        public Collection<String> getConjunctionTypes()
+        {
+            return conjunctionTypes;
+        }
+
+        private static String bestRepresentation(List<String> responseMimeTypes, String acceptHeader)
+        {
+            if (responseMimeTypes.isEmpty())
+            {
+                return null;
+            }
+            MediaType bestMatch = RestContentTypeParser.bestMatch(responseMimeTypes, acceptHeader);
+            if (bestMatch == null)
+            {
+                return null;
+            }
+            String bestMatchType = bestMatch.withoutParameters().toString();
+            for (String representation : responseMimeTypes)
+            {
+                if (representation.equals(bestMatchType))
+                {
+                    return representation;
+                }
+            }
+            return null;
+        }
+
+        private static Collection<String> conjunctionTypes(List<String> responseMimeTypes, String acceptHeader)
+        {
+            if (acceptHeader.contains("*/*"))
+            {
+                return responseMimeTypes;
+            }
+            Set<String> acceptedTypes = new HashSet<>();
+            for (MediaType mediaType : RestContentTypeParser.parseMediaTypes(acceptHeader))
+            {
+                acceptedTypes.add(mediaType.type() + "/" + mediaType.subtype());
+            }
+            List<String> conjunction = new ArrayList<>();
+            for (String mimeType : responseMimeTypes)
+            {
+                if (acceptedTypes.contains(mimeType))
+                {
+                    conjunction.add(mimeType);
+                }
+            }
+            return conjunction;
+        }
+    }
+
+    private static class Key
+    {
+
+        private final List<String> responseMimeTypes;
+        private final String acceptHeader;
+        private final int hash;
+
+        Key(List<String> responseMimeTypes, String acceptHeader)
+        {
+            this.responseMimeTypes = responseMimeTypes;
+            this.acceptHeader = acceptHeader;
+            this.hash = 31 * responseMimeTypes.hashCode() + acceptHeader.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && acceptHeader.equals(key.acceptHeader) && responseMimeTypes.equals(key.responseMimeTypes);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
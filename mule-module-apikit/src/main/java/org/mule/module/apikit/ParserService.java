@@ -7,13 +7,16 @@
 package org.mule.module.apikit;
 
 import org.mule.module.apikit.injector.RamlUpdater;
+import org.mule.module.apikit.parser.ApiValidationCache;
 import org.mule.module.apikit.parser.ParserWrapper;
 import org.mule.module.apikit.parser.ParserWrapperV1;
 import org.mule.module.apikit.parser.ParserWrapperV2;
 import org.mule.raml.implv2.ParserV2Utils;
 import org.mule.raml.interfaces.model.IRaml;
 
+import java.io.File;
 import java.io.InputStream;
+import java.util.Set;
 
 import org.raml.v2.api.loader.CompositeResourceLoader;
 import org.raml.v2.api.loader.DefaultResourceLoader;
@@ -33,12 +36,28 @@ public class ParserService
     private ParserWrapper parserWrapper;
     private boolean parserV2;
 
+    /**
+     * Fetches the descriptor once, it is then handed to the parser both to validate it
+     * and to build the api model.
+     */
     public ParserService(String ramlPath, String appHome)
+    {
+        this(ramlPath, appHome, null);
+    }
+
+    /**
+     * @param cacheDirectory directory where validated descriptors are recorded, null to
+     *                       validate the descriptor on every start
+     */
+    public ParserService(String ramlPath, String appHome, File cacheDirectory)
     {
         this.ramlPath = ramlPath;
         setupV2ResourceLoader(appHome);
-        checkParserVersion();
-        setupParserWrapper(ramlPath, appHome);
+        long start = System.currentTimeMillis();
+        String ramlContent = fetchRaml();
+        checkParserVersion(ramlContent);
+        logger.info(String.format("Fetched RAML descriptor %s in %d ms", ramlPath, System.currentTimeMillis() - start));
+        setupParserWrapper(ramlPath, appHome, ramlContent, cacheDirectory);
     }
 
     private void setupV2ResourceLoader(String appHome)
@@ -58,37 +77,52 @@ public class ParserService
         return parserV2;
     }
 
-    private void checkParserVersion()
+    private String fetchRaml()
     {
         InputStream content = resourceLoaderV2.fetchResource(ramlPath);
-        if (content != null)
+        return content != null ? StreamUtils.toString(content) : null;
+    }
+
+    private void checkParserVersion(String ramlContent)
+    {
+        if (ramlContent != null)
         {
-            String dump = StreamUtils.toString(content);
-            parserV2 = ParserV2Utils.useParserV2(dump);
+            parserV2 = ParserV2Utils.useParserV2(ramlContent);
         }
         logger.debug("Using parser " + (parserV2 ? "V2" : "V1"));
     }
 
-    private void setupParserWrapper(String ramlPath, String appHome)
+    private void setupParserWrapper(String ramlPath, String appHome, String ramlContent, File cacheDirectory)
     {
         if (parserV2)
         {
-            parserWrapper = new ParserWrapperV2(ramlPath, appHome);
+            // validation results come from the same parse that builds the model, there is nothing to skip
+            parserWrapper = new ParserWrapperV2(ramlPath, appHome, ramlContent);
         }
         else
         {
-            parserWrapper = new ParserWrapperV1(ramlPath, appHome);
+            ParserWrapperV1 parserWrapperV1 = new ParserWrapperV1(ramlPath, appHome, ramlContent);
+            if (cacheDirectory != null)
+            {
+                parserWrapperV1.setValidationCache(new ApiValidationCache(cacheDirectory, ramlPath));
+            }
+            parserWrapper = parserWrapperV1;
         }
     }
 
     public void validateRaml()
     {
+        long start = System.currentTimeMillis();
         parserWrapper.validate();
+        logger.info(String.format("Validated RAML descriptor %s in %d ms", ramlPath, System.currentTimeMillis() - start));
     }
 
     public IRaml build()
     {
-        return parserWrapper.build();
+        long start = System.currentTimeMillis();
+        IRaml api = parserWrapper.build();
+        logger.info(String.format("Built API model of %s in %d ms", ramlPath, System.currentTimeMillis() - start));
+        return api;
     }
 
     public RamlUpdater getRamlUpdater(IRaml api, AbstractConfiguration configuration)
@@ -115,4 +149,12 @@ public class ParserService
     {
         parserWrapper.updateBaseUri(api, baseUri);
     }
+
+    /**
+     * Returns the names of the descriptor and of the includes and libraries the parser read.
+     */
+    public Set<String> getResourceNames()
+    {
+        return parserWrapper.getResourceNames();
+    }
 }
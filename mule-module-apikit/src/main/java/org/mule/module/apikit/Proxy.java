@@ -14,7 +14,6 @@ import org.mule.api.registry.RegistrationException;
 import org.mule.api.transport.PropertyScope;
 import org.mule.config.i18n.MessageFactory;
 import org.mule.construct.Flow;
-import org.mule.raml.interfaces.model.IResource;
 import org.mule.util.WildcardAttributeEvaluator;
 
 import java.util.ArrayList;
@@ -141,9 +140,9 @@ public class Proxy extends AbstractRouter
     }
 
     @Override
-    protected Flow getFlow(IResource resource, HttpRestRequest request, String version)
+    protected Flow getFlow(ActionDispatch dispatch, HttpRestRequest request, String version)
     {
-        FlowResolver flowResolver = config.getRestFlowMap().get(request.getMethod() + ":" + resource.getResolvedUri(version));
+        FlowResolver flowResolver = config.getRestFlowMap().get(request.getMethod() + ":" + dispatch.getResource().getResolvedUri(version));
         Flow rawFlow = ((ProxyConfiguration.ProxyFlowResolver) flowResolver).getRawFlow();
         if (rawFlow == null)
         {
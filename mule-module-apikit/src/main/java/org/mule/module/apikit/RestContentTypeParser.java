@@ -11,14 +11,8 @@ import org.mule.raml.interfaces.model.IMimeType;
 import com.google.common.collect.Lists;
 import com.google.common.net.MediaType;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,92 +34,6 @@ public final class RestContentTypeParser
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(RestContentTypeParser.class);
 
-    /**
-     * Parse results container
-     */
-    protected static class ParseResults {
-        String type;
-
-        String subType;
-
-        // !a dictionary of all the parameters for the media range
-        Map<String, String> params;
-
-        @Override
-        public String toString() {
-            StringBuffer s = new StringBuffer("('" + type + "', '" + subType
-                    + "', {");
-            for (String k : params.keySet())
-            {
-                s.append("'" + k + "':'" + params.get(k) + "',");
-            }
-            return s.append("})").toString();
-        }
-    }
-
-    /**
-     * Carves up a mime-type and returns a ParseResults object
-     * <p/>
-     * For example, the media range 'application/xhtml;q=0.5' would get parsed
-     * into:
-     * <p/>
-     * ('application', 'xhtml', {'q', '0.5'})
-     */
-    protected static ParseResults parseMimeType(String mimeType) {
-        String[] parts = StringUtils.split(mimeType, ";");
-        ParseResults results = new ParseResults();
-        results.params = new HashMap<String, String>();
-
-        for (int i = 1; i < parts.length; ++i) {
-            String p = parts[i];
-            String[] subParts = StringUtils.split(p, '=');
-            if (subParts.length == 2)
-            {
-                results.params.put(subParts[0].trim(), subParts[1].trim());
-            }
-        }
-        String fullType = parts[0].trim();
-
-        // Java URLConnection class sends an Accept header that includes a
-        // single "*" - Turn it into a legal wildcard.
-        if (fullType.equals("*"))
-        {
-            fullType = "*/*";
-        }
-        String[] types = StringUtils.split(fullType, "/");
-        results.type = types[0].trim();
-        if(types.length > 1)
-        {
-            results.subType = types[1].trim();
-        }
-        return results;
-    }
-
-    /**
-     * Carves up a media range and returns a ParseResults.
-     * <p/>
-     * For example, the media range 'application/*;q=0.5' would get parsed into:
-     * <p/>
-     * ('application', '*', {'q', '0.5'})
-     * <p/>
-     * In addition this function also guarantees that there is a value for 'q'
-     * in the params dictionary, filling it in with a proper default if
-     * necessary.
-     *
-     * @param range
-     */
-    protected static ParseResults parseMediaRange(String range) {
-        ParseResults results = parseMimeType(range);
-        String q = results.params.get("q");
-        float f = NumberUtils.toFloat(q, 1);
-        if (StringUtils.isBlank(q) || f < 0 || f > 1)
-        {
-            results.params.put("q", "1");
-        }
-        return results;
-    }
-
-
     /**
      * Structure for holding a fitness/quality combo
      */
@@ -208,55 +116,6 @@ public final class RestContentTypeParser
         return new FitnessAndQuality(bestFitness, bestFitQ);
     }
 
-    /**
-     * Find the best match for a given mimeType against a list of media_ranges
-     * that have already been parsed by MimeParse.parseMediaRange(). Returns a
-     * tuple of the fitness value and the value of the 'q' quality parameter of
-     * the best match, or (-1, 0) if no match was found. Just as for
-     * quality_parsed(), 'parsed_ranges' must be a list of parsed media ranges.
-     *
-     * @param mimeType
-     * @param parsedRanges
-     */
-    protected static FitnessAndQuality fitnessAndQualityParsed(String mimeType,
-                                                               Collection<ParseResults> parsedRanges) {
-        int bestFitness = -1;
-        float bestFitQ = 0;
-        ParseResults target = parseMediaRange(mimeType);
-
-        for (ParseResults range : parsedRanges) {
-            if ((target.type.equals(range.type) || range.type.equals("*") || target.type
-                    .equals("*"))
-                    && (target.subType.equals(range.subType)
-                    || range.subType.equals("*") || target.subType
-                    .equals("*"))) {
-                for (String k : target.params.keySet()) {
-                    int paramMatches = 0;
-                    if (!k.equals("q") && range.params.containsKey(k)
-                            && target.params.get(k).equals(range.params.get(k))) {
-                        paramMatches++;
-                    }
-                    int fitness = (range.type.equals(target.type)) ? 100 : 0;
-                    fitness += (range.subType.equals(target.subType)) ? 10 : 0;
-                    fitness += paramMatches;
-                    if (fitness > bestFitness) {
-                        bestFitness = fitness;
-
-                        if( range.type.equals("*") && range.subType.equals("*")) {
-                            bestFitQ = NumberUtils
-                                    .toFloat(target.params.get("q"), 0);
-                        } else {
-                        bestFitQ = NumberUtils
-                                .toFloat(range.params.get("q"), 0);
-                        }
-                    }
-                }
-            }
-        }
-        return new FitnessAndQuality(bestFitness, bestFitQ);
-    }
-
-
     /**
      * Returns the quality 'q' of a mime-type when compared against the
      * mediaRanges in ranges. For example:
@@ -281,22 +140,43 @@ public final class RestContentTypeParser
      * @return
      */
     public static MediaType bestMatch(List<String> supportedRepresentations, String header) {
-        List<ParseResults> parseResults = new LinkedList<ParseResults>();
-        for (String r : StringUtils.split(header, ','))
-                    parseResults.add(parseMediaRange(r));
-
-        List<FitnessAndQuality> weightedMatches = new LinkedList<FitnessAndQuality>();
-        String quality = "1"; //first representation defined
+        String bestRepresentation = null;
+        int bestFitness = -1;
+        int bestQuality = 0;
+        int targetQuality = MediaRangeTokenizer.MAX_QUALITY; //first representation defined
         for (String representation : supportedRepresentations) {
-            FitnessAndQuality fitnessAndQuality = fitnessAndQualityParsed(representation + ";q=" + quality, parseResults);
-            fitnessAndQuality.mimeType = representation;
-            weightedMatches.add(fitnessAndQuality);
-            quality = "0.5"; //subsequent representations
+            MediaRangeTokenizer target = new MediaRangeTokenizer(representation);
+            int fitness = -1;
+            int quality = 0;
+            if (target.next() && target.hasSubtype()) {
+                MediaRangeTokenizer range = new MediaRangeTokenizer(header);
+                while (range.next()) {
+                    if (!range.hasSubtype()) {
+                        continue;
+                    }
+                    boolean sameType = target.sameType(range);
+                    boolean sameSubtype = target.sameSubtype(range);
+                    if ((sameType || range.isTypeWildcard() || target.isTypeWildcard())
+                            && (sameSubtype || range.isSubtypeWildcard() || target.isSubtypeWildcard())) {
+                        int rangeFitness = sameType ? 100 : 0;
+                        rangeFitness += sameSubtype ? 10 : 0;
+                        rangeFitness += range.matchesAnyParameter(target) ? 1 : 0;
+                        if (rangeFitness > fitness) {
+                            fitness = rangeFitness;
+                            quality = range.isWildcard() ? targetQuality : range.getQuality();
+                        }
+                    }
+                }
+            }
+            // on ties the last representation wins
+            if (bestRepresentation == null || fitness > bestFitness || (fitness == bestFitness && quality >= bestQuality)) {
+                bestRepresentation = representation;
+                bestFitness = fitness;
+                bestQuality = quality;
+            }
+            targetQuality = MediaRangeTokenizer.MAX_QUALITY / 2; //subsequent representations
         }
-        Collections.sort(weightedMatches);
-
-        FitnessAndQuality lastOne = weightedMatches.get(weightedMatches.size() - 1);
-        return NumberUtils.compare(lastOne.quality, 0) != 0 ?  MediaType.parse(lastOne.mimeType) : null;
+        return bestQuality != 0 ? MediaRangeTokenizer.parse(bestRepresentation) : null;
     }
 
     @Deprecated
@@ -308,9 +188,13 @@ public final class RestContentTypeParser
 
     public static boolean isMediaTypeAcceptable(List<MediaType> acceptContentTypes, MediaType mediaType)
     {
+        if (!mediaType.parameters().isEmpty())
+        {
+            return false;
+        }
         for (MediaType accept : acceptContentTypes)
         {
-            if (accept.withoutParameters().equals(mediaType))
+            if (accept.type().equals(mediaType.type()) && accept.subtype().equals(mediaType.subtype()))
             {
                 return true;
             }
@@ -327,11 +211,12 @@ public final class RestContentTypeParser
     public static List<MediaType> parseMediaTypes(String mediaTypes)
     {
         List<MediaType> parsedMediaTypes = Lists.newArrayList();
-        for (String r : StringUtils.split(mediaTypes, ','))
+        MediaRangeTokenizer range = new MediaRangeTokenizer(mediaTypes);
+        while (range.next())
         {
             try
             {
-                parsedMediaTypes.add(MediaType.parse(StringUtils.trim(r)));
+                parsedMediaTypes.add(range.toMediaType());
             }
             catch (IllegalArgumentException e)
             {
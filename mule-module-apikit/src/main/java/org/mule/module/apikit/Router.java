@@ -13,9 +13,8 @@ import org.mule.api.registry.RegistrationException;
 import org.mule.config.i18n.MessageFactory;
 import org.mule.construct.Flow;
 import org.mule.module.apikit.exception.UnsupportedMediaTypeException;
-import org.mule.raml.interfaces.model.IResource;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +62,13 @@ public class Router extends AbstractRouter
     @Override
     protected MuleEvent handleEvent(MuleEvent event, String path) throws MuleException
     {
+        //check for metrics request
+        if (config.getRequestMetrics() != null && getConfig().getMetricsPath() != null
+            && path.equals("/" + getConfig().getMetricsPath()))
+        {
+            byte[] report = config.getRequestMetrics().report().getBytes(StandardCharsets.UTF_8);
+            return StaticResource.of(report, "text/plain; charset=UTF-8", StaticResource.CACHE_REVALIDATE).respond(event);
+        }
         //check for console request
         if (getConfig().isConsoleEnabled() && path.startsWith("/" + getConfig().getConsolePath()))
         {
@@ -77,33 +83,9 @@ public class Router extends AbstractRouter
      * if there is no match it retries using method and resource only.
      */
     @Override
-    protected Flow getFlow(IResource resource, HttpRestRequest request, String version) throws UnsupportedMediaTypeException
+    protected Flow getFlow(ActionDispatch dispatch, HttpRestRequest request, String version) throws UnsupportedMediaTypeException
     {
-        String baseKey = request.getMethod() + ":" + resource.getResolvedUri(version);
-        String contentType = request.getContentType();
-        Map<String, Flow> rawRestFlowMap = ((Configuration) config).getRawRestFlowMap();
-        Flow flow = rawRestFlowMap.get(baseKey + ":" + contentType);
-        if (flow == null)
-        {
-            flow = rawRestFlowMap.get(baseKey);
-            if (flow == null && isFlowDeclaredWithDifferentMediaType(rawRestFlowMap, baseKey))
-            {
-                throw new UnsupportedMediaTypeException();
-            }
-        }
-        return flow;
-    }
-
-    protected boolean isFlowDeclaredWithDifferentMediaType(Map<String, Flow> map, String baseKey)
-    {
-        for (String flowName : map.keySet())
-        {
-            String [] split = flowName.split(":");
-            String methodAndResoruce = split[0] + ":" + split[1];
-            if (methodAndResoruce.equals(baseKey))
-                return true;
-        }
-        return false;
+        return dispatch.getFlow(request.getContentType());
     }
 
     @Override
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+/**
+ * Strategies available to match a request path against the resources of the API.
+ */
+public enum RoutingEngine
+{
+    /**
+     * Walks a segment trie compiled from the resource URIs at initialisation.
+     */
+    TRIE,
+
+    /**
+     * Matches every resource URI pattern against the request path, caching results by path.
+     */
+    REGEX,
+
+    /**
+     * Matches every resource URI pattern against the request path, caching results by the shape
+     * of the path so that requests differing only in uri parameter values share the same entry.
+     */
+    TEMPLATE_CACHE
+}
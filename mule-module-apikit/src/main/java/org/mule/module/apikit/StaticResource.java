@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleMessage;
+import org.mule.transport.NullPayload;
+import org.mule.transport.http.HttpConnector;
+import org.mule.transport.http.HttpConstants;
+import org.mule.util.IOUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable console asset or RAML descriptor, loaded once with its compressed variants
+ * and a strong entity tag, so serving it neither reads resources nor compresses content.
+ * <p/>
+ * Requests with a matching <code>If-None-Match</code> header get a 304 response without
+ * a body. The representation sent depends on the <code>Accept-Encoding</code> header
+ * and each one has its own entity tag.
+ */
+final class StaticResource
+{
+
+    static final String CACHE_REVALIDATE = "no-cache";
+    static final String CACHE_ONE_DAY = "public, max-age=86400";
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    // smaller contents are not worth compressing
+    private static final int MIN_COMPRESSED_LENGTH = 256;
+
+    // keyed by identity, dumps are cached per host by the configuration and released with it
+    private static final Cache<String, StaticResource> ramlResources = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final byte[] content;
+    private final byte[] gzipped;
+    private final byte[] deflated;
+    private final String mimeType;
+    private final String etag;
+    private final String cacheControl;
+
+    private StaticResource(byte[] content, byte[] gzipped, String mimeType, String cacheControl)
+    {
+        this.content = content;
+        this.mimeType = mimeType;
+        this.cacheControl = cacheControl;
+        this.etag = Hashing.md5().hashBytes(content).toString();
+        boolean compress = content.length >= MIN_COMPRESSED_LENGTH && isCompressible(mimeType);
+        this.gzipped = gzipped != null ? gzipped : compress ? smallerOrNull(gzip(content)) : null;
+        this.deflated = compress ? smallerOrNull(deflate(content)) : null;
+    }
+
+    static StaticResource of(byte[] content, String mimeType, String cacheControl)
+    {
+        return new StaticResource(content, null, mimeType, cacheControl);
+    }
+
+    /**
+     * Loads a classpath resource, using the pre-compressed <code>.gz</code> resource
+     * next to it when present.
+     *
+     * @return null if there is no such resource
+     */
+    static StaticResource load(Class<?> loader, String resourcePath, String mimeType, String cacheControl) throws IOException
+    {
+        byte[] content = read(loader.getResourceAsStream(resourcePath));
+        if (content == null)
+        {
+            return null;
+        }
+        return new StaticResource(content, read(loader.getResourceAsStream(resourcePath + ".gz")), mimeType, cacheControl);
+    }
+
+    /**
+     * Returns the resource for a RAML dump, created once per dump instance.
+     */
+    static StaticResource forRaml(final String raml)
+    {
+        try
+        {
+            return ramlResources.get(raml, new Callable<StaticResource>()
+            {
+                @Override
+                public StaticResource call()
+                {
+                    return of(raml.getBytes(StandardCharsets.UTF_8), AbstractConfiguration.APPLICATION_RAML, CACHE_REVALIDATE);
+                }
+            });
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns a new event with this resource, or a 304 response, as payload.
+     */
+    MuleEvent respond(MuleEvent event)
+    {
+        MuleMessage request = event.getMessage();
+        String encoding = selectEncoding(request.<String>getInboundProperty("accept-encoding"));
+        String representationTag = "\"" + etag + (encoding != null ? "-" + encoding : "") + "\"";
+
+        MuleMessage response;
+        if (matches(request.<String>getInboundProperty("if-none-match"), representationTag))
+        {
+            response = new DefaultMuleMessage(NullPayload.getInstance(), event.getMuleContext());
+            response.setOutboundProperty(HttpConnector.HTTP_STATUS_PROPERTY, String.valueOf(HttpConstants.SC_NOT_MODIFIED));
+        }
+        else
+        {
+            byte[] body = GZIP.equals(encoding) ? gzipped : DEFLATE.equals(encoding) ? deflated : content;
+            response = new DefaultMuleMessage(body, event.getMuleContext());
+            response.setOutboundProperty(HttpConnector.HTTP_STATUS_PROPERTY, String.valueOf(HttpConstants.SC_OK));
+            response.setOutboundProperty(HttpConstants.HEADER_CONTENT_TYPE, mimeType);
+            response.setOutboundProperty(HttpConstants.HEADER_CONTENT_LENGTH, body.length);
+            if (encoding != null)
+            {
+                response.setOutboundProperty(HttpConstants.HEADER_CONTENT_ENCODING, encoding);
+            }
+        }
+        response.setOutboundProperty("ETag", representationTag);
+        response.setOutboundProperty(HttpConstants.HEADER_CACHE_CONTROL, cacheControl);
+        response.setOutboundProperty("Vary", HttpConstants.HEADER_ACCEPT_ENCODING);
+        response.setOutboundProperty("Access-Control-Allow-Origin", "*");
+        if (CACHE_REVALIDATE.equals(cacheControl))
+        {
+            response.setOutboundProperty(HttpConstants.HEADER_EXPIRES, -1); //avoid IE ajax response caching
+        }
+        return new DefaultMuleEvent(response, event);
+    }
+
+    private String selectEncoding(String acceptEncoding)
+    {
+        if (acceptEncoding == null)
+        {
+            return null;
+        }
+        if (gzipped != null && acceptEncoding.contains(GZIP))
+        {
+            return GZIP;
+        }
+        if (deflated != null && acceptEncoding.contains(DEFLATE))
+        {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    private static boolean matches(String ifNoneMatch, String tag)
+    {
+        if (ifNoneMatch == null)
+        {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(","))
+        {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(tag) || candidate.equals("W/" + tag))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(String mimeType)
+    {
+        return mimeType.startsWith("text/") || mimeType.endsWith("javascript") || mimeType.endsWith("+xml")
+               || mimeType.endsWith("json") || mimeType.equals(AbstractConfiguration.APPLICATION_RAML);
+    }
+
+    private byte[] smallerOrNull(byte[] compressed)
+    {
+        return compressed.length < content.length ? compressed : null;
+    }
+
+    private static byte[] gzip(byte[] content)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try
+        {
+            compress(new GZIPOutputStream(out), content);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] content)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try
+        {
+            compress(new DeflaterOutputStream(out), content);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void compress(OutputStream compressor, byte[] content) throws IOException
+    {
+        try
+        {
+            compressor.write(content);
+        }
+        finally
+        {
+            compressor.close();
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException
+    {
+        if (in == null)
+        {
+            return null;
+        }
+        try
+        {
+            return IOUtils.toByteArray(in);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(in);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.exception;
+
+/**
+ * The request body is larger than the maximum size of the action, mapped to status 413.
+ * Applications that only map bad requests report it as a 400.
+ */
+public class RequestEntityTooLargeException extends BadRequestException
+{
+
+    public RequestEntityTooLargeException(String message)
+    {
+        super(message);
+    }
+}
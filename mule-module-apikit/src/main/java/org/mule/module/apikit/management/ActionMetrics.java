@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Request and error counts of one action of an api, along with the latency of every
+ * stage of its requests.
+ */
+public class ActionMetrics implements ActionMetricsMBean
+{
+
+    private final String name;
+    private final StripedCounter requests = new StripedCounter();
+    private final StripedCounter errors = new StripedCounter();
+    private final Map<RequestStage, LatencyHistogram> latencies = new EnumMap<>(RequestStage.class);
+
+    public ActionMetrics(String name)
+    {
+        this.name = name;
+        for (RequestStage stage : RequestStage.values())
+        {
+            latencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public void requested()
+    {
+        requests.increment();
+    }
+
+    public void failed()
+    {
+        errors.increment();
+    }
+
+    public void record(RequestStage stage, long nanos)
+    {
+        latencies.get(stage).record(nanos);
+    }
+
+    public LatencyHistogram getLatency(RequestStage stage)
+    {
+        return latencies.get(stage);
+    }
+
+    @Override
+    public long getRequestCount()
+    {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrorCount()
+    {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with fixed power of two buckets of microseconds, recording takes
+ * a few atomic additions and never allocates.
+ * <p/>
+ * Bucket 0 counts latencies under a microsecond and bucket i those from 2^(i-1) up to
+ * 2^i microseconds, the last bucket counts everything longer. Percentiles are reported
+ * as the upper bound of the bucket they fall in, so they are accurate within a factor
+ * of two.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean
+{
+
+    static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final StripedCounter totalMicros = new StripedCounter();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos)
+    {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        buckets.incrementAndGet(bucketOf(micros));
+        totalMicros.add(micros);
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros))
+        {
+            max = maxMicros.get();
+        }
+    }
+
+    static int bucketOf(long micros)
+    {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    @Override
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public long getMeanMicros()
+    {
+        long count = getCount();
+        return count == 0 ? 0 : totalMicros.sum() / count;
+    }
+
+    @Override
+    public long getP50Micros()
+    {
+        return getPercentileMicros(0.50);
+    }
+
+    @Override
+    public long getP90Micros()
+    {
+        return getPercentileMicros(0.90);
+    }
+
+    @Override
+    public long getP99Micros()
+    {
+        return getPercentileMicros(0.99);
+    }
+
+    @Override
+    public long getMaxMicros()
+    {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given fraction of the recorded
+     * latencies, never more than the maximum latency recorded.
+     */
+    public long getPercentileMicros(double fraction)
+    {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0)
+        {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(i == 0 ? 0 : 1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+}
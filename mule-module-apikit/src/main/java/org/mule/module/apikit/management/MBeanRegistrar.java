@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers the MBeans of an APIkit configuration in the platform MBean server
+ * and keeps track of them so they can be unregistered on dispose.
+ */
+public class MBeanRegistrar
+{
+
+    public static final String DOMAIN = "org.mule.module.apikit";
+
+    private static final Logger logger = LoggerFactory.getLogger(MBeanRegistrar.class);
+
+    private final String application;
+    private final String config;
+    private final List<ObjectName> registered = new ArrayList<ObjectName>();
+
+    public MBeanRegistrar(String application, String config)
+    {
+        this.application = application != null ? application : "default";
+        this.config = config != null ? config : "apikit";
+    }
+
+    public synchronized void register(String type, Object mbean)
+    {
+        register(type, null, mbean);
+    }
+
+    /**
+     * Registers one of the MBeans of the given type, identified by its name.
+     */
+    public synchronized void register(String type, String mbeanName, Object mbean)
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            ObjectName name = getObjectName(type, mbeanName);
+            if (server.isRegistered(name))
+            {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+            registered.add(name);
+        }
+        catch (Exception e)
+        {
+            logger.warn("Cannot register APIkit MBean " + type + (mbeanName != null ? " " + mbeanName : ""), e);
+        }
+    }
+
+    public synchronized void unregisterAll()
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered)
+        {
+            try
+            {
+                if (server.isRegistered(name))
+                {
+                    server.unregisterMBean(name);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.debug("Cannot unregister APIkit MBean " + name, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private ObjectName getObjectName(String type, String name) throws MalformedObjectNameException
+    {
+        String objectName = String.format("%s:application=%s,config=%s,type=%s", DOMAIN,
+                                          ObjectName.quote(application), ObjectName.quote(config), type);
+        if (name != null)
+        {
+            objectName += ",name=" + ObjectName.quote(name);
+        }
+        return new ObjectName(objectName);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import com.google.common.cache.Cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the RAML descriptors dumped for the hosts requesting them. Dump times are
+ * kept across API updates, cache counters are those of the current cache.
+ */
+public class RamlDumpStatistics implements RamlDumpStatisticsMBean
+{
+
+    private final AtomicLong dumpCount = new AtomicLong();
+    private final AtomicLong dumpTimeNanos = new AtomicLong();
+    private final AtomicLong maxDumpTimeNanos = new AtomicLong();
+    private volatile Cache<?, ?> cache;
+
+    public void setCache(Cache<?, ?> cache)
+    {
+        this.cache = cache;
+    }
+
+    public void dumped(long nanos)
+    {
+        dumpCount.incrementAndGet();
+        dumpTimeNanos.addAndGet(nanos);
+        long max = maxDumpTimeNanos.get();
+        while (nanos > max && !maxDumpTimeNanos.compareAndSet(max, nanos))
+        {
+            max = maxDumpTimeNanos.get();
+        }
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return cache != null ? cache.stats().hitCount() : 0;
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return cache != null ? cache.stats().missCount() : 0;
+    }
+
+    @Override
+    public long getEvictionCount()
+    {
+        return cache != null ? cache.stats().evictionCount() : 0;
+    }
+
+    @Override
+    public long getSize()
+    {
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public long getDumpCount()
+    {
+        return dumpCount.get();
+    }
+
+    @Override
+    public long getTotalDumpTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(dumpTimeNanos.get());
+    }
+
+    @Override
+    public double getAverageDumpTimeMillis()
+    {
+        long count = dumpCount.get();
+        return count == 0 ? 0 : dumpTimeNanos.get() / 1000000.0 / count;
+    }
+
+    @Override
+    public long getMaxDumpTimeMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(maxDumpTimeNanos.get());
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+/**
+ * JMX view of the per-host RAML descriptor cache of an APIkit configuration.
+ */
+public interface RamlDumpStatisticsMBean
+{
+
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+
+    long getSize();
+
+    long getDumpCount();
+
+    long getTotalDumpTimeMillis();
+
+    double getAverageDumpTimeMillis();
+
+    long getMaxDumpTimeMillis();
+}
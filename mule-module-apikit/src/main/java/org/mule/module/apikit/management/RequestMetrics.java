@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics of the requests routed by an APIkit configuration, kept per action and
+ * published as MBeans as actions are first requested.
+ * <p/>
+ * Configurations create it only when metrics are enabled, so routers without metrics
+ * pay nothing but a null check.
+ */
+public class RequestMetrics
+{
+
+    public static final String TYPE = "RequestMetrics";
+    public static final String LATENCY_TYPE = "RequestLatency";
+
+    private final MBeanRegistrar mBeanRegistrar;
+    private final ConcurrentMap<String, ActionMetrics> actions = new ConcurrentHashMap<>();
+
+    /**
+     * @param mBeanRegistrar registrar of the action MBeans, null to not publish them
+     */
+    public RequestMetrics(MBeanRegistrar mBeanRegistrar)
+    {
+        this.mBeanRegistrar = mBeanRegistrar;
+    }
+
+    /**
+     * Returns the metrics of the given action, creating them on its first request.
+     *
+     * @param method http method of the action
+     * @param resource resolved uri of the resource
+     */
+    public ActionMetrics get(String method, String resource)
+    {
+        String name = method.toUpperCase() + " " + resource;
+        ActionMetrics metrics = actions.get(name);
+        if (metrics == null)
+        {
+            ActionMetrics created = new ActionMetrics(name);
+            metrics = actions.putIfAbsent(name, created);
+            if (metrics == null)
+            {
+                metrics = created;
+                register(created);
+            }
+        }
+        return metrics;
+    }
+
+    private void register(ActionMetrics metrics)
+    {
+        if (mBeanRegistrar == null)
+        {
+            return;
+        }
+        mBeanRegistrar.register(TYPE, metrics.getName(), metrics);
+        for (RequestStage stage : RequestStage.values())
+        {
+            mBeanRegistrar.register(LATENCY_TYPE, metrics.getName() + " " + stage.getLabel(), metrics.getLatency(stage));
+        }
+    }
+
+    /**
+     * Returns the metrics of every requested action as plain text, one line per action and
+     * one per stage that recorded latencies.
+     */
+    public String report()
+    {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, ActionMetrics> entry : new TreeMap<>(actions).entrySet())
+        {
+            ActionMetrics metrics = entry.getValue();
+            report.append(entry.getKey())
+                    .append(" requests=").append(metrics.getRequestCount())
+                    .append(" errors=").append(metrics.getErrorCount())
+                    .append('\n');
+            for (RequestStage stage : RequestStage.values())
+            {
+                LatencyHistogram latency = metrics.getLatency(stage);
+                long count = latency.getCount();
+                if (count == 0)
+                {
+                    continue;
+                }
+                report.append(entry.getKey()).append(' ').append(stage.getLabel())
+                        .append(" count=").append(count)
+                        .append(" mean=").append(latency.getMeanMicros()).append("us")
+                        .append(" p50=").append(latency.getP50Micros()).append("us")
+                        .append(" p90=").append(latency.getP90Micros()).append("us")
+                        .append(" p99=").append(latency.getP99Micros()).append("us")
+                        .append(" max=").append(latency.getMaxMicros()).append("us")
+                        .append('\n');
+            }
+        }
+        return report.toString();
+    }
+}
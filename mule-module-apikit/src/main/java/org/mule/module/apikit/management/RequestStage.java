@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+/**
+ * Stages of a request routed by APIkit whose latency is measured.
+ */
+public enum RequestStage
+{
+    ROUTING("routing"),
+    URI_PARAMETERS("uri-parameters"),
+    PARAMETERS("parameters"),
+    BODY("body"),
+    FLOW("flow"),
+    RESPONSE("response");
+
+    private final String label;
+
+    RequestStage(String label)
+    {
+        this.label = label;
+    }
+
+    public String getLabel()
+    {
+        return label;
+    }
+}
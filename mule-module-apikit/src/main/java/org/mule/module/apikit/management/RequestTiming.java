@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing of one request of an action, shared by the router and the response transformer.
+ * <p/>
+ * The response transformer runs inside the flow, so its time is recorded as the response
+ * stage and left out of the flow stage.
+ */
+public class RequestTiming
+{
+
+    private final ActionMetrics metrics;
+    private final AtomicLong responseNanos = new AtomicLong();
+
+    public RequestTiming(ActionMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    public ActionMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    public void responseTransformed(long nanos)
+    {
+        metrics.record(RequestStage.RESPONSE, nanos);
+        responseNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records the flow stage, given the time the flow took including the response
+     * transformations run inside it.
+     */
+    public void flowCompleted(long nanos, boolean failed)
+    {
+        metrics.record(RequestStage.FLOW, Math.max(0, nanos - responseNanos.get()));
+        if (failed)
+        {
+            metrics.failed();
+        }
+    }
+}
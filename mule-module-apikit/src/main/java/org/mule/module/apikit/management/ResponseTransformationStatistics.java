@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResponseTransformationStatistics implements ResponseTransformationStatisticsMBean
+{
+
+    private final AtomicLong passedThrough = new AtomicLong();
+    private final AtomicLong transformed = new AtomicLong();
+    private final Set<String> transformedRepresentations = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public void passedThrough()
+    {
+        passedThrough.incrementAndGet();
+    }
+
+    public void transformed(String representation)
+    {
+        transformed.incrementAndGet();
+        transformedRepresentations.add(representation);
+    }
+
+    /**
+     * Returns true if a response of the flow has ever been transformed to the
+     * given representation.
+     */
+    public boolean isTransformed(String representation)
+    {
+        return transformedRepresentations.contains(representation);
+    }
+
+    @Override
+    public long getPassedThroughCount()
+    {
+        return passedThrough.get();
+    }
+
+    @Override
+    public long getTransformedCount()
+    {
+        return transformed.get();
+    }
+
+    @Override
+    public String[] getTransformedRepresentations()
+    {
+        return transformedRepresentations.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import com.google.common.cache.Cache;
+
+public class RoutingCacheStatistics implements RoutingCacheStatisticsMBean
+{
+
+    private volatile Cache<?, ?> cache;
+
+    public RoutingCacheStatistics(Cache<?, ?> cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Reports the counters of the given cache from now on, used when the api is updated.
+     */
+    public void setCache(Cache<?, ?> cache)
+    {
+        this.cache = cache;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Override
+    public long getSize()
+    {
+        return cache.size();
+    }
+}
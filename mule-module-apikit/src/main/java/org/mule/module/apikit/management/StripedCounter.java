@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter spread over padded cells picked by thread, so threads adding concurrently
+ * rarely contend on the same cache line. Reads add up every cell.
+ */
+public class StripedCounter
+{
+
+    private static final int STRIPES = 16;
+    // cells are 8 longs (a cache line) apart
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void add(long value)
+    {
+        cells.addAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING, value);
+    }
+
+    public void increment()
+    {
+        add(1);
+    }
+
+    public long sum()
+    {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++)
+        {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import org.mule.module.apikit.validation.ValidationPipeline;
+import org.mule.module.apikit.validation.ValidationStage;
+
+public class ValidationRejections implements ValidationRejectionsMBean
+{
+
+    private final ValidationPipeline pipeline;
+
+    public ValidationRejections(ValidationPipeline pipeline)
+    {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public String getValidationOrder()
+    {
+        return pipeline.toString();
+    }
+
+    @Override
+    public long getMethodRejections()
+    {
+        return pipeline.getRejections(ValidationStage.METHOD);
+    }
+
+    @Override
+    public long getBodySizeRejections()
+    {
+        return pipeline.getRejections(ValidationStage.BODY_SIZE);
+    }
+
+    @Override
+    public long getContentTypeRejections()
+    {
+        return pipeline.getRejections(ValidationStage.CONTENT_TYPE);
+    }
+
+    @Override
+    public long getAcceptRejections()
+    {
+        return pipeline.getRejections(ValidationStage.ACCEPT);
+    }
+
+    @Override
+    public long getRequiredRejections()
+    {
+        return pipeline.getRejections(ValidationStage.REQUIRED);
+    }
+
+    @Override
+    public long getUriParameterRejections()
+    {
+        return pipeline.getRejections(ValidationStage.URI_PARAMETERS);
+    }
+
+    @Override
+    public long getQueryParameterRejections()
+    {
+        return pipeline.getRejections(ValidationStage.QUERY_PARAMETERS);
+    }
+
+    @Override
+    public long getHeaderRejections()
+    {
+        return pipeline.getRejections(ValidationStage.HEADERS);
+    }
+
+    @Override
+    public long getBodyRejections()
+    {
+        return pipeline.getRejections(ValidationStage.BODY);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+/**
+ * JMX view of the validation order of an APIkit configuration and of the number of
+ * requests rejected by each check.
+ */
+public interface ValidationRejectionsMBean
+{
+
+    String getValidationOrder();
+
+    long getMethodRejections();
+
+    long getBodySizeRejections();
+
+    long getContentTypeRejections();
+
+    long getAcceptRejections();
+
+    long getRequiredRejections();
+
+    long getUriParameterRejections();
+
+    long getQueryParameterRejections();
+
+    long getHeaderRejections();
+
+    long getBodyRejections();
+}
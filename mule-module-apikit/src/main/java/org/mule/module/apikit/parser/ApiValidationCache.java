@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import org.mule.util.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.CodeSource;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.raml.parser.visitor.RamlValidationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk record of an API descriptor that passed validation, so a restart with the same
+ * descriptor and includes does not validate it again.
+ * <p/>
+ * The record holds the names of every resource read while validating and a SHA-256 hash
+ * of their content. It is valid as long as the same resources have the same content;
+ * any change to the descriptor or to an include, including a new include, changes a
+ * hashed resource. The record also holds the versions of APIkit and of the RAML parser
+ * that validated the descriptor, so an upgrade validates it again.
+ * <p/>
+ * Only the validation pass of RAML 0.8 descriptors is skipped: the descriptor is still
+ * parsed and the routing structures are still built on every start.
+ */
+public class ApiValidationCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiValidationCache.class);
+
+    private static final int MAGIC = 0x41504B43; // APKC
+    private static final int FORMAT_VERSION = 3;
+    private static final int MAX_HASH_LENGTH = 64;
+
+    private static final String TOOLCHAIN = version(ApiValidationCache.class) + "|" + version(RamlValidationService.class);
+
+    private final File file;
+    private final String toolchain;
+
+    public ApiValidationCache(File directory, String ramlPath)
+    {
+        this(directory, ramlPath, TOOLCHAIN);
+    }
+
+    /**
+     * @param toolchain versions of the code that validates the descriptor
+     */
+    ApiValidationCache(File directory, String ramlPath, String toolchain)
+    {
+        this.file = new File(directory, ramlPath.replaceAll("[^A-Za-z0-9.-]", "_") + ".validated");
+        this.toolchain = toolchain;
+    }
+
+    /**
+     * Returns true if the descriptor was validated with the same content of every resource
+     * it reads, fetching them through the given loader.
+     */
+    public boolean isValidated(CachingResourceLoader resourceLoader)
+    {
+        if (!file.isFile())
+        {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+        {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !toolchain.equals(input.readUTF()))
+            {
+                return false;
+            }
+            int hashLength = input.readInt();
+            if (hashLength < 0 || hashLength > MAX_HASH_LENGTH)
+            {
+                return false;
+            }
+            byte[] hash = new byte[hashLength];
+            input.readFully(hash);
+            SortedMap<String, byte[]> resources = new TreeMap<>();
+            for (int count = input.readInt(); count > 0; count--)
+            {
+                String resourceName = input.readUTF();
+                byte[] content = fetch(resourceLoader, resourceName);
+                if (content == null)
+                {
+                    return false;
+                }
+                resources.put(resourceName, content);
+            }
+            return Arrays.equals(hash, hash(resources));
+        }
+        catch (IOException e)
+        {
+            logger.warn("Ignoring invalid API validation cache " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records that the descriptor is valid with the resources fetched so far by the given loader.
+     */
+    public void store(CachingResourceLoader resourceLoader)
+    {
+        SortedMap<String, byte[]> resources = resourceLoader.getResources();
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            logger.warn("Cannot create API validation cache directory " + directory);
+            return;
+        }
+        File temp = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(temp)))
+        {
+            byte[] hash = hash(resources);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(toolchain);
+            output.writeInt(hash.length);
+            output.write(hash);
+            output.writeInt(resources.size());
+            for (String resourceName : resources.keySet())
+            {
+                output.writeUTF(resourceName);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Cannot write API validation cache " + file, e);
+            temp.delete();
+            return;
+        }
+        // readers never see a partially written record
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file)))
+        {
+            logger.warn("Cannot write API validation cache " + file);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the version in the manifest of the jar of the given class, or else the name
+     * and timestamp of the jar, which change with every build.
+     */
+    static String version(Class<?> type)
+    {
+        Package typePackage = type.getPackage();
+        if (typePackage != null && typePackage.getImplementationVersion() != null)
+        {
+            return typePackage.getImplementationVersion();
+        }
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null)
+        {
+            return "unknown";
+        }
+        URL location = source.getLocation();
+        if ("file".equals(location.getProtocol()))
+        {
+            try
+            {
+                File jar = new File(location.toURI());
+                return jar.getName() + "@" + jar.lastModified();
+            }
+            catch (URISyntaxException | IllegalArgumentException e)
+            {
+                // the location alone
+            }
+        }
+        return location.toString();
+    }
+
+    private static byte[] fetch(CachingResourceLoader resourceLoader, String resourceName) throws IOException
+    {
+        InputStream stream = resourceLoader.fetchResource(resourceName);
+        if (stream == null)
+        {
+            return null;
+        }
+        try
+        {
+            return IOUtils.toByteArray(stream);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+
+    private static byte[] hash(SortedMap<String, byte[]> resources)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, byte[]> resource : resources.entrySet())
+            {
+                byte[] name = resource.getKey().getBytes(StandardCharsets.UTF_8);
+                digest.update(toBytes(name.length));
+                digest.update(name);
+                digest.update(toBytes(resource.getValue().length));
+                digest.update(resource.getValue());
+            }
+            return digest.digest();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] toBytes(int value)
+    {
+        return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.raml.v2.api.loader.ResourceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resource loader for both RAML parsers that fetches every resource only once, so the
+ * descriptor and its includes are read a single time however many times the parsers
+ * resolve them.
+ * <p/>
+ * Resources that cannot be found are not cached, a composite loader asks each of its
+ * loaders in turn.
+ */
+public class CachingResourceLoader implements ResourceLoader, org.raml.parser.loader.ResourceLoader
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingResourceLoader.class);
+
+    private final ResourceLoader delegateV2;
+    private final org.raml.parser.loader.ResourceLoader delegateV1;
+    private final ConcurrentMap<String, byte[]> resources = new ConcurrentHashMap<>();
+
+    public CachingResourceLoader(ResourceLoader delegate)
+    {
+        this.delegateV2 = delegate;
+        this.delegateV1 = null;
+    }
+
+    public CachingResourceLoader(org.raml.parser.loader.ResourceLoader delegate)
+    {
+        this.delegateV2 = null;
+        this.delegateV1 = delegate;
+    }
+
+    /**
+     * Adds a resource already fetched by other means.
+     */
+    public void preload(String resourceName, byte[] content)
+    {
+        resources.putIfAbsent(resourceName, content);
+    }
+
+    @Override
+    public InputStream fetchResource(String resourceName)
+    {
+        byte[] content = resources.get(resourceName);
+        if (content == null)
+        {
+            content = load(resourceName);
+            if (content == null)
+            {
+                return null;
+            }
+            byte[] previous = resources.putIfAbsent(resourceName, content);
+            if (previous != null)
+            {
+                content = previous;
+            }
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    private byte[] load(String resourceName)
+    {
+        long start = System.nanoTime();
+        InputStream stream = delegateV2 != null ? delegateV2.fetchResource(resourceName) : delegateV1.fetchResource(resourceName);
+        if (stream == null)
+        {
+            return null;
+        }
+        try
+        {
+            return IOUtils.toByteArray(stream);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Error reading RAML resource " + resourceName, e);
+            return null;
+        }
+        finally
+        {
+            IOUtils.closeQuietly(stream);
+            if (logger.isDebugEnabled())
+            {
+                logger.debug(String.format("Fetched RAML resource %s in %d ms", resourceName, (System.nanoTime() - start) / 1000000));
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the resources fetched so far, sorted by name.
+     */
+    public SortedMap<String, byte[]> getResources()
+    {
+        return new TreeMap<>(resources);
+    }
+
+    /**
+     * Returns the names of the resources fetched so far, sorted.
+     */
+    public Set<String> getResourceNames()
+    {
+        return new TreeSet<>(resources.keySet());
+    }
+
+    /**
+     * Returns the number of resources fetched so far.
+     */
+    public int size()
+    {
+        return resources.size();
+    }
+
+    /**
+     * Discards every fetched resource, so they are read again on next use.
+     */
+    public void clear()
+    {
+        resources.clear();
+    }
+}
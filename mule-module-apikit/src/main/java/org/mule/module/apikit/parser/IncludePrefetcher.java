@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import org.mule.util.FilenameUtils;
+import org.mule.util.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches the fragments, libraries and schemas referenced by a RAML document concurrently
+ * into a {@link CachingResourceLoader}, before the parser asks for them one at a time.
+ * <p/>
+ * References are found by scanning the text of the documents for <code>!include</code>
+ * tags and <code>uses</code> entries, and are resolved the way the parser does: relative
+ * references against the location of the document that declares them, and references
+ * starting with <code>/</code> against the directory of the root document, normalizing
+ * <code>./</code> and <code>../</code> segments. Prefetching is only an
+ * optimization: resources that cannot be found or a reference missed by the scan are
+ * left for the parser to resolve and report.
+ */
+public class IncludePrefetcher
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(IncludePrefetcher.class);
+
+    private static final Pattern INCLUDE = Pattern.compile("!include\\s+[\"']?([^\\s\"'#,\\]}]+)");
+    private static final Pattern USES = Pattern.compile("^(\\s*)uses\\s*:\\s*$");
+    private static final Pattern USES_ENTRY = Pattern.compile("^(\\s+)[^\\s:#]+\\s*:\\s*[\"']?([^\\s\"'#]+)[\"']?\\s*$");
+
+    private final CachingResourceLoader resourceLoader;
+    private final int parallelism;
+
+    public IncludePrefetcher(CachingResourceLoader resourceLoader, int parallelism)
+    {
+        this.resourceLoader = resourceLoader;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Fetches every resource referenced by the given document, and by the RAML and YAML
+     * documents it references, transitively.
+     */
+    public void prefetch(String location, String content)
+    {
+        long start = System.currentTimeMillis();
+        Set<String> requested = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        CompletionService<Fetched> completion = new ExecutorCompletionService<>(executor);
+        int pending = 0;
+        try
+        {
+            pending += submit(completion, requested, findReferences(location, location, content));
+            while (pending > 0)
+            {
+                Fetched fetched = completion.take().get();
+                pending--;
+                if (fetched.content != null)
+                {
+                    pending += submit(completion, requested, findReferences(location, fetched.location, fetched.content));
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            logger.debug("Error prefetching RAML resources", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        logger.info(String.format("Prefetched %d RAML resources in %d ms", requested.size(), System.currentTimeMillis() - start));
+    }
+
+    private int submit(CompletionService<Fetched> completion, Set<String> requested, List<String> locations)
+    {
+        int submitted = 0;
+        for (String location : locations)
+        {
+            if (requested.add(location))
+            {
+                completion.submit(new FetchTask(location));
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Returns the locations of the resources referenced by a document.
+     *
+     * @param root location of the root document of the api
+     * @param location location of the document
+     */
+    static List<String> findReferences(String root, String location, String content)
+    {
+        List<String> references = new ArrayList<>();
+        Matcher include = INCLUDE.matcher(content);
+        while (include.find())
+        {
+            addReference(references, resolve(root, location, include.group(1)));
+        }
+        String usesIndent = null;
+        for (String line : content.split("\r?\n"))
+        {
+            if (usesIndent != null)
+            {
+                Matcher entry = USES_ENTRY.matcher(line);
+                if (entry.matches() && entry.group(1).length() > usesIndent.length())
+                {
+                    addReference(references, resolve(root, location, entry.group(2)));
+                    continue;
+                }
+                if (!line.trim().isEmpty())
+                {
+                    usesIndent = null;
+                }
+            }
+            Matcher uses = USES.matcher(line);
+            if (uses.matches())
+            {
+                usesIndent = uses.group(1);
+            }
+        }
+        return references;
+    }
+
+    private static void addReference(List<String> references, String reference)
+    {
+        // references outside of the api are left for the parser to report
+        if (reference != null)
+        {
+            references.add(reference);
+        }
+    }
+
+    private static String resolve(String root, String location, String reference)
+    {
+        if (reference.contains("://"))
+        {
+            return reference;
+        }
+        if (reference.startsWith("/"))
+        {
+            return FilenameUtils.normalize(directory(root) + reference.substring(1), true);
+        }
+        return FilenameUtils.normalize(directory(location) + reference, true);
+    }
+
+    private static String directory(String location)
+    {
+        return location.substring(0, location.lastIndexOf('/') + 1);
+    }
+
+    private static boolean isYaml(String location)
+    {
+        return location.endsWith(".raml") || location.endsWith(".yaml") || location.endsWith(".yml");
+    }
+
+    private static class Fetched
+    {
+
+        private final String location;
+        private final String content; // null unless it can hold more references
+
+        Fetched(String location, String content)
+        {
+            this.location = location;
+            this.content = content;
+        }
+    }
+
+    private class FetchTask implements Callable<Fetched>
+    {
+
+        private final String location;
+        // resources are resolved against the application class loader
+        private final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        FetchTask(String location)
+        {
+            this.location = location;
+        }
+
+        @Override
+        public Fetched call() throws IOException
+        {
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            InputStream stream = null;
+            try
+            {
+                stream = resourceLoader.fetchResource(location);
+                if (stream == null || !isYaml(location))
+                {
+                    return new Fetched(location, null);
+                }
+                return new Fetched(location, new String(IOUtils.toByteArray(stream), StandardCharsets.UTF_8));
+            }
+            catch (RuntimeException e)
+            {
+                // left for the parser to report
+                return new Fetched(location, null);
+            }
+            finally
+            {
+                IOUtils.closeQuietly(stream);
+                thread.setContextClassLoader(original);
+            }
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.mule.module.apikit.AbstractConfiguration;
 import org.mule.module.apikit.injector.RamlUpdater;
 import org.mule.raml.interfaces.model.IRaml;
 
+import java.util.Set;
+
 public interface ParserWrapper
 {
     void validate();
@@ -23,4 +25,9 @@ public interface ParserWrapper
     RamlUpdater getRamlUpdater(IRaml api, AbstractConfiguration configuration);
 
     void updateBaseUri(IRaml api, String baseUri);
+
+    /**
+     * Returns the names of the descriptor and of the includes and libraries read so far.
+     */
+    Set<String> getResourceNames();
 }
@@ -17,8 +17,10 @@ import org.mule.raml.implv1.model.RamlImplV1;
 import org.mule.raml.interfaces.model.IRaml;
 import org.mule.util.BeanUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.SerializationUtils;
 import org.raml.emitter.RamlEmitter;
@@ -28,7 +30,6 @@ import org.raml.model.Resource;
 import org.raml.parser.loader.CompositeResourceLoader;
 import org.raml.parser.loader.DefaultResourceLoader;
 import org.raml.parser.loader.FileResourceLoader;
-import org.raml.parser.loader.ResourceLoader;
 import org.raml.parser.rule.ValidationResult;
 import org.raml.parser.visitor.RamlDocumentBuilder;
 import org.raml.parser.visitor.RamlValidationService;
@@ -41,26 +42,57 @@ public class ParserWrapperV1 implements ParserWrapper
     private static final Logger logger = LoggerFactory.getLogger(ParserWrapperV1.class);
 
     private final String ramlPath;
-    private final ResourceLoader resourceLoader;
+    private final String ramlContent;
+    private final CachingResourceLoader resourceLoader;
+    private ApiValidationCache validationCache;
     private Raml baseApi; //original api to clone
 
     public ParserWrapperV1(String ramlPath, String appHome)
+    {
+        this(ramlPath, appHome, null);
+    }
+
+    /**
+     * @param ramlContent content of the descriptor if already fetched, null to fetch it
+     */
+    public ParserWrapperV1(String ramlPath, String appHome, String ramlContent)
     {
         this.ramlPath = ramlPath;
+        this.ramlContent = ramlContent;
+        // validation and model building are separate passes in this parser, includes are fetched once for both
         if (appHome != null)
         {
-            this.resourceLoader = new CompositeResourceLoader(new DefaultResourceLoader(), new FileResourceLoader(appHome));
+            this.resourceLoader = new CachingResourceLoader(new CompositeResourceLoader(new DefaultResourceLoader(), new FileResourceLoader(appHome)));
         }
         else
         {
-            this.resourceLoader = new DefaultResourceLoader();
+            this.resourceLoader = new CachingResourceLoader(new DefaultResourceLoader());
+        }
+        if (ramlContent != null)
+        {
+            resourceLoader.preload(ramlPath, ramlContent.getBytes(StandardCharsets.UTF_8));
         }
     }
 
+    /**
+     * Skips validating a descriptor that is unchanged since it was last validated.
+     */
+    public void setValidationCache(ApiValidationCache validationCache)
+    {
+        this.validationCache = validationCache;
+    }
+
     @Override
     public void validate()
     {
-        List<ValidationResult> results = RamlValidationService.createDefault(resourceLoader).validate(ramlPath);
+        if (validationCache != null && validationCache.isValidated(resourceLoader))
+        {
+            logger.info("API descriptor " + ramlPath + " is unchanged since last validated, skipping validation");
+            return;
+        }
+        RamlValidationService validationService = RamlValidationService.createDefault(resourceLoader);
+        List<ValidationResult> results = ramlContent != null ? validationService.validate(ramlContent, ramlPath)
+                                                             : validationService.validate(ramlPath);
         List<ValidationResult> errors = ValidationResult.getLevel(ERROR, results);
         if (!errors.isEmpty())
         {
@@ -72,6 +104,10 @@ public class ParserWrapperV1 implements ParserWrapper
         {
             logger.warn(aggregateMessages(warnings, "API descriptor Warnings -- warnings found: "));
         }
+        if (validationCache != null)
+        {
+            validationCache.store(resourceLoader);
+        }
     }
 
     private String aggregateMessages(List<ValidationResult> results, String header)
@@ -97,7 +133,7 @@ public class ParserWrapperV1 implements ParserWrapper
     public IRaml build()
     {
         RamlDocumentBuilder builder = new RamlDocumentBuilder(resourceLoader);
-        Raml api = builder.build(ramlPath);
+        Raml api = ramlContent != null ? builder.build(ramlContent, ramlPath) : builder.build(ramlPath);
         return new RamlImplV1(api);
     }
 
@@ -155,6 +191,12 @@ public class ParserWrapperV1 implements ParserWrapper
         cleanBaseUriParameters(ramlImpl);
     }
 
+    @Override
+    public Set<String> getResourceNames()
+    {
+        return resourceLoader.getResourceNames();
+    }
+
     private void cleanBaseUriParameters(Raml ramlApi)
     {
         ramlApi.getBaseUriParameters().clear();
@@ -16,8 +16,11 @@ import org.mule.raml.interfaces.model.IRaml;
 import com.google.common.collect.Lists;
 
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import org.raml.v2.api.RamlModelResult;
 import org.raml.v2.api.loader.ClassPathResourceLoader;
 import org.raml.v2.api.loader.CompositeResourceLoader;
 import org.raml.v2.api.loader.DefaultResourceLoader;
@@ -32,12 +35,26 @@ public class ParserWrapperV2 implements ParserWrapper
 
     private static final Logger logger = LoggerFactory.getLogger(ParserWrapperV2.class);
 
+    private static final int PREFETCH_PARALLELISM = 8;
+
     private final String ramlPath;
-    private final ResourceLoader resourceLoader;
+    private final String ramlContent;
+    private final CachingResourceLoader resourceLoader;
+    private boolean prefetched;
+    private RamlModelResult parsedModel; // parsed by validate, built by build
 
     public ParserWrapperV2(String ramlPath, String appHome)
+    {
+        this(ramlPath, appHome, null);
+    }
+
+    /**
+     * @param ramlContent content of the descriptor if already fetched, null to fetch it
+     */
+    public ParserWrapperV2(String ramlPath, String appHome, String ramlContent)
     {
         this.ramlPath = ramlPath;
+        this.ramlContent = ramlContent;
         List<ResourceLoader> resourceLoaders = Lists.newArrayList((ResourceLoader) new DefaultResourceLoader());
         if (appHome != null)
         {
@@ -49,18 +66,29 @@ public class ParserWrapperV2 implements ParserWrapper
         }
         if (resourceLoaders.size() > 1)
         {
-            this.resourceLoader = new CompositeResourceLoader(resourceLoaders.toArray(new ResourceLoader[]{}));
+            this.resourceLoader = new CachingResourceLoader(new CompositeResourceLoader(resourceLoaders.toArray(new ResourceLoader[]{})));
         }
         else
         {
-            this.resourceLoader = resourceLoaders.get(0);
+            this.resourceLoader = new CachingResourceLoader(resourceLoaders.get(0));
         }
     }
 
     @Override
     public void validate()
     {
-        List<String> errors = ParserV2Utils.validate(resourceLoader, ramlPath);
+        List<String> errors;
+        RamlModelResult model = null;
+        try
+        {
+            prefetch();
+            model = ParserV2Utils.parse(resourceLoader, ramlPath, ramlContent);
+            errors = ParserV2Utils.validate(model);
+        }
+        catch (Exception e)
+        {
+            errors = Collections.singletonList("Raml parser uncaught exception: " + e.getMessage());
+        }
         if (!errors.isEmpty())
         {
             StringBuilder message = new StringBuilder("Invalid API descriptor -- errors found: ");
@@ -71,12 +99,44 @@ public class ParserWrapperV2 implements ParserWrapper
             }
             throw new ApikitRuntimeException(message.toString());
         }
+        parsedModel = model;
     }
 
     @Override
     public IRaml build()
     {
-        return ParserV2Utils.build(resourceLoader, ramlPath);
+        RamlModelResult model = parsedModel;
+        parsedModel = null;
+        if (model == null)
+        {
+            prefetch();
+            model = ParserV2Utils.parse(resourceLoader, ramlPath, ramlContent);
+        }
+        return ParserV2Utils.build(model);
+    }
+
+    /**
+     * Loads the includes and libraries of the descriptor concurrently, the parser then reads
+     * them from the resource loader cache instead of fetching them one after the other.
+     */
+    private void prefetch()
+    {
+        if (prefetched)
+        {
+            return;
+        }
+        prefetched = true;
+        String content = ramlContent != null ? ramlContent : fetchRaml();
+        if (content != null)
+        {
+            new IncludePrefetcher(resourceLoader, PREFETCH_PARALLELISM).prefetch(ramlPath, content);
+        }
+    }
+
+    private String fetchRaml()
+    {
+        InputStream stream = resourceLoader.fetchResource(ramlPath);
+        return stream != null ? StreamUtils.toString(stream) : null;
     }
 
     @Override
@@ -98,12 +158,16 @@ public class ParserWrapperV2 implements ParserWrapper
 
     private String dumpRaml(IRaml api)
     {
-        InputStream stream = resourceLoader.fetchResource(ramlPath);
-        if (stream == null)
+        if (ramlContent != null)
+        {
+            return ramlContent;
+        }
+        String content = fetchRaml();
+        if (content == null)
         {
             throw new ApikitRuntimeException("Invalid RAML descriptor");
         }
-        return StreamUtils.toString(stream);
+        return content;
     }
 
     @Override
@@ -118,4 +182,10 @@ public class ParserWrapperV2 implements ParserWrapper
         // do nothing, as updates are not supported
         logger.debug("RAML 1.0 parser does not support base uri updates");
     }
+
+    @Override
+    public Set<String> getResourceNames()
+    {
+        return resourceLoader.getResourceNames();
+    }
 }
@@ -7,20 +7,20 @@
 package org.mule.module.apikit.transform;
 
 import org.mule.api.MuleMessage;
+import org.mule.api.registry.RegistrationException;
 import org.mule.api.transformer.DataType;
 import org.mule.api.transformer.Transformer;
 import org.mule.api.transformer.TransformerException;
-import org.mule.module.apikit.RestContentTypeParser;
+import org.mule.module.apikit.NegotiationCache;
 import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.module.apikit.management.RequestTiming;
+import org.mule.module.apikit.management.ResponseTransformationStatistics;
 import org.mule.raml.interfaces.model.IMimeType;
 import org.mule.transformer.AbstractMessageTransformer;
 import org.mule.transformer.types.DataTypeFactory;
 import org.mule.transport.NullPayload;
 
-import com.google.common.base.Function;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Collections2;
-import com.google.common.net.MediaType;
+import com.google.common.cache.LoadingCache;
 
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +32,11 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
     public static final String CONTRACT_MIME_TYPES = "_ApikitResponseTransformer_contractMimeTypes";
     public static final String APIKIT_ROUTER_REQUEST = "_ApikitResponseTransformer_apikitRouterRequest";
     public static final String ACCEPT_HEADER = "_ApikitResponseTransformer_AcceptedHeaders";
+    public static final String REQUEST_TIMING = "_ApikitResponseTransformer_requestTiming";
+
+    private volatile LoadingCache<DataTypePair, Transformer> transformerCache;
+    private final ResponseTransformationStatistics statistics = new ResponseTransformationStatistics();
+    private boolean streaming;
 
     @Override
     public Object transformMessage(MuleMessage message, String encoding) throws TransformerException
@@ -53,7 +58,20 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
             }
             return message;
         }
-        return transformToExpectedContentType(message, responseRepresentation, responseMimeTypes, acceptedHeader);
+        RequestTiming timing = message.getInvocationProperty(REQUEST_TIMING);
+        if (timing == null)
+        {
+            return transformToExpectedContentType(message, responseRepresentation, responseMimeTypes, acceptedHeader);
+        }
+        long start = System.nanoTime();
+        try
+        {
+            return transformToExpectedContentType(message, responseRepresentation, responseMimeTypes, acceptedHeader);
+        }
+        finally
+        {
+            timing.responseTransformed(System.nanoTime() - start);
+        }
     }
 
     public Object transformToExpectedContentType(MuleMessage message, String responseRepresentation, List<String> responseMimeTypes,
@@ -75,6 +93,7 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
             {
                 throw new ApikitRuntimeException("Content-Type must be set in the flow when declaring */* response type");
             }
+            statistics.passedThrough();
             return payload;
         }
 
@@ -84,10 +103,11 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
             {
                 logger.debug("Response transformation not required. Message payload type is NullPayload");
             }
+            statistics.passedThrough();
             return payload;
         }
 
-        Collection<String> conjunctionTypes = getBestMatchMediaTypes(responseMimeTypes, acceptedHeader);
+        Collection<String> conjunctionTypes = NegotiationCache.negotiate(responseMimeTypes, acceptedHeader).getConjunctionTypes();
         String msgAcceptedContentType = acceptedContentType(msgMimeType, msgContentType, conjunctionTypes);
         if (msgAcceptedContentType != null)
         {
@@ -96,6 +116,7 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
             {
                 logger.debug("Response transformation not required. Message payload type is " + msgAcceptedContentType);
             }
+            statistics.passedThrough();
             return payload;
         }
         DataType sourceDataType = DataTypeFactory.create(message.getPayload().getClass(), msgMimeType);
@@ -109,13 +130,18 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
         Transformer transformer;
         try
         {
-            transformer = TransformerCache.getTransformerCache(muleContext).get(new DataTypePair(sourceDataType, resultDataType));
+            transformer = getTransformerCache().get(new DataTypePair(sourceDataType, resultDataType));
             if (logger.isDebugEnabled())
             {
                 logger.debug(String.format("Transformer resolved to [transformer=%s]", transformer));
             }
-            Object newPayload = transformer.transform(message.getPayload());
+            Object newPayload = streaming ? StreamingResponse.forTransformer(transformer, payload, getEncoding(message)) : null;
+            if (newPayload == null)
+            {
+                newPayload = transformer.transform(message.getPayload());
+            }
             message.setOutboundProperty("Content-Type", responseRepresentation);
+            statistics.transformed(responseRepresentation);
             return newPayload;
         }
         catch (Exception e)
@@ -125,43 +151,27 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
 
     }
 
-    private Collection<String> getBestMatchMediaTypes(List<String> responseMimeTypes, String acceptedHeader)
+    private String getEncoding(MuleMessage message)
     {
-        if(acceptedHeader.contains("*/*"))
-        {
-            return responseMimeTypes;
-        }
-        final Collection<String> acceptedTypes = transformAcceptedTypes(acceptedHeader);
-
-        return filterAccepted(responseMimeTypes, acceptedTypes);
+        return message.getEncoding() != null ? message.getEncoding() : "UTF-8";
     }
 
-    private Collection<String> filterAccepted(List<String> responseMimeTypes, final Collection<String> acceptedTypes)
+    /**
+     * When enabled, JSON and JAXB transformations are not performed in the flow: the payload
+     * is serialized while the response is sent, see {@link StreamingResponse}.
+     */
+    public void setStreaming(boolean streaming)
     {
-        return Collections2.filter(
-                responseMimeTypes, new Predicate<String>()
-                {
-                    @Override
-                    public boolean apply(String m)
-                    {
-                        return acceptedTypes.contains(m);
-                    }
-                }
-        );
+        this.streaming = streaming;
     }
 
-    private Collection<String> transformAcceptedTypes(String acceptedHeader)
+    /**
+     * Returns the pass through and transformation counters of the flow this transformer
+     * is injected in.
+     */
+    public ResponseTransformationStatistics getStatistics()
     {
-        List<MediaType> acceptedMediaTypes = RestContentTypeParser.parseMediaTypes(acceptedHeader);
-
-        return Collections2.transform(acceptedMediaTypes, new Function<MediaType, String>()
-        {
-            @Override
-            public String apply(MediaType mediaType)
-            {
-                return mediaType.type() + "/" + mediaType.subtype();
-            }
-        });
+        return statistics;
     }
 
     /**
@@ -188,4 +198,17 @@ public class ApikitResponseTransformer extends AbstractMessageTransformer
         return null;
     }
 
+    /**
+     * Looks the transformer cache up in the registry only once.
+     */
+    private LoadingCache<DataTypePair, Transformer> getTransformerCache() throws RegistrationException
+    {
+        LoadingCache<DataTypePair, Transformer> cache = transformerCache;
+        if (cache == null)
+        {
+            cache = TransformerCache.getTransformerCache(muleContext);
+            transformerCache = cache;
+        }
+        return cache;
+    }
 }
@@ -7,6 +7,7 @@
 package org.mule.module.apikit.transform;
 
 import org.mule.api.MuleMessage;
+import org.mule.api.registry.RegistrationException;
 import org.mule.api.transformer.DataType;
 import org.mule.api.transformer.Transformer;
 import org.mule.api.transformer.TransformerException;
@@ -14,9 +15,13 @@ import org.mule.config.i18n.MessageFactory;
 import org.mule.transformer.AbstractMessageTransformer;
 import org.mule.transformer.types.DataTypeFactory;
 
+import com.google.common.cache.LoadingCache;
+
 public class PayloadNormalizerTransformer extends AbstractMessageTransformer
 {
 
+    private volatile LoadingCache<DataTypePair, Transformer> transformerCache;
+
     @Override
     public Object transformMessage(MuleMessage message, String encoding) throws TransformerException
     {
@@ -26,7 +31,7 @@ public class PayloadNormalizerTransformer extends AbstractMessageTransformer
         Transformer transformer;
         try
         {
-            transformer = TransformerCache.getTransformerCache(muleContext).get(new DataTypePair(sourceDataType, resultDataType));
+            transformer = getTransformerCache().get(new DataTypePair(sourceDataType, resultDataType));
         }
         catch (Exception e)
         {
@@ -35,4 +40,18 @@ public class PayloadNormalizerTransformer extends AbstractMessageTransformer
 
         return transformer.transform(message.getPayload());
     }
+
+    /**
+     * Looks the transformer cache up in the registry only once.
+     */
+    private LoadingCache<DataTypePair, Transformer> getTransformerCache() throws RegistrationException
+    {
+        LoadingCache<DataTypePair, Transformer> cache = transformerCache;
+        if (cache == null)
+        {
+            cache = TransformerCache.getTransformerCache(muleContext);
+            transformerCache = cache;
+        }
+        return cache;
+    }
 }
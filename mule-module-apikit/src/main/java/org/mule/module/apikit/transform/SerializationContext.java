@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.transform;
+
+import org.mule.api.MuleContext;
+import org.mule.api.registry.RegistrationException;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.xml.bind.api.JAXBRIContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Serialization state shared by the transformers and validators of an application:
+ * the json mappers and the JAXB contexts, which are thread safe once configured and
+ * expensive to create.
+ * <p/>
+ * One context is registered per Mule context. It can be configured by registering a
+ * context under {@link #REGISTRY_KEY} before the APIkit configurations are initialised.
+ */
+public class SerializationContext
+{
+
+    public static final String REGISTRY_KEY = "__apikitSerializationContext";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter jsonWriter;
+    private final ConcurrentMap<JaxbContextKey, JAXBContext> jaxbContexts = new ConcurrentHashMap<>();
+
+    public SerializationContext()
+    {
+        this(new ObjectMapper(), new com.fasterxml.jackson.databind.ObjectMapper());
+    }
+
+    /**
+     * @param objectMapper mapper used by the json transformers
+     * @param jsonMapper mapper used to serialize request data for validation
+     */
+    public SerializationContext(ObjectMapper objectMapper, com.fasterxml.jackson.databind.ObjectMapper jsonMapper)
+    {
+        this.objectMapper = objectMapper;
+        this.jsonWriter = jsonMapper.writer();
+        warmUp();
+    }
+
+    /**
+     * Returns the context registered for the given Mule context, registering a default
+     * one if there is none.
+     */
+    public static SerializationContext getInstance(MuleContext muleContext) throws RegistrationException
+    {
+        synchronized (muleContext)
+        {
+            if (muleContext.getRegistry().get(REGISTRY_KEY) == null)
+            {
+                muleContext.getRegistry().registerObject(REGISTRY_KEY, new SerializationContext());
+            }
+        }
+        return muleContext.getRegistry().get(REGISTRY_KEY);
+    }
+
+    /*
+     * Serializers are created and cached by the mappers on first use.
+     */
+    private void warmUp()
+    {
+        Map<String, String> sample = Collections.singletonMap("key", "value");
+        try
+        {
+            objectMapper.writeValueAsString(sample);
+            jsonWriter.writeValueAsString(sample);
+        }
+        catch (IOException e)
+        {
+            // serialized again on first use
+        }
+    }
+
+    public ObjectMapper getObjectMapper()
+    {
+        return objectMapper;
+    }
+
+    public ObjectWriter getJsonWriter()
+    {
+        return jsonWriter;
+    }
+
+    /**
+     * Returns the JAXB context for the given classes, created only once per class set.
+     */
+    public JAXBContext getJaxbContext(Class<?>... classes) throws JAXBException
+    {
+        return getJaxbContext(false, classes);
+    }
+
+    /**
+     * Returns the JAXB context used to marshal the given classes, which ignores the stack
+     * trace of exceptions, created only once per class set.
+     */
+    public JAXBContext getMarshallingContext(Class<?>... classes) throws JAXBException
+    {
+        return getJaxbContext(true, classes);
+    }
+
+    private JAXBContext getJaxbContext(boolean marshalling, Class<?>... classes) throws JAXBException
+    {
+        JaxbContextKey key = new JaxbContextKey(marshalling, classes);
+        JAXBContext context = jaxbContexts.get(key);
+        if (context == null)
+        {
+            context = marshalling ? JAXBContext.newInstance(classes, marshallingProperties()) : JAXBContext.newInstance(classes);
+            JAXBContext previous = jaxbContexts.putIfAbsent(key, context);
+            if (previous != null)
+            {
+                context = previous;
+            }
+        }
+        return context;
+    }
+
+    private static Map<String, Object> marshallingProperties() throws JAXBException
+    {
+        try
+        {
+            TransientAnnotationReader reader = new TransientAnnotationReader();
+            reader.addTransientField(Throwable.class.getDeclaredField("stackTrace"));
+            reader.addTransientMethod(Throwable.class.getDeclaredMethod("getStackTrace"));
+
+            Map<String, Object> jaxbConfig = new HashMap<String, Object>();
+            jaxbConfig.put(JAXBRIContext.ANNOTATION_READER, reader);
+            return jaxbConfig;
+        }
+        catch (NoSuchFieldException | NoSuchMethodException e)
+        {
+            throw new JAXBException(e);
+        }
+    }
+
+    private static class JaxbContextKey
+    {
+
+        private final boolean marshalling;
+        private final Set<Class<?>> classes;
+
+        JaxbContextKey(boolean marshalling, Class<?>... classes)
+        {
+            this.marshalling = marshalling;
+            this.classes = new HashSet<>(Arrays.asList(classes));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof JaxbContextKey))
+            {
+                return false;
+            }
+            JaxbContextKey key = (JaxbContextKey) o;
+            return marshalling == key.marshalling && classes.equals(key.classes);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * classes.hashCode() + (marshalling ? 1 : 0);
+        }
+    }
+}
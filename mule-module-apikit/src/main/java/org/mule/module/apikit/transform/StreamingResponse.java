@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.transform;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.transformer.Transformer;
+import org.mule.api.transport.OutputHandler;
+import org.mule.module.json.transformers.ObjectToJson;
+import org.mule.module.xml.transformer.jaxb.JAXBMarshallerTransformer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Response payload that is serialized to JSON or XML while the response is sent instead
+ * of being transformed into a String first.
+ * <p/>
+ * The payload is written with the mapper or JAXB context of the transformer it replaces,
+ * so the output is the same. Serialization errors happen once the response status has
+ * been sent, they end the response abruptly and are not handled by the exception strategy.
+ */
+public abstract class StreamingResponse implements OutputHandler
+{
+
+    protected final Object payload;
+    protected final String encoding;
+
+    private StreamingResponse(Object payload, String encoding)
+    {
+        this.payload = payload;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Returns a streaming response that serializes the payload the way the given transformer
+     * would, or null if the transformer or the payload cannot be streamed.
+     */
+    public static StreamingResponse forTransformer(Transformer transformer, Object payload, String encoding)
+    {
+        if (payload instanceof String || payload instanceof byte[] || payload instanceof InputStream
+            || payload instanceof OutputHandler)
+        {
+            return null;
+        }
+        if (transformer instanceof ObjectToJson)
+        {
+            return new JsonResponse(((ObjectToJson) transformer).getMapper(), payload, encoding);
+        }
+        if (transformer instanceof JAXBMarshallerTransformer)
+        {
+            return new XmlResponse(((JAXBMarshallerTransformer) transformer).getJaxbContext(), payload, encoding);
+        }
+        return null;
+    }
+
+    public Object getPayload()
+    {
+        return payload;
+    }
+
+    private static class JsonResponse extends StreamingResponse
+    {
+
+        private final ObjectMapper mapper;
+
+        JsonResponse(ObjectMapper mapper, Object payload, String encoding)
+        {
+            super(payload, encoding);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void write(MuleEvent event, OutputStream out) throws IOException
+        {
+            JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(new OutputStreamWriter(out, encoding));
+            // the response stream is closed by the transport
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeValue(generator, payload);
+            generator.flush();
+        }
+    }
+
+    private static class XmlResponse extends StreamingResponse
+    {
+
+        private final JAXBContext jaxbContext;
+
+        XmlResponse(JAXBContext jaxbContext, Object payload, String encoding)
+        {
+            super(payload, encoding);
+            this.jaxbContext = jaxbContext;
+        }
+
+        @Override
+        public void write(MuleEvent event, OutputStream out) throws IOException
+        {
+            try
+            {
+                Marshaller marshaller = jaxbContext.createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_ENCODING, encoding);
+                marshaller.marshal(payload, out);
+                out.flush();
+            }
+            catch (JAXBException e)
+            {
+                throw new IOException("Unable to marshal response payload", e);
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ package org.mule.module.apikit.transform;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleException;
+import org.mule.api.registry.RegistrationException;
 import org.mule.api.transformer.DataType;
 import org.mule.api.transformer.Transformer;
 import org.mule.module.json.transformers.JsonToObject;
@@ -19,28 +20,32 @@ import org.mule.transformer.simple.ObjectToString;
 import org.mule.transformer.types.MimeTypes;
 
 import com.google.common.cache.CacheLoader;
-import com.sun.xml.bind.api.JAXBRIContext;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 
 import org.apache.log4j.Logger;
-import org.codehaus.jackson.map.ObjectMapper;
 
 public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transformer>
 {
 
     private static final Logger LOGGER = Logger.getLogger(TransformerCacheLoader.class);
     private final MuleContext muleContext;
+    private volatile SerializationContext serializationContext;
 
     public TransformerCacheLoader(MuleContext muleContext)
     {
         this.muleContext = muleContext;
     }
 
+    private SerializationContext getSerializationContext() throws RegistrationException
+    {
+        if (serializationContext == null)
+        {
+            serializationContext = SerializationContext.getInstance(muleContext);
+        }
+        return serializationContext;
+    }
+
     @Override
     public Transformer load(DataTypePair dataTypePair) throws Exception
     {
@@ -56,7 +61,7 @@ public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transforme
         {
             JsonToObject jto = new JsonToObject();
             jto.setReturnDataType(resultDataType);
-            jto.setMapper(new ObjectMapper());
+            jto.setMapper(getSerializationContext().getObjectMapper());
             muleContext.getRegistry().applyProcessorsAndLifecycle(jto);
             return jto;
         }
@@ -65,7 +70,7 @@ public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transforme
             ObjectToJson otj = new ObjectToJson();
             otj.setSourceClass(sourceDataType.getType());
             otj.setReturnDataType(resultDataType);
-            otj.setMapper(new ObjectMapper());
+            otj.setMapper(getSerializationContext().getObjectMapper());
             muleContext.getRegistry().applyProcessorsAndLifecycle(otj);
             return otj;
         }
@@ -74,7 +79,7 @@ public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transforme
             try
             {
                 JAXBUnmarshallerTransformer jmt = new JAXBUnmarshallerTransformer(
-                    JAXBContext.newInstance(resultDataType.getType()), resultDataType);
+                    getSerializationContext().getJaxbContext(resultDataType.getType()), resultDataType);
                 muleContext.getRegistry().applyProcessorsAndLifecycle(jmt);
                 return jmt;
             }
@@ -94,16 +99,8 @@ public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transforme
             }
             try
             {
-                TransientAnnotationReader reader = new TransientAnnotationReader();
-                reader.addTransientField(Throwable.class.getDeclaredField("stackTrace"));
-                reader.addTransientMethod(Throwable.class.getDeclaredMethod("getStackTrace"));
-
-                Map<String, Object> jaxbConfig = new HashMap<String, Object>();
-                jaxbConfig.put(JAXBRIContext.ANNOTATION_READER, reader);
-
-                JAXBContext jaxbContext = JAXBContext.newInstance(new Class[]{sourceDataType.getType()},
-                    jaxbConfig);
-                JAXBMarshallerTransformer jut = new JAXBMarshallerTransformer(jaxbContext, resultDataType);
+                JAXBMarshallerTransformer jut = new JAXBMarshallerTransformer(
+                    getSerializationContext().getMarshallingContext(sourceDataType.getType()), resultDataType);
                 jut.setSourceClass(sourceDataType.getType());
                 muleContext.getRegistry().applyProcessorsAndLifecycle(jut);
                 return jut;
@@ -112,15 +109,6 @@ public class TransformerCacheLoader extends CacheLoader<DataTypePair, Transforme
             {
                 LOGGER.error("Unable to create JAXB marshaller for " + resultDataType, e);
             }
-            catch (NoSuchMethodException e)
-            {
-                LOGGER.error("Unable to create JAXB marshaller for " + resultDataType, e);
-            }
-            catch (NoSuchFieldException e)
-            {
-                LOGGER.error("Unable to create JAXB marshaller for " + resultDataType, e);
-            }
-
         }
 
         return muleContext.getRegistry().lookupTransformer(sourceDataType, resultDataType);
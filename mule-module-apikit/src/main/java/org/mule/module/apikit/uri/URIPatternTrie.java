@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.apikit.uri;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A segment trie built from a set of URI patterns that finds the best matching pattern for a URI
+ * and resolves its variables in a single pass.
+ * <p/>
+ * Each pattern is split on '/' and every segment becomes an edge of the trie:
+ * <ul>
+ * <li>literal segments are looked up by equality,</li>
+ * <li>segments made of a single variable match any non empty valid variable value,</li>
+ * <li>mixed segments (e.g. <code>{name}.json</code>) are matched using the segment pattern.</li>
+ * </ul>
+ * When several patterns match, the one with the highest score wins, which is the same rule
+ * used by {@link URIResolver.MatchRule#BEST_MATCH}.
+ * <p/>
+ * Instances are immutable once built and can be shared between threads.
+ */
+public class URIPatternTrie
+{
+
+    private final Node root = new Node();
+
+    private int maxDepth;
+
+    /**
+     * Builds a trie for the specified patterns.
+     *
+     * @param patterns The URI patterns to compile.
+     * @throws IllegalArgumentException If a pattern contains tokens that cannot be matched per segment.
+     */
+    public URIPatternTrie(Collection<URIPattern> patterns) throws IllegalArgumentException
+    {
+        for (URIPattern pattern : patterns)
+        {
+            add(pattern);
+        }
+    }
+
+    private void add(URIPattern pattern)
+    {
+        String template = pattern.toString();
+        if (!template.startsWith("/"))
+        {
+            throw new IllegalArgumentException("Cannot compile a URI pattern not starting with '/': " + template);
+        }
+        String[] segments = template.substring(1).split("/", -1);
+        maxDepth = Math.max(maxDepth, segments.length);
+        Node node = root;
+        for (String segment : segments)
+        {
+            node = node.child(segment);
+        }
+        if (node.pattern == null || pattern.score() > node.pattern.score())
+        {
+            node.pattern = pattern;
+        }
+    }
+
+    /**
+     * Returns the best URI pattern that matches the specified decoded path, together with its
+     * resolved variables.
+     *
+     * @param path The decoded request path, starting with '/'.
+     * @return The resolve result or <code>null</code> if no pattern matches.
+     */
+    public URIResolveResult resolve(String path)
+    {
+        String uri = URICoder.encode(path, '/');
+        if (uri.isEmpty() || uri.charAt(0) != '/')
+        {
+            return null;
+        }
+        Search search = new Search(uri, maxDepth);
+        search.walk(root, 1, 0);
+        return search.result();
+    }
+
+    /**
+     * Indicates whether the specified encoded segment is a valid value for a variable token,
+     * equivalent to matching it against {@link Variable#VALID_VALUE}.
+     */
+    private static boolean isValidValue(String uri, int start, int end)
+    {
+        if (start == end)
+        {
+            return false;
+        }
+        for (int i = start; i < end; i++)
+        {
+            char c = uri.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                            || c == '_' || c == '.' || c == '~' || c == '%' || c == '-';
+            if (!valid)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // trie nodes ---------------------------------------------------------------
+
+    private static class Node
+    {
+
+        private Map<String, Node> literals;
+        private List<VariableEdge> variables;
+        private List<MixedEdge> mixed;
+        private URIPattern pattern;
+
+        Node child(String segment)
+        {
+            List<Token> tokens = URITemplate.digest(segment);
+            if (tokens.isEmpty() || (tokens.size() == 1 && tokens.get(0) instanceof TokenLiteral))
+            {
+                if (literals == null)
+                {
+                    literals = new HashMap<String, Node>();
+                }
+                Node child = literals.get(segment);
+                if (child == null)
+                {
+                    child = new Node();
+                    literals.put(segment, child);
+                }
+                return child;
+            }
+            if (tokens.size() == 1 && tokens.get(0) instanceof TokenVariable)
+            {
+                TokenVariable token = (TokenVariable) tokens.get(0);
+                if (variables == null)
+                {
+                    variables = new ArrayList<VariableEdge>();
+                }
+                for (VariableEdge edge : variables)
+                {
+                    if (edge.token.getVariable().name().equals(token.getVariable().name()))
+                    {
+                        return edge.child;
+                    }
+                }
+                VariableEdge edge = new VariableEdge(token);
+                variables.add(edge);
+                return edge.child;
+            }
+            for (Token token : tokens)
+            {
+                if (!(token instanceof TokenLiteral) && !(token instanceof TokenVariable))
+                {
+                    throw new IllegalArgumentException("Unsupported token in URI segment: " + segment);
+                }
+            }
+            if (mixed == null)
+            {
+                mixed = new ArrayList<MixedEdge>();
+            }
+            for (MixedEdge edge : mixed)
+            {
+                if (edge.pattern.toString().equals(segment))
+                {
+                    return edge.child;
+                }
+            }
+            MixedEdge edge = new MixedEdge(new URIPattern(segment, false));
+            mixed.add(edge);
+            return edge.child;
+        }
+    }
+
+    private static class VariableEdge
+    {
+
+        private final TokenVariable token;
+        private final Node child = new Node();
+
+        VariableEdge(TokenVariable token)
+        {
+            this.token = token;
+        }
+    }
+
+    private static class MixedEdge
+    {
+
+        private final URIPattern pattern;
+        private final Node child = new Node();
+
+        MixedEdge(URIPattern pattern)
+        {
+            this.pattern = pattern;
+        }
+    }
+
+    // search state -------------------------------------------------------------
+
+    /**
+     * Depth first search over the trie keeping track of the segments bound to variable edges.
+     */
+    private static class Search
+    {
+
+        private final String uri;
+        private final Object[] edges;
+        private final int[] starts;
+        private final int[] ends;
+
+        private URIPattern best;
+        private int bestDepth;
+        private Object[] bestEdges;
+        private int[] bestStarts;
+        private int[] bestEnds;
+
+        Search(String uri, int maxDepth)
+        {
+            this.uri = uri;
+            this.edges = new Object[maxDepth];
+            this.starts = new int[maxDepth];
+            this.ends = new int[maxDepth];
+        }
+
+        void walk(Node node, int start, int depth)
+        {
+            if (depth == edges.length)
+            {
+                return;
+            }
+            int end = uri.indexOf('/', start);
+            boolean last = end < 0;
+            if (last)
+            {
+                end = uri.length();
+            }
+
+            if (node.literals != null)
+            {
+                Node child = node.literals.get(uri.substring(start, end));
+                if (child != null)
+                {
+                    edges[depth] = null;
+                    visit(child, last, end, depth);
+                }
+            }
+            if (node.mixed != null)
+            {
+                for (MixedEdge edge : node.mixed)
+                {
+                    if (edge.pattern.match(uri.substring(start, end)))
+                    {
+                        bind(edge, start, end, depth);
+                        visit(edge.child, last, end, depth);
+                    }
+                }
+            }
+            if (node.variables != null && isValidValue(uri, start, end))
+            {
+                for (VariableEdge edge : node.variables)
+                {
+                    bind(edge, start, end, depth);
+                    visit(edge.child, last, end, depth);
+                }
+            }
+        }
+
+        private void bind(Object edge, int start, int end, int depth)
+        {
+            edges[depth] = edge;
+            starts[depth] = start;
+            ends[depth] = end;
+        }
+
+        private void visit(Node child, boolean last, int end, int depth)
+        {
+            if (last)
+            {
+                if (child.pattern != null && (best == null || child.pattern.score() > best.score()))
+                {
+                    best = child.pattern;
+                    bestDepth = depth;
+                    bestEdges = edges.clone();
+                    bestStarts = starts.clone();
+                    bestEnds = ends.clone();
+                }
+            }
+            else
+            {
+                walk(child, end + 1, depth + 1);
+            }
+        }
+
+        URIResolveResult result()
+        {
+            if (best == null)
+            {
+                return null;
+            }
+            URIResolveResult result = new URIResolveResult(best);
+            Map<Variable, Object> values = new HashMap<Variable, Object>();
+            for (int i = 0; i <= bestDepth; i++)
+            {
+                Object edge = bestEdges[i];
+                if (edge instanceof VariableEdge)
+                {
+                    ((VariableEdge) edge).token.resolve(uri.substring(bestStarts[i], bestEnds[i]), values);
+                }
+                else if (edge instanceof MixedEdge)
+                {
+                    URIPattern pattern = ((MixedEdge) edge).pattern;
+                    URIResolveResult partial = new URIResolver(uri.substring(bestStarts[i], bestEnds[i]), false).resolve(pattern);
+                    for (String name : partial.names())
+                    {
+                        result.put(name, partial.get(name));
+                    }
+                }
+            }
+            for (Map.Entry<Variable, Object> entry : values.entrySet())
+            {
+                result.put(entry.getKey().name(), entry.getValue());
+            }
+            result.setStatus(URIResolveResult.Status.RESOLVED);
+            return result;
+        }
+    }
+
+}
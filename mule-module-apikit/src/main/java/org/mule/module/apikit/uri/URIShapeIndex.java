@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.apikit.uri;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Computes the shape of a URI with respect to a set of URI patterns.
+ * <p/>
+ * The shape keeps the number of segments and every segment that is a literal of some pattern at
+ * the same position, while any other segment is replaced by a placeholder that also records
+ * whether the segment is a valid variable value. Segments at positions
+ * where a pattern declares a mixed segment (e.g. <code>{name}.json</code>) also record which of
+ * those segment patterns they match.
+ * <p/>
+ * Two URIs with the same shape are matched by exactly the same patterns, so the shape can be used
+ * as a cache key for the best matching pattern regardless of the variable values in the URI.
+ */
+public class URIShapeIndex
+{
+
+    private static final String PLACEHOLDER = "{*}";
+
+    private final List<Set<String>> literals = new ArrayList<Set<String>>();
+    private final List<List<URIPattern>> mixed = new ArrayList<List<URIPattern>>();
+
+    /**
+     * Builds the index for the specified patterns.
+     *
+     * @param patterns The URI patterns used for routing.
+     */
+    public URIShapeIndex(Collection<URIPattern> patterns)
+    {
+        for (URIPattern pattern : patterns)
+        {
+            String template = pattern.toString();
+            String[] segments = (template.startsWith("/") ? template.substring(1) : template).split("/", -1);
+            for (int depth = 0; depth < segments.length; depth++)
+            {
+                add(depth, segments[depth]);
+            }
+        }
+    }
+
+    private void add(int depth, String segment)
+    {
+        while (literals.size() <= depth)
+        {
+            literals.add(new HashSet<String>());
+            mixed.add(new ArrayList<URIPattern>());
+        }
+        if (segment.indexOf('{') < 0)
+        {
+            literals.get(depth).add(segment);
+        }
+        else if (!(segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1))
+        {
+            URIPattern segmentPattern = new URIPattern(segment, false);
+            if (!mixed.get(depth).contains(segmentPattern))
+            {
+                mixed.get(depth).add(segmentPattern);
+            }
+        }
+    }
+
+    /**
+     * Returns the shape of the specified encoded URI.
+     *
+     * @param uri The encoded URI, as returned by {@link URIResolver#uri()}.
+     * @return The shape of the URI.
+     */
+    public String shapeOf(String uri)
+    {
+        StringBuilder shape = new StringBuilder(uri.length());
+        int start = uri.startsWith("/") ? 1 : 0;
+        int depth = 0;
+        while (true)
+        {
+            int end = uri.indexOf('/', start);
+            if (end < 0)
+            {
+                end = uri.length();
+            }
+            shape.append('/');
+            appendSegment(shape, uri.substring(start, end), depth);
+            if (end == uri.length())
+            {
+                return shape.toString();
+            }
+            start = end + 1;
+            depth++;
+        }
+    }
+
+    private void appendSegment(StringBuilder shape, String segment, int depth)
+    {
+        if (depth >= literals.size())
+        {
+            // deeper than any pattern, only the segment count matters
+            shape.append(PLACEHOLDER);
+            return;
+        }
+        if (segment.isEmpty() || literals.get(depth).contains(segment))
+        {
+            shape.append(segment);
+            return;
+        }
+        shape.append(PLACEHOLDER);
+        if (!Variable.VALID_VALUE.matcher(segment).matches())
+        {
+            // cannot be bound to a variable segment
+            shape.append('!');
+        }
+        List<URIPattern> segmentPatterns = mixed.get(depth);
+        for (int i = 0; i < segmentPatterns.size(); i++)
+        {
+            if (segmentPatterns.get(i).match(segment))
+            {
+                shape.append(i).append(',');
+            }
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.transport.PropertyScope;
+import org.mule.module.apikit.exception.InvalidHeaderException;
+import org.mule.raml.interfaces.model.parameter.IParameter;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Header validation compiled from the headers declared by a RAML action.
+ * <p/>
+ * Wildcard header names (e.g. <code>X-Custom-{?}</code>) are compiled to patterns once,
+ * and the required and default value flags are kept in bitsets, so validating a request
+ * only walks the declared headers and the incoming headers.
+ */
+public class HeaderValidationPlan
+{
+
+    private static final String WILDCARD = "{?}";
+
+    private final String[] names;
+    private final IParameter[] parameters;
+    private final Pattern[] wildcards;
+    private final BitSet required = new BitSet();
+    private final BitSet defaults = new BitSet();
+
+    public HeaderValidationPlan(Map<String, IParameter> headers)
+    {
+        int size = headers.size();
+        names = new String[size];
+        parameters = new IParameter[size];
+        wildcards = new Pattern[size];
+        int i = 0;
+        for (Map.Entry<String, IParameter> entry : headers.entrySet())
+        {
+            String name = entry.getKey();
+            IParameter parameter = entry.getValue();
+            names[i] = name;
+            parameters[i] = parameter;
+            if (name.contains(WILDCARD))
+            {
+                wildcards[i] = Pattern.compile(name.replace(WILDCARD, ".*"));
+            }
+            else
+            {
+                required.set(i, parameter.isRequired());
+                defaults.set(i, parameter.getDefaultValue() != null);
+            }
+            i++;
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return names.length == 0;
+    }
+
+    /**
+     * Validates the incoming headers, setting the default value of every missing
+     * header that declares one.
+     *
+     * @param incomingHeaders case insensitive view of the request headers, updated with defaults
+     * @param message the request message, updated with defaults
+     * @throws InvalidHeaderException if a required header is missing or a value is not valid
+     */
+    public void validate(Map<String, String> incomingHeaders, MuleMessage message) throws InvalidHeaderException
+    {
+        for (int i = 0; i < names.length; i++)
+        {
+            if (wildcards[i] != null)
+            {
+                validateWildcard(i, incomingHeaders);
+                continue;
+            }
+            String actual = incomingHeaders.get(names[i]);
+            if (actual == null)
+            {
+                if (required.get(i))
+                {
+                    throw new InvalidHeaderException("Required header " + names[i] + " not specified");
+                }
+                if (defaults.get(i))
+                {
+                    String defaultValue = parameters[i].getDefaultValue();
+                    setHeader(message, names[i], defaultValue);
+                    incomingHeaders.put(names[i], defaultValue);
+                }
+            }
+            else if (!parameters[i].validate(actual))
+            {
+                throw invalidValue(i, actual);
+            }
+        }
+    }
+
+    /**
+     * Checks only that every required header is present, without validating values.
+     *
+     * @param incomingHeaders case insensitive view of the request headers
+     * @throws InvalidHeaderException if a required header is missing
+     */
+    public void validateRequired(Map<String, String> incomingHeaders) throws InvalidHeaderException
+    {
+        for (int i = required.nextSetBit(0); i >= 0; i = required.nextSetBit(i + 1))
+        {
+            if (incomingHeaders.get(names[i]) == null)
+            {
+                throw new InvalidHeaderException("Required header " + names[i] + " not specified");
+            }
+        }
+    }
+
+    private void validateWildcard(int i, Map<String, String> incomingHeaders) throws InvalidHeaderException
+    {
+        for (Map.Entry<String, String> incoming : incomingHeaders.entrySet())
+        {
+            if (wildcards[i].matcher(incoming.getKey()).matches() && !parameters[i].validate(incoming.getValue()))
+            {
+                throw invalidValue(i, incoming.getValue());
+            }
+        }
+    }
+
+    private InvalidHeaderException invalidValue(int i, String value)
+    {
+        String msg = String.format("Invalid value '%s' for header %s. %s",
+                                   value, names[i], parameters[i].message(value));
+        return new InvalidHeaderException(msg);
+    }
+
+    private static void setHeader(MuleMessage message, String key, String value)
+    {
+        message.setProperty(key, value, PropertyScope.INBOUND);
+        if (message.getInboundProperty("http.headers") != null)
+        {
+            //TODO MULE-8131
+            message.<Map<String, String>>getInboundProperty("http.headers").put(key, value);
+        }
+    }
+}
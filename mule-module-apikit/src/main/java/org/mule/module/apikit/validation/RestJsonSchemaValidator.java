@@ -6,6 +6,7 @@
  */
 package org.mule.module.apikit.validation;
 
+import static org.mule.module.apikit.CharsetUtils.getBomSize;
 import static org.mule.module.apikit.CharsetUtils.getEncoding;
 
 import com.github.fge.jsonschema.core.report.LogLevel;
@@ -17,6 +18,8 @@ import org.mule.api.transformer.DataType;
 import org.mule.module.apikit.exception.BadRequestException;
 import org.mule.module.apikit.validation.cache.JsonSchemaCache;
 import org.mule.module.apikit.validation.io.JsonUtils;
+import org.mule.module.apikit.validation.io.ReplayBuffer;
+import org.mule.module.apikit.validation.io.SizeLimitedInputStream.BodySizeExceededException;
 import org.mule.raml.interfaces.model.IRaml;
 import org.mule.transformer.types.DataTypeFactory;
 import org.mule.util.IOUtils;
@@ -25,13 +28,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
+import com.google.common.cache.LoadingCache;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.concurrent.ExecutionException;
 
@@ -47,11 +53,38 @@ public class RestJsonSchemaValidator extends AbstractRestSchemaValidator
 {
     private static final String JSON_SCHEMA_FAIL_ON_WARNING_KEY = "raml.json_schema.fail_on_warning";
 
+    private static final int ENCODING_DETECTION_SIZE = 8192;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final LoadingCache<String, JsonSchema> schemaCache;
+    private final boolean streaming;
+    private final int maxBufferSize;
+
     public RestJsonSchemaValidator(MuleContext muleContext)
+    {
+        this(muleContext, false, 0);
+    }
+
+    public RestJsonSchemaValidator(MuleContext muleContext, boolean streaming, int maxBufferSize)
+    {
+        this(muleContext, null, streaming, maxBufferSize);
+    }
+
+    /**
+     * @param schemaCache schema cache of the configuration, if null the cache is looked up
+     *                    in the registry
+     * @param streaming whether stream payloads are parsed while they are read instead of being
+     *                  copied into memory first
+     * @param maxBufferSize maximum number of bytes of a stream payload retained in memory for
+     *                      replay when streaming, larger payloads are retained in a temporary file
+     */
+    public RestJsonSchemaValidator(MuleContext muleContext, LoadingCache<String, JsonSchema> schemaCache, boolean streaming, int maxBufferSize)
     {
         super(muleContext);
+        this.schemaCache = schemaCache;
+        this.streaming = streaming;
+        this.maxBufferSize = maxBufferSize;
     }
 
     @Override
@@ -61,7 +94,11 @@ public class RestJsonSchemaValidator extends AbstractRestSchemaValidator
         {
             JsonNode data;
             Object input = muleEvent.getMessage().getPayload();
-            if (input instanceof InputStream)
+            if (input instanceof InputStream && streaming)
+            {
+                data = parseStream(muleEvent, (InputStream) input);
+            }
+            else if (input instanceof InputStream)
             {
                 logger.debug("transforming payload to perform JSON Schema validation");
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -103,7 +140,8 @@ public class RestJsonSchemaValidator extends AbstractRestSchemaValidator
                 throw new BadRequestException("Don't know how to parse " + input.getClass().getName());
             }
 
-            JsonSchema schema = JsonSchemaCache.getJsonSchemaCache(muleContext, configId, api).get(schemaPath);
+            LoadingCache<String, JsonSchema> cache = schemaCache != null ? schemaCache : JsonSchemaCache.getJsonSchemaCache(muleContext, configId, api);
+            JsonSchema schema = cache.get(schemaPath);
             ProcessingReport report = schema.validate(data, true);
             Iterator<ProcessingMessage> iterator = report.iterator();
 
@@ -139,6 +177,10 @@ public class RestJsonSchemaValidator extends AbstractRestSchemaValidator
         {
             throw new BadRequestException(e);
         }
+        catch (BodySizeExceededException e)
+        {
+            throw e.getRestException();
+        }
         catch (IOException e)
         {
             throw new BadRequestException(e);
@@ -148,4 +190,49 @@ public class RestJsonSchemaValidator extends AbstractRestSchemaValidator
             throw new BadRequestException(e);
         }
     }
+
+    /**
+     * Parses the payload while it is read, detecting the encoding and skipping the BOM from
+     * the first bytes, and replaces the message payload with the retained copy.
+     */
+    private JsonNode parseStream(MuleEvent muleEvent, InputStream input) throws IOException
+    {
+        logger.debug("parsing payload stream to perform JSON Schema validation");
+        ReplayBuffer replayBuffer = new ReplayBuffer(input, maxBufferSize);
+        JsonNode data;
+        String encoding;
+        try
+        {
+            BufferedInputStream stream = new BufferedInputStream(replayBuffer, ENCODING_DETECTION_SIZE);
+            stream.mark(ENCODING_DETECTION_SIZE);
+            byte[] head = new byte[ENCODING_DETECTION_SIZE];
+            int length = 0;
+            int read;
+            while (length < head.length && (read = stream.read(head, length, head.length - length)) != -1)
+            {
+                length += read;
+            }
+            stream.reset();
+            encoding = getEncoding(muleEvent.getMessage(), Arrays.copyOf(head, length), logger);
+            stream.skip(getBomSize(head, length));
+
+            data = JsonUtils.parseJson(new InputStreamReader(stream, encoding));
+            replayBuffer.drain();
+        }
+        catch (IOException e)
+        {
+            replayBuffer.discard();
+            throw e;
+        }
+
+        DataType<InputStream> dataType = DataTypeFactory.create(InputStream.class, muleEvent.getMessage().getDataType().getMimeType());
+        dataType.setEncoding(encoding);
+        muleEvent.getMessage().setPayload(replayBuffer.replay(), dataType);
+        if (replayBuffer.isFileBacked())
+        {
+            // the router deletes the file when the event completes
+            muleEvent.getMessage().setInvocationProperty(ReplayBuffer.REPLAY_BUFFER, replayBuffer);
+        }
+        return data;
+    }
 }
@@ -7,6 +7,8 @@
 package org.mule.module.apikit.validation;
 
 import org.mule.api.MuleContext;
+import org.mule.module.apikit.AbstractConfiguration;
+import org.mule.module.apikit.ApiSnapshot;
 
 public final class RestSchemaValidatorFactory
 {
@@ -28,10 +30,21 @@ public final class RestSchemaValidatorFactory
     }
 
     public RestSchemaValidator createValidator(SchemaType schemaType, MuleContext muleContext)
+    {
+        return createValidator(schemaType, muleContext, false, 0);
+    }
+
+    /**
+     * Creates a validator for the given schema type.
+     *
+     * @param streaming whether json stream payloads are validated while they are read
+     * @param maxBufferSize maximum number of bytes of a streamed payload retained in memory
+     */
+    public RestSchemaValidator createValidator(SchemaType schemaType, MuleContext muleContext, boolean streaming, int maxBufferSize)
     {
         if (schemaType == SchemaType.JSONSchema)
         {
-            return new RestJsonSchemaValidator(muleContext);
+            return new RestJsonSchemaValidator(muleContext, streaming, maxBufferSize);
         }
         else if (schemaType == SchemaType.XMLSchema)
         {
@@ -40,4 +53,22 @@ public final class RestSchemaValidatorFactory
 
         throw new IllegalArgumentException("Invalid schema type: " + schemaType);
     }
+
+    /**
+     * Creates a validator for the given schema type that resolves schemas from the
+     * caches of the api snapshot the request was routed with instead of the registry.
+     */
+    public RestSchemaValidator createValidator(SchemaType schemaType, MuleContext muleContext, AbstractConfiguration config, ApiSnapshot snapshot)
+    {
+        if (schemaType == SchemaType.JSONSchema)
+        {
+            return new RestJsonSchemaValidator(muleContext, snapshot.getJsonSchemaCache(), config.isStreamingValidation(), config.getMaxBufferSize());
+        }
+        else if (schemaType == SchemaType.XMLSchema)
+        {
+            return new RestXmlSchemaValidator(muleContext, snapshot.getXmlSchemaCache());
+        }
+
+        throw new IllegalArgumentException("Invalid schema type: " + schemaType);
+    }
 }
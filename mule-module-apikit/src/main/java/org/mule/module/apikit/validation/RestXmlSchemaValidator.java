@@ -7,37 +7,33 @@
 package org.mule.module.apikit.validation;
 
 import static org.mule.module.apikit.CharsetUtils.getHeaderCharset;
-import static org.mule.module.apikit.CharsetUtils.getXmlEncoding;
 
 import org.mule.api.MuleContext;
 import org.mule.api.MuleEvent;
 import org.mule.api.transformer.DataType;
+import org.mule.module.apikit.CharsetUtils;
 import org.mule.module.apikit.exception.BadRequestException;
+import org.mule.module.apikit.validation.cache.CompiledXmlSchema;
 import org.mule.module.apikit.validation.cache.XmlSchemaCache;
+import org.mule.module.apikit.validation.io.SizeLimitedInputStream.BodySizeExceededException;
 import org.mule.raml.interfaces.model.IRaml;
 import org.mule.transformer.types.DataTypeFactory;
 import org.mule.util.IOUtils;
 
+import com.google.common.cache.LoadingCache;
+
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.io.StringReader;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.validation.Schema;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.validation.Validator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
 {
@@ -50,9 +46,23 @@ public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
             Boolean.parseBoolean(System.getProperty(EXPAND_ENTITIES_PROPERTY, "false"));
     protected static final Logger logger = LoggerFactory.getLogger(RestXmlSchemaValidator.class);
 
+    private static final XmlValidationPool pool = new XmlValidationPool(externalEntities, expandEntities);
+
+    private final LoadingCache<String, CompiledXmlSchema> schemaCache;
+
     public RestXmlSchemaValidator(MuleContext muleContext)
+    {
+        this(muleContext, null);
+    }
+
+    /**
+     * @param schemaCache schema cache of the configuration, if null the cache is looked up
+     *                    in the registry
+     */
+    public RestXmlSchemaValidator(MuleContext muleContext, LoadingCache<String, CompiledXmlSchema> schemaCache)
     {
         super(muleContext);
+        this.schemaCache = schemaCache;
     }
 
     @Override
@@ -60,39 +70,38 @@ public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
     {
         try
         {
-
-            Document data;
+            InputSource data;
             Object input = muleEvent.getMessage().getPayload();
             String charset = getHeaderCharset(muleEvent.getMessage(), logger);
             if (input instanceof InputStream)
             {
                 logger.debug("Transforming payload to perform XSD validation");
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                byte[] bytes;
                 try
                 {
-                    IOUtils.copyLarge((InputStream) input, baos);
+                    bytes = IOUtils.toByteArray((InputStream) input);
                 }
                 finally
                 {
                     IOUtils.closeQuietly((InputStream) input);
                 }
-                data = loadDocument(new ByteArrayInputStream(baos.toByteArray()), charset);
+                data = getInputSource(bytes, charset);
 
                 // update payload and set encoding
-                String encoding = charset != null ? charset : getXmlEncoding(muleEvent, baos.toByteArray(), data, logger);
+                String encoding = charset != null ? charset : getXmlEncoding(muleEvent, bytes, logger);
                 DataType<?> dataType = getDataType(muleEvent, ByteArrayInputStream.class, encoding);
-                muleEvent.getMessage().setPayload(new ByteArrayInputStream(baos.toByteArray()), dataType);
+                muleEvent.getMessage().setPayload(new ByteArrayInputStream(bytes), dataType);
             }
             else if (input instanceof String)
             {
-                data = loadDocument(new StringReader((String) input));
+                data = new InputSource(new StringReader((String) input));
             }
             else if (input instanceof byte[])
             {
-                data = loadDocument(new ByteArrayInputStream((byte[]) input), charset);
+                data = getInputSource((byte[]) input, charset);
 
                 // update message encoding
-                String encoding = charset != null ? charset : getXmlEncoding(muleEvent, (byte[]) input, data, logger);
+                String encoding = charset != null ? charset : getXmlEncoding(muleEvent, (byte[]) input, logger);
                 muleEvent.getMessage().setPayload(input, getDataType(muleEvent, encoding));
             }
             else
@@ -100,9 +109,13 @@ public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
                 throw new BadRequestException("Don't know how to parse " + input.getClass().getName());
             }
 
-            Schema schema = XmlSchemaCache.getXmlSchemaCache(muleContext, configId, api).get(schemaPath);
-            Validator validator = schema.newValidator();
-            validator.validate(new DOMSource(data.getDocumentElement()));
+            LoadingCache<String, CompiledXmlSchema> cache = schemaCache != null ? schemaCache : XmlSchemaCache.getXmlSchemaCache(muleContext, configId, api);
+            Validator validator = cache.get(schemaPath).getValidator();
+            validator.validate(new SAXSource(pool.getReader(), data));
+        }
+        catch (BodySizeExceededException e)
+        {
+            throw e.getRestException();
         }
         catch (Exception e)
         {
@@ -111,6 +124,12 @@ public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
         }
     }
 
+    private static String getXmlEncoding(MuleEvent muleEvent, byte[] payload, Logger logger)
+    {
+        String declaredEncoding = pool.getDeclaredEncoding(new ByteArrayInputStream(payload));
+        return CharsetUtils.getXmlEncoding(muleEvent, payload, declaredEncoding, logger);
+    }
+
     private DataType<?> getDataType(MuleEvent muleEvent, String encoding)
     {
         return getDataType(muleEvent, muleEvent.getMessage().getDataType().getType(), encoding);
@@ -124,82 +143,13 @@ public class RestXmlSchemaValidator extends AbstractRestSchemaValidator
         return dataType;
     }
 
-    private static Document loadDocument(InputStream stream, String charset) throws IOException
+    private static InputSource getInputSource(byte[] content, String charset) throws IOException
     {
+        InputStream stream = new ByteArrayInputStream(content);
         if (charset == null)
         {
-            return loadDocument(new InputSource(stream));
-        }
-        return loadDocument(new InputSource(new InputStreamReader(stream, charset)));
-    }
-
-    private static Document loadDocument(Reader reader) throws IOException
-    {
-        return loadDocument(new InputSource(reader));
-    }
-
-    /**
-     * Loads the document from the <code>content</code>.
-     *
-     * @param source the content to load
-     * @return the {@link org.w3c.dom.Document} represents the DOM of the content
-     * @throws java.io.IOException
-     */
-    private static Document loadDocument(InputSource source) throws IOException
-    {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        setFeatures(factory);
-        factory.setNamespaceAware(true);
-        try
-        {
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            //Setting error handler to null to avoid logs generated by the parser.
-            builder.setErrorHandler(null);
-            return builder.parse(source);
-        }
-        catch (ParserConfigurationException e)
-        {
-            throw new IOException("An internal operation failed.", e);
-        }
-        catch (SAXException e)
-        {
-            throw new IOException("An internal operation failed.", e);
-        }
-    }
-
-    /*
-     * Prevent XXE attacks
-     * <code>https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing</code>
-     */
-    private static void setFeatures(DocumentBuilderFactory dbf)
-    {
-        String feature = null;
-        try
-        {
-
-            // This is the PRIMARY defense. If DTDs (doctypes) are disallowed, almost all XML entity attacks are prevented
-            //feature  = "http://apache.org/xml/features/disallow-doctype-decl";
-            //dbf.setFeature(feature, true);
-
-            // If you can't completely disable DTDs, then at least do the following:
-            feature = "http://xml.org/sax/features/external-general-entities";
-            dbf.setFeature(feature, externalEntities);
-
-            feature = "http://xml.org/sax/features/external-parameter-entities";
-            dbf.setFeature(feature, externalEntities);
-
-            feature = "http://apache.org/xml/features/disallow-doctype-decl";
-            dbf.setFeature(feature, !expandEntities);
-
-            // and these as well, per Timothy Morgan's 2014 paper: "XML Schema, DTD, and Entity Attacks" (see reference below)
-            dbf.setXIncludeAware(expandEntities);
-            dbf.setExpandEntityReferences(expandEntities);
-
-        }
-        catch (ParserConfigurationException e)
-        {
-            logger.info("ParserConfigurationException was thrown. The feature '" + feature +
-                        "' is probably not supported by your XML processor.");
+            return new InputSource(stream);
         }
+        return new InputSource(new InputStreamReader(stream, charset));
     }
 }
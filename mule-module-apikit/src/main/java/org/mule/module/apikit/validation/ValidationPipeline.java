@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import org.mule.module.apikit.management.StripedCounter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order in which the checks of a request run, and the number of requests each check
+ * rejected.
+ * <p/>
+ * Validation stops at the first failing check, so running cheap checks first keeps
+ * rejected requests from paying for schema validation. The method is always checked
+ * first, while routing, followed by the body size, so no other check reads an oversized
+ * body. Checks missing from a configured order run after the listed ones, in their
+ * default order.
+ */
+public class ValidationPipeline
+{
+
+    private final List<ValidationStage> order;
+    private final Map<ValidationStage, StripedCounter> rejections = new EnumMap<>(ValidationStage.class);
+
+    public ValidationPipeline()
+    {
+        this(null);
+    }
+
+    /**
+     * @param order comma separated labels of the stages, null or empty for the default order
+     * @throws IllegalArgumentException if a label is not a known stage
+     */
+    public ValidationPipeline(String order)
+    {
+        List<ValidationStage> stages = new ArrayList<>();
+        stages.add(ValidationStage.METHOD);
+        stages.add(ValidationStage.BODY_SIZE);
+        if (order != null)
+        {
+            for (String label : order.split(","))
+            {
+                if (!label.trim().isEmpty())
+                {
+                    ValidationStage stage = ValidationStage.fromLabel(label.trim());
+                    if (!stages.contains(stage))
+                    {
+                        stages.add(stage);
+                    }
+                }
+            }
+        }
+        for (ValidationStage stage : ValidationStage.values())
+        {
+            if (!stages.contains(stage))
+            {
+                stages.add(stage);
+            }
+        }
+        this.order = Collections.unmodifiableList(stages);
+        for (ValidationStage stage : ValidationStage.values())
+        {
+            rejections.put(stage, new StripedCounter());
+        }
+    }
+
+    /**
+     * Returns the stages in the order they run, starting with the method and the body size.
+     */
+    public List<ValidationStage> getOrder()
+    {
+        return order;
+    }
+
+    public void rejected(ValidationStage stage)
+    {
+        rejections.get(stage).increment();
+    }
+
+    public long getRejections(ValidationStage stage)
+    {
+        return rejections.get(stage).sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder labels = new StringBuilder();
+        for (ValidationStage stage : order)
+        {
+            if (labels.length() > 0)
+            {
+                labels.append(',');
+            }
+            labels.append(stage.getLabel());
+        }
+        return labels.toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import org.mule.module.apikit.management.RequestStage;
+
+/**
+ * Checks a request goes through before it is dispatched to its flow, declared from the
+ * cheapest to the most expensive, which is the default validation order.
+ */
+public enum ValidationStage
+{
+    /**
+     * The action is declared for the request method, checked while routing.
+     */
+    METHOD("method", RequestStage.ROUTING, true),
+    /**
+     * The body is not larger than the maximum size of the action, checked against the
+     * content length and then while the body is read.
+     */
+    BODY_SIZE("body-size", RequestStage.BODY, true),
+    /**
+     * The request media type is declared by the action.
+     */
+    CONTENT_TYPE("content-type", RequestStage.BODY, true),
+    /**
+     * A response representation matches the accept header.
+     */
+    ACCEPT("accept", RequestStage.BODY, true),
+    /**
+     * Required headers and query parameters are present.
+     */
+    REQUIRED("required", RequestStage.PARAMETERS, false),
+    URI_PARAMETERS("uri-parameters", RequestStage.URI_PARAMETERS, false),
+    QUERY_PARAMETERS("query-parameters", RequestStage.PARAMETERS, false),
+    HEADERS("headers", RequestStage.PARAMETERS, false),
+    /**
+     * The body is valid against its schema or form parameters.
+     */
+    BODY("body", RequestStage.BODY, false);
+
+    private final String label;
+    private final RequestStage requestStage;
+    private final boolean alwaysChecked;
+
+    ValidationStage(String label, RequestStage requestStage, boolean alwaysChecked)
+    {
+        this.label = label;
+        this.requestStage = requestStage;
+        this.alwaysChecked = alwaysChecked;
+    }
+
+    public String getLabel()
+    {
+        return label;
+    }
+
+    /**
+     * Returns the request stage whose latency includes this check.
+     */
+    public RequestStage getRequestStage()
+    {
+        return requestStage;
+    }
+
+    /**
+     * Returns whether the check runs even when validations are disabled, because it is part
+     * of dispatching the request or protects the application.
+     */
+    public boolean isAlwaysChecked()
+    {
+        return alwaysChecked;
+    }
+
+    public static ValidationStage fromLabel(String label)
+    {
+        for (ValidationStage stage : values())
+        {
+            if (stage.label.equalsIgnoreCase(label))
+            {
+                return stage;
+            }
+        }
+        throw new IllegalArgumentException("Unknown validation stage " + label);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import java.io.InputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Per thread pool of the XXE hardened SAX readers used to validate XML request bodies,
+ * so parsers are not created per request.
+ * <p/>
+ * Schema validators are not kept here but by the {@link org.mule.module.apikit.validation.cache.CompiledXmlSchema}
+ * they belong to, so they are released with the api snapshot that compiled the schema.
+ */
+class XmlValidationPool
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(XmlValidationPool.class);
+
+    private final SAXParserFactory parserFactory;
+    private final XMLInputFactory inputFactory;
+
+    private final ThreadLocal<XMLReader> readers = new ThreadLocal<>();
+
+    XmlValidationPool(boolean externalEntities, boolean expandEntities)
+    {
+        parserFactory = SAXParserFactory.newInstance();
+        parserFactory.setNamespaceAware(true);
+        setFeatures(parserFactory, externalEntities, expandEntities);
+
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Returns the SAX reader of the current thread.
+     */
+    XMLReader getReader() throws ParserConfigurationException, SAXException
+    {
+        XMLReader reader = readers.get();
+        if (reader == null)
+        {
+            reader = parserFactory.newSAXParser().getXMLReader();
+            readers.set(reader);
+        }
+        //Setting error handler to null to avoid logs generated by the parser.
+        reader.setErrorHandler(null);
+        return reader;
+    }
+
+    /**
+     * Returns the encoding declared in the XML declaration of the content,
+     * reading only its prolog, or null if none is declared.
+     */
+    String getDeclaredEncoding(InputStream content)
+    {
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = inputFactory.createXMLStreamReader(content);
+            return reader.getCharacterEncodingScheme();
+        }
+        catch (XMLStreamException e)
+        {
+            return null;
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (XMLStreamException e)
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /*
+     * Prevent XXE attacks
+     * <code>https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Processing</code>
+     */
+    private static void setFeatures(SAXParserFactory factory, boolean externalEntities, boolean expandEntities)
+    {
+        String feature = null;
+        try
+        {
+            feature = "http://xml.org/sax/features/external-general-entities";
+            factory.setFeature(feature, externalEntities);
+
+            feature = "http://xml.org/sax/features/external-parameter-entities";
+            factory.setFeature(feature, externalEntities);
+
+            feature = "http://apache.org/xml/features/disallow-doctype-decl";
+            factory.setFeature(feature, !expandEntities);
+
+            factory.setXIncludeAware(expandEntities);
+        }
+        catch (ParserConfigurationException | SAXException e)
+        {
+            logger.info("Exception was thrown. The feature '" + feature +
+                        "' is probably not supported by your XML processor.");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.cache;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+/**
+ * XML schema cache entry holding the compiled schema and the validators created for it.
+ * <p/>
+ * Validators are kept per thread by this entry, so they are released together with the
+ * cache that owns it when an api snapshot is replaced.
+ */
+public class CompiledXmlSchema
+{
+
+    private final Schema schema;
+    private final ThreadLocal<Validator> validators = new ThreadLocal<>();
+
+    public CompiledXmlSchema(Schema schema)
+    {
+        this.schema = schema;
+    }
+
+    public Schema getSchema()
+    {
+        return schema;
+    }
+
+    /**
+     * Returns the validator of the current thread, reset to its original configuration.
+     */
+    public Validator getValidator()
+    {
+        Validator validator = validators.get();
+        if (validator == null)
+        {
+            validator = schema.newValidator();
+            validators.set(validator);
+        }
+        else
+        {
+            validator.reset();
+        }
+        return validator;
+    }
+}
@@ -24,13 +24,20 @@ public final class JsonSchemaCache
         String cacheKey = REGISTRY_JSON_SCHEMA_CACHE_KEY_PREFIX + configId;
         if (muleContext.getRegistry().get(cacheKey) == null)
         {
-            LoadingCache<String, JsonSchema> transformerCache = CacheBuilder.newBuilder()
-                    .maximumSize(1000)
-                    .build(new JsonSchemaCacheLoader(api));
-
-            muleContext.getRegistry().registerObject(cacheKey, transformerCache);
+            muleContext.getRegistry().registerObject(cacheKey, newJsonSchemaCache(api));
         }
 
         return muleContext.getRegistry().get(cacheKey);
     }
+
+    /**
+     * Creates a schema cache for the given api that is not bound to the registry,
+     * to be held by the configuration that owns the api.
+     */
+    public static LoadingCache<String, JsonSchema> newJsonSchemaCache(IRaml api)
+    {
+        return CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .build(new JsonSchemaCacheLoader(api));
+    }
 }
@@ -30,6 +30,14 @@ public class SchemaCacheUtils
         return key.toString();
     }
 
+    /**
+     * Returns the cache key of the schema of a response body.
+     */
+    public static String getSchemaCacheKey(IAction action, String status, String mimeTypeName)
+    {
+        return getSchemaCacheKey(action, mimeTypeName) + SEPARATOR + status;
+    }
+
     /**
      * Returns the compiled representation of an XML schema.
      */
@@ -61,6 +69,10 @@ public class SchemaCacheUtils
     {
         String[] path = schemaCacheKey.split(SEPARATOR);
         IAction action = api.getResource(path[0]).getAction(path[1]);
+        if (path.length > 3)
+        {
+            return action.getResponses().get(path[3]).getBody().get(path[2]);
+        }
         return action.getBody().get(path[2]);
     }
 
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.cache;
+
+import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IMimeType;
+import org.mule.raml.interfaces.model.IResource;
+import org.mule.raml.interfaces.model.IResponse;
+
+import com.google.common.cache.LoadingCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles every JSON and XML schema referenced by the request and response bodies
+ * of an api into the schema caches, concurrently on a bounded pool.
+ * <p/>
+ * Request body schemas are used to validate every request, so any of them failing to
+ * compile fails the whole precompilation. Response body schemas are not validated by
+ * the router, their failures are only logged.
+ */
+public class SchemaPrecompiler
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaPrecompiler.class);
+
+    private final LoadingCache<String, ?> jsonSchemaCache;
+    private final LoadingCache<String, ?> xmlSchemaCache;
+    private final int parallelism;
+
+    public SchemaPrecompiler(LoadingCache<String, ?> jsonSchemaCache, LoadingCache<String, ?> xmlSchemaCache, int parallelism)
+    {
+        this.jsonSchemaCache = jsonSchemaCache;
+        this.xmlSchemaCache = xmlSchemaCache;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Compiles the schemas of every action of the given resources.
+     *
+     * @throws ApikitRuntimeException if a schema cannot be resolved or compiled
+     */
+    public void precompile(Collection<IResource> resources)
+    {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (IResource resource : resources)
+        {
+            for (IAction action : resource.getActions().values())
+            {
+                if (action.hasBody())
+                {
+                    addTasks(tasks, action, action.getBody(), null);
+                }
+                for (Map.Entry<String, IResponse> response : action.getResponses().entrySet())
+                {
+                    if (response.getValue().hasBody())
+                    {
+                        addTasks(tasks, action, response.getValue().getBody(), response.getKey());
+                    }
+                }
+            }
+        }
+        if (tasks.isEmpty())
+        {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, tasks.size())));
+        CompletionService<Void> completion = new ExecutorCompletionService<>(pool);
+        try
+        {
+            for (Callable<Void> task : tasks)
+            {
+                completion.submit(task);
+            }
+            for (int i = 0; i < tasks.size(); i++)
+            {
+                // the first failure stops the remaining compilations
+                completion.take().get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApikitRuntimeException(e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            // fork join tasks rethrow a copy of the exception that wraps the original one
+            while (cause.getCause() instanceof ApikitRuntimeException)
+            {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ApikitRuntimeException)
+            {
+                throw (ApikitRuntimeException) cause;
+            }
+            throw new ApikitRuntimeException(cause);
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        logger.info(String.format("Compiled %d schemas in %d ms", tasks.size(), System.currentTimeMillis() - start));
+    }
+
+    private void addTasks(List<Callable<Void>> tasks, IAction action, Map<String, IMimeType> body, String status)
+    {
+        for (Map.Entry<String, IMimeType> entry : body.entrySet())
+        {
+            String mimeTypeName = entry.getKey();
+            if (entry.getValue().getSchema() == null)
+            {
+                continue;
+            }
+            String key = status == null ? SchemaCacheUtils.getSchemaCacheKey(action, mimeTypeName)
+                                        : SchemaCacheUtils.getSchemaCacheKey(action, status, mimeTypeName);
+            if (mimeTypeName.contains("json"))
+            {
+                tasks.add(new CompileTask(jsonSchemaCache, key, status == null));
+            }
+            else if (mimeTypeName.contains("xml"))
+            {
+                tasks.add(new CompileTask(xmlSchemaCache, key, status == null));
+            }
+        }
+    }
+
+    private static class CompileTask implements Callable<Void>
+    {
+
+        private final LoadingCache<String, ?> cache;
+        private final String key;
+        private final boolean required;
+        // schema locations are resolved against the application class loader
+        private final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        CompileTask(LoadingCache<String, ?> cache, String key, boolean required)
+        {
+            this.cache = cache;
+            this.key = key;
+            this.required = required;
+        }
+
+        @Override
+        public Void call() throws Exception
+        {
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            long start = System.nanoTime();
+            try
+            {
+                cache.get(key);
+            }
+            catch (ExecutionException | RuntimeException e)
+            {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String message = "Schema could not be compiled for key: " + key + ": " + cause.getMessage();
+                if (required)
+                {
+                    throw new ApikitRuntimeException(message, cause);
+                }
+                logger.warn(message);
+                return null;
+            }
+            finally
+            {
+                thread.setContextClassLoader(original);
+            }
+            logger.info(String.format("Compiled schema %s in %d ms", key, (System.nanoTime() - start) / 1000000));
+            return null;
+        }
+    }
+}
@@ -13,25 +13,30 @@ import org.mule.raml.interfaces.model.IRaml;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
 
-import javax.xml.validation.Schema;
-
 public final class XmlSchemaCache
 {
 
     private static final String REGISTRY_XML_SCHEMA_CACHE_KEY_PREFIX = "__restRouterXmlSchemaCache__";
 
-    public static LoadingCache<String, Schema> getXmlSchemaCache(MuleContext muleContext, String configId, IRaml api) throws RegistrationException
+    public static LoadingCache<String, CompiledXmlSchema> getXmlSchemaCache(MuleContext muleContext, String configId, IRaml api) throws RegistrationException
     {
         String cacheKey = REGISTRY_XML_SCHEMA_CACHE_KEY_PREFIX + configId;
         if (muleContext.getRegistry().get(cacheKey) == null)
         {
-            LoadingCache<String, Schema> transformerCache = CacheBuilder.newBuilder()
-                    .maximumSize(1000)
-                    .build(new XmlSchemaCacheLoader(api));
-
-            muleContext.getRegistry().registerObject(cacheKey, transformerCache);
+            muleContext.getRegistry().registerObject(cacheKey, newXmlSchemaCache(api));
         }
 
         return muleContext.getRegistry().get(cacheKey);
     }
+
+    /**
+     * Creates a schema cache for the given api that is not bound to the registry,
+     * to be held by the configuration that owns the api.
+     */
+    public static LoadingCache<String, CompiledXmlSchema> newXmlSchemaCache(IRaml api)
+    {
+        return CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .build(new XmlSchemaCacheLoader(api));
+    }
 }
@@ -12,11 +12,9 @@ import com.google.common.cache.CacheLoader;
 
 import java.io.IOException;
 
-import javax.xml.validation.Schema;
-
 import org.xml.sax.SAXException;
 
-public class XmlSchemaCacheLoader extends CacheLoader<String, Schema>
+public class XmlSchemaCacheLoader extends CacheLoader<String, CompiledXmlSchema>
 {
 
     private IRaml api;
@@ -27,9 +25,9 @@ public class XmlSchemaCacheLoader extends CacheLoader<String, Schema>
     }
 
     @Override
-    public Schema load(String schemaLocation) throws IOException, SAXException
+    public CompiledXmlSchema load(String schemaLocation) throws IOException, SAXException
     {
-        return SchemaCacheUtils.resolveXmlSchema(schemaLocation, api);
+        return new CompiledXmlSchema(SchemaCacheUtils.resolveXmlSchema(schemaLocation, api));
     }
 
 }
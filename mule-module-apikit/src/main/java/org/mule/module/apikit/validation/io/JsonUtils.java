@@ -9,6 +9,7 @@ package org.mule.module.apikit.validation.io;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -17,11 +18,20 @@ public class JsonUtils
 {
     private static final String JSON_STRICT_DUPLICATE_DETECTION_PROPERTY = "yagi.json_duplicate_keys_detection";
 
+    // readers are thread safe, the property is still checked on every call
+    private static final ObjectReader STRICT_READER = newReader(true);
+    private static final ObjectReader LENIENT_READER = newReader(false);
+
     public static JsonNode parseJson(Reader reader) throws IOException
+    {
+        return (getSystemPropValue() ? STRICT_READER : LENIENT_READER).readValue(reader);
+    }
+
+    private static ObjectReader newReader(boolean strictDuplicateDetection)
     {
         ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, getSystemPropValue());
-        return mapper.readValue(reader, JsonNode.class);
+        mapper.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, strictDuplicateDetection);
+        return mapper.reader(JsonNode.class);
     }
 
     private static boolean getSystemPropValue()
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Input stream that retains every byte read from the wrapped stream so the payload
+ * can be replayed once it has been consumed.
+ * <p/>
+ * Up to <code>maxBufferSize</code> bytes are retained in memory, larger payloads are
+ * moved to a temporary file. The file is deleted by {@link #discard()}, which the router
+ * calls when the event completes, or when the replayed stream is closed if that happens
+ * first.
+ */
+public class ReplayBuffer extends FilterInputStream
+{
+
+    /**
+     * Invocation property holding the buffer of a payload retained in a temporary file.
+     */
+    public static final String REPLAY_BUFFER = "_ReplayBuffer_replayBuffer";
+
+    private final int maxBufferSize;
+    private RetainedBytes memory = new RetainedBytes();
+    private File file;
+    private OutputStream retained = memory;
+
+    public ReplayBuffer(InputStream in, int maxBufferSize)
+    {
+        super(in);
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        int b = super.read();
+        if (b != -1)
+        {
+            retain(1);
+            retained.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int read = super.read(b, off, len);
+        if (read > 0)
+        {
+            retain(read);
+            retained.write(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        // skipped bytes must be retained as well
+        byte[] buffer = new byte[(int) Math.min(n, 4096)];
+        long skipped = 0;
+        while (skipped < n)
+        {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0)
+            {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    /**
+     * Reads the rest of the wrapped stream so the whole payload is retained.
+     */
+    public void drain() throws IOException
+    {
+        byte[] buffer = new byte[4096];
+        while (read(buffer, 0, buffer.length) != -1)
+        {
+            // retained on read
+        }
+    }
+
+    /**
+     * Closes the wrapped stream and returns a stream over every byte read from it.
+     */
+    public InputStream replay() throws IOException
+    {
+        close();
+        retained.close();
+        if (file == null)
+        {
+            return memory.replay();
+        }
+        final File replayed = file;
+        return new FileInputStream(replayed)
+        {
+            @Override
+            public void close() throws IOException
+            {
+                try
+                {
+                    super.close();
+                }
+                finally
+                {
+                    replayed.delete();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns true if the payload is retained in a temporary file that must be discarded
+     * once the event completes.
+     */
+    public boolean isFileBacked()
+    {
+        return file != null;
+    }
+
+    /**
+     * Closes the wrapped stream and releases the retained bytes.
+     */
+    public void discard()
+    {
+        try
+        {
+            close();
+            retained.close();
+        }
+        catch (IOException e)
+        {
+            // nothing else to release
+        }
+        if (file != null)
+        {
+            file.delete();
+        }
+    }
+
+    private void retain(int length) throws IOException
+    {
+        if (file == null && memory.size() + length > maxBufferSize)
+        {
+            file = File.createTempFile("apikit-payload", ".tmp");
+            retained = new FileOutputStream(file);
+            memory.writeTo(retained);
+            memory = null;
+        }
+    }
+
+    /**
+     * Memory buffer replayed in place, without copying the retained bytes.
+     */
+    private static class RetainedBytes extends ByteArrayOutputStream
+    {
+
+        public synchronized InputStream replay()
+        {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.io;
+
+import org.mule.module.apikit.exception.RequestEntityTooLargeException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that fails as soon as more than <code>maxSize</code> bytes are read from
+ * the wrapped stream, so an oversized body is rejected before it is buffered or parsed
+ * whole.
+ */
+public class SizeLimitedInputStream extends FilterInputStream
+{
+
+    private final long maxSize;
+    private long count;
+
+    public SizeLimitedInputStream(InputStream in, long maxSize)
+    {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        int b = super.read();
+        if (b != -1)
+        {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int read = super.read(b, off, len);
+        if (read > 0)
+        {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        // a reset would count bytes twice
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit)
+    {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException
+    {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void count(long read) throws BodySizeExceededException
+    {
+        count += read;
+        if (count > maxSize)
+        {
+            throw new BodySizeExceededException(maxSize);
+        }
+    }
+
+    /**
+     * Thrown by reads past the maximum size. The cause is the exception to report, so
+     * exception mappings match it even when the stream is read by the application.
+     */
+    public static class BodySizeExceededException extends IOException
+    {
+
+        public BodySizeExceededException(long maxSize)
+        {
+            super(message(maxSize), new RequestEntityTooLargeException(message(maxSize)));
+        }
+
+        private static String message(long maxSize)
+        {
+            return "Request body larger than " + maxSize + " bytes";
+        }
+
+        public RequestEntityTooLargeException getRestException()
+        {
+            return (RequestEntityTooLargeException) getCause();
+        }
+    }
+}
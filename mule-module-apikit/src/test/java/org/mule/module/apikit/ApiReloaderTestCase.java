@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.mule.util.FileUtils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ApiReloaderTestCase
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void fingerprintChangesWithWatchedFiles() throws Exception
+    {
+        File api = folder.newFolder("api");
+        File raml = new File(api, "api.raml");
+        File schema = new File(api, "league.json");
+        FileUtils.writeStringToFile(raml, "#%RAML 0.8\ntitle: Leagues\n");
+        List<File> files = Arrays.asList(raml, schema);
+        long initial = ApiReloader.fingerprint(files);
+        assertThat(ApiReloader.fingerprint(files), is(initial));
+
+        FileUtils.writeStringToFile(new File(api, "notes.txt"), "not referenced");
+        assertThat(ApiReloader.fingerprint(files), is(initial));
+
+        FileUtils.writeStringToFile(schema, "{}");
+        long added = ApiReloader.fingerprint(files);
+        assertThat(added, not(is(initial)));
+
+        FileUtils.writeStringToFile(schema, "{\"type\": \"object\"}");
+        assertThat(ApiReloader.fingerprint(files), not(is(added)));
+    }
+
+    @Test
+    public void findsDescriptorFilesInApplicationHome() throws Exception
+    {
+        File api = folder.newFolder("api");
+        File raml = new File(api, "leagues.raml");
+        File schema = new File(api, "league.json");
+        FileUtils.writeStringToFile(raml, "#%RAML 0.8\ntitle: Leagues\n");
+        FileUtils.writeStringToFile(schema, "{}");
+        FileUtils.writeStringToFile(new File(api, "notes.txt"), "not referenced");
+        ClassLoader classLoader = getClass().getClassLoader();
+        String appHome = folder.getRoot().getPath();
+
+        assertThat(ApiReloader.findFiles("api/leagues.raml", Arrays.asList("api/leagues.raml", "league.json", "http://example.com/types.raml"), appHome, classLoader),
+                   is(Arrays.asList(raml, schema)));
+        assertThat(ApiReloader.findFiles("api/missing.raml", Collections.<String>emptyList(), appHome, classLoader).isEmpty(), is(true));
+    }
+}
@@ -7,11 +7,15 @@
 package org.mule.module.apikit;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import org.mule.api.MuleEvent;
 import org.mule.api.lifecycle.InitialisationException;
+import org.mule.api.transport.PropertyScope;
 import org.mule.construct.Flow;
 import org.mule.module.apikit.exception.ApikitRuntimeException;
 import org.mule.module.apikit.uri.URIPattern;
@@ -85,12 +89,47 @@ public class ApiUpdateTestCase extends AbstractMuleContextTestCase
         assertThat(config.getApi().getTraits().size(), is(2));
 
         assertTraitInjected(config.getApi().getResource(RESOURCE_LEAGUES).getAction(METHOD_GET));
-        assertTraitInjected(config.routingTable.get(new URIPattern(RESOURCE_LEAGUES)).getAction(METHOD_GET));
+        assertTraitInjected(config.getSnapshot().getRoutingTable().get(new URIPattern(RESOURCE_LEAGUES)).getAction(METHOD_GET));
 
         config.getRamlUpdater().reset();
         assertInitialStateWithTraits();
     }
 
+    @Test
+    public void updatePublishesNewSnapshot() throws Exception
+    {
+        ApiSnapshot previous = config.getSnapshot();
+        config.getRamlUpdater().injectTrait(traitName, traitYaml).applyTrait(traitName, GET_LEAGUES).resetAndUpdate();
+
+        ApiSnapshot current = config.getSnapshot();
+        assertThat(current.getVersion(), is(previous.getVersion() + 1));
+        assertThat(current.getRoutingTable().keySet(), is(previous.getRoutingTable().keySet()));
+        assertThat(config.resolveRoute(RESOURCE_LEAGUES).getURIPattern(), is(new URIPattern(RESOURCE_LEAGUES)));
+    }
+
+    @Test
+    public void bodyIsValidatedWithRoutedSnapshot() throws Exception
+    {
+        ApiSnapshot routed = config.getSnapshot();
+        ActionDispatch dispatch = routed.getActionDispatch(routed.getRoutingTable().get(new URIPattern(RESOURCE_LEAGUES)), "post");
+
+        // the api is updated after the request was routed
+        config.getRamlUpdater().injectTrait(traitName, traitYaml).applyTrait(traitName, GET_LEAGUES).resetAndUpdate();
+        ApiSnapshot current = config.getSnapshot();
+        assertThat(current, not(sameInstance(routed)));
+
+        // schemas are precompiled, so only the cache used by the request is filled again
+        routed.getJsonSchemaCache().invalidateAll();
+        current.getJsonSchemaCache().invalidateAll();
+        MuleEvent event = getTestEvent("{ \"name\" : \"liga criolla\" }");
+        event.getMessage().setProperty("host", "localhost", PropertyScope.INBOUND);
+        event.getMessage().setProperty("content-type", "application/json", PropertyScope.INBOUND);
+        new HttpRestRequest(event, config).validate(dispatch, routed, null, null);
+
+        assertThat(routed.getJsonSchemaCache().size(), is(1L));
+        assertThat(current.getJsonSchemaCache().size(), is(0L));
+    }
+
     private void assertTraitInjected(IAction action)
     {
         assertThat(action.getIs().size(), is(1));
@@ -112,7 +151,7 @@ public class ApiUpdateTestCase extends AbstractMuleContextTestCase
         assertThat(config.getApi().getTraits().size(), is(1));
 
         assertTraitInjected(config.getApi().getResource(RESOURCE_ORDERS).getAction(METHOD_GET));
-        assertTraitInjected(config.routingTable.get(new URIPattern(RESOURCE_ORDERS)).getAction(METHOD_GET));
+        assertTraitInjected(config.getSnapshot().getRoutingTable().get(new URIPattern(RESOURCE_ORDERS)).getAction(METHOD_GET));
 
         config.getRamlUpdater().reset();
         assertInitialStateWithoutTraits();
@@ -158,7 +197,7 @@ public class ApiUpdateTestCase extends AbstractMuleContextTestCase
 
         assertThat(config.getApi().getSecuritySchemes().size(), is(1));
         assertSecuritySchemeInjected(config.getApi().getResource(RESOURCE_LEAGUES).getAction(METHOD_GET), name);
-        assertSecuritySchemeInjected(config.routingTable.get(new URIPattern(RESOURCE_LEAGUES)).getAction(METHOD_GET), name);
+        assertSecuritySchemeInjected(config.getSnapshot().getRoutingTable().get(new URIPattern(RESOURCE_LEAGUES)).getAction(METHOD_GET), name);
 
         config.getRamlUpdater().reset();
         assertInitialStateWithTraits();
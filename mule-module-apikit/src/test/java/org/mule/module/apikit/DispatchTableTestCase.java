@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.construct.Flow;
+import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.module.apikit.exception.UnsupportedMediaTypeException;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IActionType;
+import org.mule.raml.interfaces.model.IResource;
+import org.mule.raml.interfaces.model.IResponse;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DispatchTableTestCase
+{
+
+    private IResource resource;
+    private Flow getFlow = mock(Flow.class);
+    private Flow postJsonFlow = mock(Flow.class);
+    private DispatchTable table;
+
+    @Before
+    public void setUp()
+    {
+        Map<IActionType, IAction> actions = new HashMap<>();
+        actions.put(IActionType.GET, action("200"));
+        actions.put(IActionType.POST, action("201"));
+        resource = mock(IResource.class);
+        when(resource.getResolvedUri("v1")).thenReturn("/leagues");
+        when(resource.getActions()).thenReturn(actions);
+
+        Map<String, Flow> flows = new HashMap<>();
+        flows.put("get:/leagues", getFlow);
+        flows.put("post:/leagues:application/json", postJsonFlow);
+        table = new DispatchTable(Collections.singletonList(resource), "v1", flows);
+    }
+
+    private IAction action(String status)
+    {
+        IAction action = mock(IAction.class);
+        Map<String, IResponse> responses = new HashMap<>();
+        responses.put(status, mock(IResponse.class));
+        when(action.getResponses()).thenReturn(responses);
+        return action;
+    }
+
+    @Test
+    public void flowWithoutMediaType() throws Exception
+    {
+        ActionDispatch dispatch = table.get(resource, "get");
+        assertThat(dispatch.getFlow("application/json"), sameInstance(getFlow));
+        assertThat(dispatch.getSuccessStatus(), is(200));
+    }
+
+    @Test
+    public void flowWithMediaType() throws Exception
+    {
+        ActionDispatch dispatch = table.get(resource, "post");
+        assertThat(dispatch.getFlow("application/json"), sameInstance(postJsonFlow));
+        assertThat(dispatch.getSuccessStatus(), is(201));
+    }
+
+    @Test(expected = UnsupportedMediaTypeException.class)
+    public void flowWithDifferentMediaType() throws Exception
+    {
+        table.get(resource, "post").getFlow("text/xml");
+    }
+
+    @Test
+    public void undeclaredMethod()
+    {
+        assertThat(table.get(resource, "delete"), nullValue());
+        assertThat(table.get(resource, "foo"), nullValue());
+        assertThat(table.get(mock(IResource.class), "get"), nullValue());
+    }
+
+    @Test
+    public void maxBodySizeAnnotation()
+    {
+        IAction action = action("200");
+        assertThat(ActionDispatch.declaredMaxBodySize(action), is(-1L));
+
+        when(action.getAnnotation(ActionDispatch.MAX_BODY_SIZE_ANNOTATION)).thenReturn("1048576");
+        assertThat(ActionDispatch.declaredMaxBodySize(action), is(1048576L));
+
+        // number annotations may be rendered as decimals
+        when(action.getAnnotation(ActionDispatch.MAX_BODY_SIZE_ANNOTATION)).thenReturn("1048576.0");
+        assertThat(ActionDispatch.declaredMaxBodySize(action), is(1048576L));
+    }
+
+    @Test(expected = ApikitRuntimeException.class)
+    public void fractionalMaxBodySizeAnnotation()
+    {
+        IAction action = action("200");
+        when(action.getType()).thenReturn(IActionType.POST);
+        when(action.getResource()).thenReturn(resource);
+        when(resource.getUri()).thenReturn("/leagues");
+        when(action.getAnnotation(ActionDispatch.MAX_BODY_SIZE_ANNOTATION)).thenReturn("10.5");
+        ActionDispatch.declaredMaxBodySize(action);
+    }
+
+    @Test(expected = ApikitRuntimeException.class)
+    public void negativeMaxBodySizeAnnotation()
+    {
+        IAction action = action("200");
+        when(action.getType()).thenReturn(IActionType.POST);
+        when(action.getResource()).thenReturn(resource);
+        when(resource.getUri()).thenReturn("/leagues");
+        when(action.getAnnotation(ActionDispatch.MAX_BODY_SIZE_ANNOTATION)).thenReturn("-1");
+        ActionDispatch.declaredMaxBodySize(action);
+    }
+}
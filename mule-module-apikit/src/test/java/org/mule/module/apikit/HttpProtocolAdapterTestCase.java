@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.transport.http.HttpConnector.HTTP_CONTEXT_PATH_PROPERTY;
+import static org.mule.transport.http.HttpConnector.HTTP_REQUEST_PATH_PROPERTY;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.MuleMessage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpProtocolAdapterTestCase
+{
+
+    private MuleMessage message;
+    private HttpProtocolAdapter adapter;
+
+    @Before
+    public void setUp()
+    {
+        message = mock(MuleMessage.class);
+        MuleEvent event = mock(MuleEvent.class);
+        when(event.getMessage()).thenReturn(message);
+        when(message.getInboundProperty("host")).thenReturn("localhost:8081");
+        when(message.getInboundProperty(HTTP_CONTEXT_PATH_PROPERTY)).thenReturn("/api/");
+        adapter = new HttpProtocolAdapter(event);
+    }
+
+    @Test
+    public void resourcePath()
+    {
+        when(message.getInboundProperty(HTTP_REQUEST_PATH_PROPERTY)).thenReturn("/api/ping%C3%BCino/fr%C3%ADo/");
+        assertThat(adapter.getResourcePath(), is("/pingüino/frío"));
+        assertThat(adapter.getResourceURI().getPort(), is(8081));
+        assertThat(adapter.getResourceURI().getPath(), is("/api/ping%C3%BCino/fr%C3%ADo/"));
+    }
+
+    @Test
+    public void requestMediaTypeIsReadOnce()
+    {
+        when(message.getInboundProperty("content-type")).thenReturn("application/json; charset=UTF-8");
+        assertThat(adapter.getRequestMediaType(), is("application/json"));
+        assertThat(adapter.getRequestMediaType(), is("application/json"));
+        verify(message, times(1)).getInboundProperty("content-type");
+    }
+
+    @Test
+    public void missingMediaTypes()
+    {
+        assertThat(adapter.getRequestMediaType(), nullValue());
+        assertThat(adapter.getAcceptableResponseMediaTypes(), is("*/*"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingHost()
+    {
+        MuleEvent event = mock(MuleEvent.class);
+        when(event.getMessage()).thenReturn(mock(MuleMessage.class));
+        new HttpProtocolAdapter(event);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import org.mule.module.apikit.NegotiationCache.Negotiation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class NegotiationCacheTestCase
+{
+
+    private List<String> mimeTypes = Arrays.asList("application/json", "application/xml");
+
+    @Test
+    public void negotiatesRepresentation()
+    {
+        Negotiation negotiation = NegotiationCache.negotiate(mimeTypes, "application/xml;q=0.9, text/plain");
+        assertThat(negotiation.getRepresentation(), is("application/xml"));
+        assertThat(negotiation.getConjunctionTypes(), contains("application/xml"));
+    }
+
+    @Test
+    public void wildcardAcceptsEveryType()
+    {
+        Negotiation negotiation = NegotiationCache.negotiate(mimeTypes, "*/*");
+        assertThat(negotiation.getRepresentation(), is("application/json"));
+        assertThat(negotiation.getConjunctionTypes(), contains("application/json", "application/xml"));
+    }
+
+    @Test
+    public void notAcceptable()
+    {
+        assertThat(NegotiationCache.negotiate(mimeTypes, "text/html").getRepresentation(), nullValue());
+    }
+
+    @Test
+    public void resultIsShared()
+    {
+        Negotiation negotiation = NegotiationCache.negotiate(mimeTypes, "application/json");
+        assertThat(NegotiationCache.negotiate(Arrays.asList("application/json", "application/xml"), "application/json"), sameInstance(negotiation));
+    }
+}
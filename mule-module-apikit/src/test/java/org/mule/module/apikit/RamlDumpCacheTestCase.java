@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.construct.Flow;
+import org.mule.module.apikit.management.MBeanRegistrar;
+import org.mule.module.http.internal.listener.DefaultHttpListener;
+import org.mule.module.http.internal.listener.DefaultHttpListenerConfig;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RamlDumpCacheTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final int THREADS = 8;
+
+    private Configuration config;
+
+    @Before
+    public void setupConfig() throws Exception
+    {
+        DefaultHttpListenerConfig listenerConfig = mock(DefaultHttpListenerConfig.class);
+        when(listenerConfig.getHost()).thenReturn("localhost");
+        when(listenerConfig.getPort()).thenReturn(8080);
+        when(listenerConfig.getTlsContext()).thenReturn(null);
+        DefaultHttpListener listener = mock(DefaultHttpListener.class);
+        when(listener.getConfig()).thenReturn(listenerConfig);
+        when(listener.getPath()).thenReturn("api");
+        Flow flow = mock(Flow.class);
+        when(flow.getMessageSource()).thenReturn(listener);
+
+        config = new Configuration();
+        config.setMuleContext(muleContext);
+        config.setRaml("org/mule/module/apikit/leagues/leagues.yaml");
+        config.initialise();
+        config.loadApiDefinition(flow);
+    }
+
+    @After
+    public void disposeConfig()
+    {
+        config.dispose();
+    }
+
+    @Test
+    public void dumpsOverTheCacheWeightAreEvicted() throws Exception
+    {
+        // hosts of about 1MB, so a few dumps pass the weight of the cache
+        char[] name = new char[1024 * 1024];
+        Arrays.fill(name, 'a');
+        String longHost = new String(name);
+        int hosts = 24;
+        for (int i = 0; i < hosts; i++)
+        {
+            config.getApikitRaml("http://" + longHost + i + ":8080");
+        }
+
+        assertThat(statistic("MissCount"), is((long) hosts));
+        assertTrue(statistic("EvictionCount") > 0);
+        assertTrue(statistic("Size") < hosts);
+    }
+
+    @Test
+    public void concurrentMissesForTheSameHostDumpOnce() throws Exception
+    {
+        final String schemeHostPort = "http://otherhost:8081";
+        long dumps = statistic("DumpCount");
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                results.add(executor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws Exception
+                    {
+                        start.await();
+                        return config.getApikitRaml(schemeHostPort);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results)
+            {
+                assertThat(result.get(), containsString(schemeHostPort));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // threads waiting for the dump of another one are counted as misses, but do not load
+        assertThat(statistic("DumpCount"), is(dumps + 1));
+        assertThat(statistic("HitCount") + statistic("MissCount"), is((long) THREADS));
+        assertThat(statistic("Size"), is(1L));
+    }
+
+    private long statistic(String attribute) throws Exception
+    {
+        ObjectName name = new ObjectName(String.format("%s:application=%s,config=%s,type=RamlDumpCache", MBeanRegistrar.DOMAIN,
+                                                       ObjectName.quote(muleContext.getConfiguration().getId()), ObjectName.quote("apikit")));
+        return ((Number) ManagementFactory.getPlatformMBeanServer().getAttribute(name, attribute)).longValue();
+    }
+}
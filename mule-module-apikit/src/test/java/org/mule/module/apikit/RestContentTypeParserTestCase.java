@@ -7,11 +7,14 @@
 package org.mule.module.apikit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.net.MediaType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -97,4 +100,36 @@ public class RestContentTypeParserTestCase
         assertEquals(expectedMediaTypes, actualMediaTypes);
     }
 
+    @Test
+    public void bestMatchHonoursQuality() throws Exception
+    {
+        List<String> representations = Arrays.asList("application/json", "application/xml");
+        assertEquals(MediaType.parse("application/xml"),
+                     RestContentTypeParser.bestMatch(representations, "application/json;q=0.5, application/xml"));
+        assertEquals(MediaType.parse("application/json"),
+                     RestContentTypeParser.bestMatch(representations, "text/html, */*;q=0.8"));
+        assertNull(RestContentTypeParser.bestMatch(representations, "text/html"));
+        assertNull(RestContentTypeParser.bestMatch(representations, "application/*;q=0"));
+    }
+
+    @Test
+    public void bestMatchUsesLastQuality() throws Exception
+    {
+        assertNull(RestContentTypeParser.bestMatch(Arrays.asList("application/json"), "application/json;q=1;q=0"));
+    }
+
+    @Test
+    public void bestMatchIgnoresBlankRanges() throws Exception
+    {
+        assertEquals(MediaType.parse("application/json"),
+                     RestContentTypeParser.bestMatch(Arrays.asList("application/json"), "application/json, ,"));
+    }
+
+    @Test
+    public void mediaTypeWithParametersIsNotAcceptable() throws Exception
+    {
+        List<MediaType> accepted = RestContentTypeParser.parseMediaTypes("application/json;q=0.5");
+        assertTrue(RestContentTypeParser.isMediaTypeAcceptable(accepted, MediaType.parse("application/json")));
+        assertFalse(RestContentTypeParser.isMediaTypeAcceptable(accepted, MediaType.parse("application/json;charset=utf-8")));
+    }
 }
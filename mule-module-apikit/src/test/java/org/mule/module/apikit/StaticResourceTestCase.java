@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.mule.DefaultMuleEvent;
+import org.mule.DefaultMuleMessage;
+import org.mule.api.MuleEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.transport.NullPayload;
+import org.mule.util.IOUtils;
+
+import com.google.common.base.Strings;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+public class StaticResourceTestCase extends AbstractMuleContextTestCase
+{
+
+    private static final String RAML = "#%RAML 0.8\ntitle: " + Strings.repeat("Large API ", 100);
+
+    @Test
+    public void ramlResourceIsBuiltOncePerDump()
+    {
+        assertThat(StaticResource.forRaml(RAML), sameInstance(StaticResource.forRaml(RAML)));
+        assertThat(StaticResource.forRaml(new String(RAML)), not(sameInstance(StaticResource.forRaml(RAML))));
+    }
+
+    @Test
+    public void sendsGzippedContentWhenAccepted() throws Exception
+    {
+        MuleEvent response = StaticResource.forRaml(RAML).respond(request("gzip, deflate", null));
+
+        assertThat(response.getMessage().<String>getOutboundProperty("Content-Encoding"), is("gzip"));
+        byte[] body = (byte[]) response.getMessage().getPayload();
+        String content = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(body)), "UTF-8");
+        assertThat(content, is(RAML));
+    }
+
+    @Test
+    public void sendsPlainContentOtherwise() throws Exception
+    {
+        MuleEvent response = StaticResource.forRaml(RAML).respond(request(null, null));
+
+        assertThat(response.getMessage().getOutboundProperty("Content-Encoding"), nullValue());
+        assertThat((byte[]) response.getMessage().getPayload(), is(RAML.getBytes(StandardCharsets.UTF_8)));
+        assertThat(response.getMessage().<String>getOutboundProperty("Cache-Control"), is(StaticResource.CACHE_REVALIDATE));
+    }
+
+    @Test
+    public void matchingEntityTagIsNotModified() throws Exception
+    {
+        StaticResource resource = StaticResource.forRaml(RAML);
+        String etag = resource.respond(request("gzip", null)).getMessage().getOutboundProperty("ETag");
+
+        MuleEvent notModified = resource.respond(request("gzip", "\"other\", " + etag));
+        assertThat(notModified.getMessage().<String>getOutboundProperty("http.status"), is("304"));
+        assertThat(notModified.getMessage().getPayload(), is((Object) NullPayload.getInstance()));
+
+        // the uncompressed representation has its own tag
+        MuleEvent plain = resource.respond(request(null, etag));
+        assertThat(plain.getMessage().<String>getOutboundProperty("http.status"), is("200"));
+    }
+
+    private MuleEvent request(String acceptEncoding, String ifNoneMatch) throws Exception
+    {
+        Map<String, Object> inbound = new HashMap<>();
+        if (acceptEncoding != null)
+        {
+            inbound.put("accept-encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null)
+        {
+            inbound.put("if-none-match", ifNoneMatch);
+        }
+        return new DefaultMuleEvent(new DefaultMuleMessage("", inbound, null, null, muleContext), getTestEvent(""));
+    }
+}
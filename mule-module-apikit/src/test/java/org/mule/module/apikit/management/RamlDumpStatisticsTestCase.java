@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RamlDumpStatisticsTestCase
+{
+
+    private RamlDumpStatistics statistics = new RamlDumpStatistics();
+
+    @Test
+    public void dumpTimes()
+    {
+        statistics.dumped(TimeUnit.MILLISECONDS.toNanos(30));
+        statistics.dumped(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(2, statistics.getDumpCount());
+        assertEquals(40, statistics.getTotalDumpTimeMillis());
+        assertEquals(20.0, statistics.getAverageDumpTimeMillis(), 0.001);
+        assertEquals(30, statistics.getMaxDumpTimeMillis());
+    }
+
+    @Test
+    public void cacheCountersOfCurrentCache()
+    {
+        assertEquals(0, statistics.getSize());
+
+        LoadingCache<String, String> cache = CacheBuilder.newBuilder().recordStats().build(new CacheLoader<String, String>()
+        {
+            @Override
+            public String load(String host)
+            {
+                return host;
+            }
+        });
+        statistics.setCache(cache);
+        cache.getUnchecked("http://localhost:8081");
+        cache.getUnchecked("http://localhost:8081");
+
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getSize());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.management;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RequestMetricsTestCase
+{
+
+    @Test
+    public void histogramBucketsByPowersOfTwo()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++)
+        {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getP50Micros(), is(128L));
+        assertThat(histogram.getP99Micros(), is(4096L));
+        assertThat(histogram.getPercentileMicros(1.0), is(5000L));
+        assertThat(histogram.getMaxMicros(), is(5000L));
+        assertThat(histogram.getMeanMicros(), is((98 * 100L + 3000 + 5000) / 100));
+    }
+
+    @Test
+    public void emptyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getP99Micros(), is(0L));
+        assertThat(histogram.getMeanMicros(), is(0L));
+    }
+
+    @Test
+    public void actionsAreCreatedOnce()
+    {
+        RequestMetrics metrics = new RequestMetrics(null);
+        ActionMetrics leagues = metrics.get("get", "/leagues");
+        assertThat(metrics.get("GET", "/leagues"), sameInstance(leagues));
+
+        leagues.requested();
+        leagues.requested();
+        leagues.failed();
+        leagues.record(RequestStage.ROUTING, TimeUnit.MICROSECONDS.toNanos(10));
+
+        String report = metrics.report();
+        assertThat(report, containsString("GET /leagues requests=2 errors=1\n"));
+        assertThat(report, containsString("GET /leagues routing count=1 mean=10us"));
+    }
+
+    @Test
+    public void responseTransformationIsLeftOutOfFlowLatency()
+    {
+        ActionMetrics metrics = new ActionMetrics("GET /leagues");
+        RequestTiming timing = new RequestTiming(metrics);
+        timing.responseTransformed(TimeUnit.MICROSECONDS.toNanos(300));
+        timing.flowCompleted(TimeUnit.MICROSECONDS.toNanos(1000), true);
+
+        assertThat(metrics.getLatency(RequestStage.RESPONSE).getMaxMicros(), is(300L));
+        assertThat(metrics.getLatency(RequestStage.FLOW).getMaxMicros(), is(700L));
+        assertThat(metrics.getErrorCount(), is(1L));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.raml.v2.api.loader.ResourceLoader;
+
+public class ApiValidationCacheTestCase
+{
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, String> files = new HashMap<>();
+    private final ResourceLoader filesLoader = new ResourceLoader()
+    {
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            String content = files.get(resourceName);
+            return content != null ? new ByteArrayInputStream(content.getBytes()) : null;
+        }
+    };
+    private File directory;
+    private ApiValidationCache cache;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        files.put("api/api.raml", "#%RAML 0.8\nschemas:\n  - user: !include user.json");
+        files.put("api/user.json", "{\"type\": \"object\"}");
+        directory = folder.newFolder("apikit");
+        cache = new ApiValidationCache(directory, "api/api.raml", "1.0|0.8");
+    }
+
+    @Test
+    public void unchangedDescriptorIsValidated()
+    {
+        assertFalse(cache.isValidated(new CachingResourceLoader(filesLoader)));
+
+        cache.store(validate());
+
+        assertTrue(cache.isValidated(new CachingResourceLoader(filesLoader)));
+    }
+
+    @Test
+    public void changedIncludeIsValidatedAgain()
+    {
+        cache.store(validate());
+        files.put("api/user.json", "{\"type\": \"array\"}");
+
+        assertFalse(cache.isValidated(new CachingResourceLoader(filesLoader)));
+    }
+
+    @Test
+    public void removedIncludeIsValidatedAgain()
+    {
+        cache.store(validate());
+        files.remove("api/user.json");
+
+        assertFalse(cache.isValidated(new CachingResourceLoader(filesLoader)));
+    }
+
+    @Test
+    public void recordIsRefreshedAfterBeingRead()
+    {
+        cache.store(validate());
+        assertTrue(cache.isValidated(new CachingResourceLoader(filesLoader)));
+        files.put("api/user.json", "{\"type\": \"array\"}");
+
+        cache.store(validate());
+
+        assertTrue(cache.isValidated(new CachingResourceLoader(filesLoader)));
+    }
+
+    @Test
+    public void upgradedToolchainValidatesAgain()
+    {
+        cache.store(validate());
+
+        ApiValidationCache upgraded = new ApiValidationCache(directory, "api/api.raml", "1.1|0.8");
+
+        assertFalse(upgraded.isValidated(new CachingResourceLoader(filesLoader)));
+    }
+
+    private CachingResourceLoader validate()
+    {
+        CachingResourceLoader resourceLoader = new CachingResourceLoader(filesLoader);
+        resourceLoader.fetchResource("api/api.raml");
+        resourceLoader.fetchResource("api/user.json");
+        return resourceLoader;
+    }
+}
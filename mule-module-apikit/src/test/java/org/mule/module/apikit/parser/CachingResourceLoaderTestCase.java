@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Test;
+import org.raml.v2.api.loader.ResourceLoader;
+
+public class CachingResourceLoaderTestCase
+{
+
+    @Test
+    public void fetchesResourceOnce() throws Exception
+    {
+        ResourceLoader delegate = mock(ResourceLoader.class);
+        when(delegate.fetchResource("types.raml")).thenReturn(new ByteArrayInputStream("#%RAML 1.0 Library".getBytes()));
+        CachingResourceLoader loader = new CachingResourceLoader(delegate);
+
+        assertEquals("#%RAML 1.0 Library", IOUtils.toString(loader.fetchResource("types.raml")));
+        assertEquals("#%RAML 1.0 Library", IOUtils.toString(loader.fetchResource("types.raml")));
+        verify(delegate, times(1)).fetchResource("types.raml");
+    }
+
+    @Test
+    public void missingResourcesAreNotCached()
+    {
+        org.raml.parser.loader.ResourceLoader delegate = mock(org.raml.parser.loader.ResourceLoader.class);
+        CachingResourceLoader loader = new CachingResourceLoader(delegate);
+
+        assertNull(loader.fetchResource("missing.raml"));
+        assertNull(loader.fetchResource("missing.raml"));
+        verify(delegate, times(2)).fetchResource("missing.raml");
+        assertEquals(0, loader.size());
+    }
+}
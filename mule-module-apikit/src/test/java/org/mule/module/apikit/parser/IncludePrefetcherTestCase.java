@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.parser;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.raml.v2.api.loader.ResourceLoader;
+
+public class IncludePrefetcherTestCase
+{
+
+    private static final String ROOT = "#%RAML 1.0\n" +
+                                       "title: Leagues\n" +
+                                       "uses:\n" +
+                                       "  types: libraries/types.raml\n" +
+                                       "  \"traits\": /common/traits.raml\n" +
+                                       "/leagues:\n" +
+                                       "  get:\n" +
+                                       "    body:\n" +
+                                       "      application/json:\n" +
+                                       "        schema: !include schemas/leagues.json\n" +
+                                       "        example: !include \"examples/leagues.json\"\n";
+
+    @Test
+    public void findsIncludesAndLibraries()
+    {
+        assertEquals(asList("api/schemas/leagues.json", "api/examples/leagues.json", "api/libraries/types.raml", "api/common/traits.raml"),
+                     IncludePrefetcher.findReferences("api/leagues.raml", "api/leagues.raml", ROOT));
+    }
+
+    @Test
+    public void usesEndsWithBlock()
+    {
+        String raml = "#%RAML 1.0\nuses:\n  lib: lib.raml\ntitle: Leagues\nversion: v1\n";
+        assertEquals(asList("lib.raml"), IncludePrefetcher.findReferences("api.raml", "api.raml", raml));
+    }
+
+    @Test
+    public void normalizesReferencesOfNestedDocuments()
+    {
+        String raml = "#%RAML 1.0 Library\n" +
+                      "types:\n" +
+                      "  League: !include ../types/./league.raml\n" +
+                      "  Team: !include /types/team.raml\n" +
+                      "  Outside: !include ../../../outside.raml\n";
+        assertEquals(asList("api/types/league.raml", "api/types/team.raml"),
+                     IncludePrefetcher.findReferences("api/leagues.raml", "api/libraries/types.raml", raml));
+    }
+
+    @Test
+    public void prefetchesNestedIncludes()
+    {
+        Map<String, String> files = new HashMap<>();
+        files.put("api/libraries/types.raml", "#%RAML 1.0 Library\ntypes:\n  League: !include league.raml\n");
+        files.put("api/libraries/league.raml", "#%RAML 1.0 DataType\ntype: object\n");
+        files.put("api/schemas/leagues.json", "{}");
+        CachingResourceLoader loader = new CachingResourceLoader(new MapResourceLoader(files));
+
+        new IncludePrefetcher(loader, 4).prefetch("api/leagues.raml", ROOT);
+
+        assertEquals(3, loader.size());
+        assertTrue(loader.getResources().containsKey("api/libraries/league.raml"));
+    }
+
+    @Test
+    public void prefetchesParentDirectoryIncludes()
+    {
+        Map<String, String> files = new HashMap<>();
+        files.put("api/libraries/types.raml", "#%RAML 1.0 Library\ntypes:\n  League: !include ../types/league.raml\n");
+        files.put("api/types/league.raml", "#%RAML 1.0 DataType\nproperties:\n  team: !include ../examples/team.json\n");
+        files.put("api/examples/team.json", "{}");
+        files.put("api/common/traits.raml", "#%RAML 1.0 Library\n");
+        CachingResourceLoader loader = new CachingResourceLoader(new MapResourceLoader(files));
+
+        new IncludePrefetcher(loader, 4).prefetch("api/leagues.raml", ROOT);
+
+        assertTrue(loader.getResources().containsKey("api/types/league.raml"));
+        assertTrue(loader.getResources().containsKey("api/examples/team.json"));
+        assertTrue(loader.getResources().containsKey("api/common/traits.raml"));
+        assertEquals(4, loader.size());
+    }
+
+    private static class MapResourceLoader implements ResourceLoader
+    {
+
+        private final Map<String, String> files;
+
+        MapResourceLoader(Map<String, String> files)
+        {
+            this.files = files;
+        }
+
+        @Override
+        public InputStream fetchResource(String resourceName)
+        {
+            String content = files.get(resourceName);
+            return content != null ? new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)) : null;
+        }
+    }
+}
@@ -8,6 +8,7 @@ package org.mule.module.apikit.transform;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -24,6 +25,7 @@ import org.mule.api.transformer.Transformer;
 import org.mule.api.transformer.TransformerException;
 import org.mule.config.i18n.CoreMessages;
 import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.module.apikit.management.ResponseTransformationStatistics;
 import org.mule.raml.interfaces.model.IMimeType;
 import org.mule.transformer.types.DataTypeFactory;
 import org.mule.transformer.types.SimpleDataType;
@@ -308,5 +310,27 @@ public class ApikitResponseTransformerTestCase
         }
         assertNull(responsePayload);
     }
-}
 
+    @Test
+    public void passThroughAndTransformationsAreCounted() throws Exception
+    {
+        List<String> responseMimeType = new ArrayList<>();
+        responseMimeType.add("application/json");
+        responseMimeType.add("application/xml");
+        when(message.getPayload()).thenReturn("{}");
+        when(message.getDataType()).thenReturn(new SimpleDataType(String.class, "application/json"));
+        when(message.getEncoding()).thenReturn("UTF-8");
+        responseTransformer.transformToExpectedContentType(message, "application/json", responseMimeType, "application/json");
+        Mockito.verify(message).setOutboundProperty("Content-Type", "application/json;charset=UTF-8");
+
+        when(TransformerCache.getTransformerCache(muleContext)).thenReturn(transformerCache);
+        when(transformerCache.get(Mockito.isA(DataTypePair.class))).thenReturn(transformer);
+        responseTransformer.transformToExpectedContentType(message, "application/xml", responseMimeType, "application/xml");
+
+        ResponseTransformationStatistics statistics = responseTransformer.getStatistics();
+        assertEquals(1, statistics.getPassedThroughCount());
+        assertEquals(1, statistics.getTransformedCount());
+        assertTrue(statistics.isTransformed("application/xml"));
+        assertFalse(statistics.isTransformed("application/json"));
+    }
+}
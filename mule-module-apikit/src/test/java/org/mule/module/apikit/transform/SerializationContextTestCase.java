@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.transform;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+
+public class SerializationContextTestCase
+{
+
+    private SerializationContext context = new SerializationContext();
+
+    @Test
+    public void reusesJaxbContextPerClassSet() throws Exception
+    {
+        JAXBContext jaxbContext = context.getJaxbContext(Item.class, Order.class);
+        assertThat(context.getJaxbContext(Order.class, Item.class), sameInstance(jaxbContext));
+        assertThat(context.getJaxbContext(Item.class), not(sameInstance(jaxbContext)));
+    }
+
+    @Test
+    public void reusesMarshallingContextPerClassSet() throws Exception
+    {
+        JAXBContext marshallingContext = context.getMarshallingContext(Item.class);
+        assertThat(context.getMarshallingContext(Item.class), sameInstance(marshallingContext));
+        assertThat(context.getJaxbContext(Item.class), not(sameInstance(marshallingContext)));
+    }
+
+    @Test
+    public void marshallingContextIgnoresStackTraces() throws Exception
+    {
+        Failure failure = new Failure();
+        failure.setError(new IllegalStateException("failed"));
+        StringWriter writer = new StringWriter();
+
+        context.getMarshallingContext(Failure.class).createMarshaller().marshal(failure, writer);
+
+        assertThat(writer.toString(), containsString("<failure>"));
+        assertThat(writer.toString(), not(containsString("stackTrace")));
+    }
+
+    @Test
+    public void sharesJsonWriter() throws Exception
+    {
+        assertThat(context.getJsonWriter().writeValueAsString(new Item()), is("{\"name\":\"item\"}"));
+        assertThat(context.getObjectMapper().writeValueAsString(new Item()), is("{\"name\":\"item\"}"));
+    }
+
+    @XmlRootElement
+    public static class Order
+    {
+
+        private int quantity;
+
+        public int getQuantity()
+        {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity)
+        {
+            this.quantity = quantity;
+        }
+    }
+
+    @XmlRootElement
+    public static class Failure
+    {
+
+        private Exception error;
+
+        public Exception getError()
+        {
+            return error;
+        }
+
+        public void setError(Exception error)
+        {
+            this.error = error;
+        }
+    }
+}
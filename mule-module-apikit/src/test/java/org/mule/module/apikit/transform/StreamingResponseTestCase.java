@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.transform;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.mule.api.MuleEvent;
+import org.mule.api.transformer.Transformer;
+import org.mule.module.json.transformers.ObjectToJson;
+import org.mule.module.xml.transformer.jaxb.JAXBMarshallerTransformer;
+import org.mule.transformer.types.DataTypeFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import javax.xml.bind.JAXBContext;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+public class StreamingResponseTestCase
+{
+
+    @Test
+    public void writesJsonWithTransformerMapper() throws Exception
+    {
+        ObjectToJson transformer = new ObjectToJson();
+        transformer.setMapper(new ObjectMapper());
+
+        StreamingResponse response = StreamingResponse.forTransformer(transformer, Arrays.asList(new Item(), new Item()), "UTF-8");
+
+        assertThat(write(response), is("[{\"name\":\"item\"},{\"name\":\"item\"}]"));
+    }
+
+    @Test
+    public void writesXmlWithTransformerContext() throws Exception
+    {
+        Transformer transformer = new JAXBMarshallerTransformer(JAXBContext.newInstance(Item.class), DataTypeFactory.STRING);
+
+        StreamingResponse response = StreamingResponse.forTransformer(transformer, new Item(), "UTF-8");
+
+        assertThat(write(response), containsString("<item><name>item</name></item>"));
+    }
+
+    @Test
+    public void serializedPayloadsAreNotStreamed()
+    {
+        ObjectToJson transformer = new ObjectToJson();
+        transformer.setMapper(new ObjectMapper());
+
+        assertThat(StreamingResponse.forTransformer(transformer, "{}", "UTF-8"), nullValue());
+        assertThat(StreamingResponse.forTransformer(transformer, new byte[0], "UTF-8"), nullValue());
+        assertThat(StreamingResponse.forTransformer(mock(Transformer.class), new Item(), "UTF-8"), nullValue());
+    }
+
+    private String write(StreamingResponse response) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.write(mock(MuleEvent.class), out);
+        return out.toString("UTF-8");
+    }
+}
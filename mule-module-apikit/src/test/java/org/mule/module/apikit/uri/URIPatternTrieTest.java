@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.apikit.uri;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class URIPatternTrieTest
+{
+
+    private URIPatternTrie trie;
+
+    @Before
+    public void setUp()
+    {
+        List<URIPattern> patterns = new ArrayList<URIPattern>();
+        for (String template : new String[] {"/", "/leagues", "/leagues/{leagueId}", "/leagues/liga",
+                "/leagues/{leagueId}/teams/{teamId}", "/files/{name}.json"})
+        {
+            patterns.add(new URIPattern(template));
+        }
+        this.trie = new URIPatternTrie(patterns);
+    }
+
+    @Test
+    public void testRoot() throws Exception
+    {
+        assertEquals("/", trie.resolve("/").getURIPattern().toString());
+    }
+
+    @Test
+    public void testLiteralPreferredOverVariable() throws Exception
+    {
+        URIResolveResult result = trie.resolve("/leagues/liga");
+        assertEquals("/leagues/liga", result.getURIPattern().toString());
+        assertEquals(0, result.names().size());
+    }
+
+    @Test
+    public void testResolveVariables() throws Exception
+    {
+        URIResolveResult result = trie.resolve("/leagues/premier/teams/arsenal");
+        assertEquals("/leagues/{leagueId}/teams/{teamId}", result.getURIPattern().toString());
+        assertEquals("premier", result.get("leagueId"));
+        assertEquals("arsenal", result.get("teamId"));
+    }
+
+    @Test
+    public void testResolveEncodedSlash() throws Exception
+    {
+        URIResolveResult result = trie.resolve("/leagues/a%2Fb/teams/c");
+        assertEquals("a/b", result.get("leagueId"));
+    }
+
+    @Test
+    public void testMixedSegment() throws Exception
+    {
+        URIResolveResult result = trie.resolve("/files/report.json");
+        assertEquals("/files/{name}.json", result.getURIPattern().toString());
+        assertEquals("report", result.get("name"));
+    }
+
+    @Test
+    public void testNoMatch() throws Exception
+    {
+        assertNull(trie.resolve("/teams"));
+        assertNull(trie.resolve("/leagues/premier/teams"));
+        assertNull(trie.resolve("/leagues/"));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.module.apikit.uri;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class URIShapeIndexTest
+{
+
+    private URIShapeIndex index;
+
+    @Before
+    public void setUp()
+    {
+        List<URIPattern> patterns = new ArrayList<URIPattern>();
+        patterns.add(new URIPattern("/users"));
+        patterns.add(new URIPattern("/users/{id}"));
+        patterns.add(new URIPattern("/users/me"));
+        patterns.add(new URIPattern("/files/{name}.json"));
+        index = new URIShapeIndex(patterns);
+    }
+
+    @Test
+    public void variableValuesShareShape()
+    {
+        assertThat(index.shapeOf("/users/1"), equalTo(index.shapeOf("/users/2")));
+    }
+
+    @Test
+    public void literalsKeepTheirShape()
+    {
+        assertThat(index.shapeOf("/users/me"), not(equalTo(index.shapeOf("/users/1"))));
+        assertThat(index.shapeOf("/users"), not(equalTo(index.shapeOf("/users/1"))));
+    }
+
+    @Test
+    public void mixedSegmentMatchesAreRecorded()
+    {
+        assertThat(index.shapeOf("/files/a.json"), equalTo(index.shapeOf("/files/b.json")));
+        assertThat(index.shapeOf("/files/a.json"), not(equalTo(index.shapeOf("/files/a.xml"))));
+    }
+
+    @Test
+    public void invalidVariableValuesAreRecorded()
+    {
+        assertThat(index.shapeOf("/users/a:b"), not(equalTo(index.shapeOf("/users/ab"))));
+    }
+
+    @Test
+    public void trailingSlashIsKept()
+    {
+        assertThat(index.shapeOf("/users/"), not(equalTo(index.shapeOf("/users"))));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import com.jayway.restassured.RestAssured;
+
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class BodySizeLimitTestCase extends FunctionalTestCase
+{
+
+    @Rule
+    public DynamicPort serverPort = new DynamicPort("http.port");
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        RestAssured.port = serverPort.getNumber();
+        super.doSetUp();
+    }
+
+    @Override
+    protected String getConfigResources()
+    {
+        return "org/mule/module/apikit/validation/body-size/mule-config.xml";
+    }
+
+    @Test
+    public void annotationLimitAcceptsSmallerBody()
+    {
+        given().body(json(16)).contentType("application/json")
+                .expect().statusCode(200)
+                .when().post("/api/limited");
+    }
+
+    @Test
+    public void annotationLimitRejectsLargerContentLength()
+    {
+        given().body(json(17)).contentType("application/json")
+                .expect().statusCode(413)
+                .when().post("/api/limited");
+    }
+
+    @Test
+    public void annotationRaisesConfigLimit()
+    {
+        given().body(json(512)).contentType("application/json")
+                .expect().statusCode(200)
+                .when().post("/api/raised");
+    }
+
+    @Test
+    public void configLimitAppliesToUnannotatedActions()
+    {
+        given().body(json(64)).contentType("application/json")
+                .expect().statusCode(200)
+                .when().post("/api/default");
+        given().body(json(65)).contentType("application/json")
+                .expect().statusCode(413)
+                .when().post("/api/default");
+    }
+
+    @Test
+    public void chunkedBodyIsRejectedWhileRead() throws Exception
+    {
+        assertThat(postChunked("/api/limited", json(256)), is(413));
+        assertThat(postChunked("/api/default", json(256)), is(413));
+        assertThat(postChunked("/api/raised", json(256)), is(200));
+    }
+
+    @Test
+    public void stringPayloadIsCheckedByItsEncodedSize() throws Exception
+    {
+        assertThat(postChunked("/string/default", json(64)), is(200));
+        assertThat(postChunked("/string/default", json(65)), is(413));
+        assertThat(postChunked("/string/limited", json(17)), is(413));
+    }
+
+    private int postChunked(String path, String body) throws Exception
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + serverPort.getNumber() + path).openConnection();
+        try
+        {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            // no content length is sent, the body size is only known while it is read
+            connection.setChunkedStreamingMode(8);
+            try (OutputStream output = connection.getOutputStream())
+            {
+                output.write(body.getBytes("UTF-8"));
+            }
+            return connection.getResponseCode();
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Returns a json string of exactly the given length in bytes.
+     */
+    private static String json(int length)
+    {
+        char[] padding = new char[length - "{\"a\":\"\"}".length()];
+        Arrays.fill(padding, 'x');
+        return "{\"a\":\"" + new String(padding) + "\"}";
+    }
+}
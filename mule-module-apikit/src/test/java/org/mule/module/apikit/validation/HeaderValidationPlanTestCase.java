@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.api.MuleMessage;
+import org.mule.api.transport.PropertyScope;
+import org.mule.module.apikit.exception.InvalidHeaderException;
+import org.mule.raml.interfaces.model.parameter.IParameter;
+import org.mule.util.CaseInsensitiveHashMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HeaderValidationPlanTestCase
+{
+
+    private Map<String, IParameter> headers = new LinkedHashMap<>();
+    private Map<String, String> incoming = new CaseInsensitiveHashMap();
+    private MuleMessage message = mock(MuleMessage.class);
+
+    @Before
+    public void setUp()
+    {
+        IParameter required = mock(IParameter.class);
+        when(required.isRequired()).thenReturn(true);
+        when(required.validate(anyString())).thenReturn(true);
+        headers.put("X-Required", required);
+
+        IParameter withDefault = mock(IParameter.class);
+        when(withDefault.getDefaultValue()).thenReturn("fallback");
+        when(withDefault.validate(anyString())).thenReturn(true);
+        headers.put("X-Default", withDefault);
+
+        IParameter wildcard = mock(IParameter.class);
+        when(wildcard.validate("ok")).thenReturn(true);
+        headers.put("X-Custom-{?}", wildcard);
+    }
+
+    @Test
+    public void validHeaders() throws Exception
+    {
+        incoming.put("x-required", "yes");
+        incoming.put("X-Custom-One", "ok");
+        new HeaderValidationPlan(headers).validate(incoming, message);
+        assertThat(incoming.get("X-Default"), is("fallback"));
+        verify(message).setProperty("X-Default", "fallback", PropertyScope.INBOUND);
+    }
+
+    @Test(expected = InvalidHeaderException.class)
+    public void missingRequiredHeader() throws Exception
+    {
+        new HeaderValidationPlan(headers).validate(incoming, message);
+    }
+
+    @Test(expected = InvalidHeaderException.class)
+    public void invalidWildcardHeader() throws Exception
+    {
+        incoming.put("X-Required", "yes");
+        incoming.put("X-Custom-Two", "ko");
+        new HeaderValidationPlan(headers).validate(incoming, message);
+    }
+
+    @Test
+    public void requiredCheckIgnoresValues() throws Exception
+    {
+        incoming.put("X-Required", "yes");
+        incoming.put("X-Custom-Two", "ko");
+        new HeaderValidationPlan(headers).validateRequired(incoming);
+    }
+
+    @Test(expected = InvalidHeaderException.class)
+    public void requiredCheckRejectsMissingHeader() throws Exception
+    {
+        new HeaderValidationPlan(headers).validateRequired(incoming);
+    }
+}
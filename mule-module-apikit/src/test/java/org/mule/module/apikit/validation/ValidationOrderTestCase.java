@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.module.apikit.management.MBeanRegistrar;
+import org.mule.tck.junit4.FunctionalTestCase;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import com.jayway.restassured.RestAssured;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ValidationOrderTestCase extends FunctionalTestCase
+{
+
+    private static final String INVALID_ORDER = "{\"quantity\": \"many\"}";
+
+    @Rule
+    public DynamicPort serverPort = new DynamicPort("http.port");
+
+    @Override
+    protected void doSetUp() throws Exception
+    {
+        RestAssured.port = serverPort.getNumber();
+        super.doSetUp();
+    }
+
+    @Override
+    protected String getConfigResources()
+    {
+        return "org/mule/module/apikit/validation/validation-order/mule-config.xml";
+    }
+
+    @Test
+    public void validRequestIsRouted()
+    {
+        given().header("X-Token", "secret").body("{\"quantity\": 1}").contentType("application/json")
+                .expect().statusCode(200).response().body(is("created"))
+                .when().post("/headers-first/orders");
+    }
+
+    @Test
+    public void defaultOrderChecksContentTypeFirst() throws Exception
+    {
+        given().body(INVALID_ORDER).contentType("text/plain")
+                .expect().statusCode(415).response().body(is("unsupported media type"))
+                .when().post("/default/orders");
+
+        assertThat(rejections("defaultOrder", "ContentTypeRejections"), is(1L));
+        assertThat(rejections("defaultOrder", "RequiredRejections"), is(0L));
+    }
+
+    @Test
+    public void configuredOrderChecksRequiredHeadersFirst() throws Exception
+    {
+        given().body(INVALID_ORDER).contentType("text/plain")
+                .expect().statusCode(400).response().body(is("invalid header"))
+                .when().post("/headers-first/orders");
+
+        assertThat(rejections("headersFirst", "RequiredRejections"), is(1L));
+        assertThat(rejections("headersFirst", "ContentTypeRejections"), is(0L));
+    }
+
+    @Test
+    public void bodyIsNotValidatedAfterAnEarlierRejection() throws Exception
+    {
+        given().body(INVALID_ORDER).contentType("application/json")
+                .expect().statusCode(400).response().body(is("invalid header"))
+                .when().post("/headers-first/orders");
+
+        assertThat(rejections("headersFirst", "RequiredRejections"), is(1L));
+        assertThat(rejections("headersFirst", "BodyRejections"), is(0L));
+    }
+
+    @Test
+    public void bodyIsValidatedFirstWhenConfigured() throws Exception
+    {
+        given().body(INVALID_ORDER).contentType("application/json")
+                .expect().statusCode(400).response().body(is("bad request"))
+                .when().post("/body-first/orders");
+
+        assertThat(rejections("bodyFirst", "BodyRejections"), is(1L));
+        assertThat(rejections("bodyFirst", "RequiredRejections"), is(0L));
+    }
+
+    private long rejections(String config, String attribute) throws Exception
+    {
+        ObjectName name = new ObjectName(String.format("%s:application=%s,config=%s,type=ValidationRejections", MBeanRegistrar.DOMAIN,
+                                                       ObjectName.quote(muleContext.getConfiguration().getId()), ObjectName.quote(config)));
+        return (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, attribute);
+    }
+}
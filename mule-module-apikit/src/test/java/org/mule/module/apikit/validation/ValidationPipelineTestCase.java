@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.module.apikit.validation.ValidationStage.ACCEPT;
+import static org.mule.module.apikit.validation.ValidationStage.BODY;
+import static org.mule.module.apikit.validation.ValidationStage.BODY_SIZE;
+import static org.mule.module.apikit.validation.ValidationStage.CONTENT_TYPE;
+import static org.mule.module.apikit.validation.ValidationStage.HEADERS;
+import static org.mule.module.apikit.validation.ValidationStage.METHOD;
+import static org.mule.module.apikit.validation.ValidationStage.QUERY_PARAMETERS;
+import static org.mule.module.apikit.validation.ValidationStage.REQUIRED;
+import static org.mule.module.apikit.validation.ValidationStage.URI_PARAMETERS;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ValidationPipelineTestCase
+{
+
+    @Test
+    public void cheapestChecksFirstByDefault()
+    {
+        assertThat(new ValidationPipeline().getOrder(),
+                   is(Arrays.asList(METHOD, BODY_SIZE, CONTENT_TYPE, ACCEPT, REQUIRED, URI_PARAMETERS, QUERY_PARAMETERS, HEADERS, BODY)));
+        assertThat(new ValidationPipeline(" ").getOrder(), is(new ValidationPipeline().getOrder()));
+    }
+
+    @Test
+    public void unlistedStagesRunLast()
+    {
+        ValidationPipeline pipeline = new ValidationPipeline("query-parameters, Headers,method,body-size");
+        assertThat(pipeline.getOrder(),
+                   is(Arrays.asList(METHOD, BODY_SIZE, QUERY_PARAMETERS, HEADERS, CONTENT_TYPE, ACCEPT, REQUIRED, URI_PARAMETERS, BODY)));
+        assertThat(pipeline.toString(), is("method,body-size,query-parameters,headers,content-type,accept,required,uri-parameters,body"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownStage()
+    {
+        new ValidationPipeline("content-type,schema");
+    }
+
+    @Test
+    public void countsRejectionsByStage()
+    {
+        ValidationPipeline pipeline = new ValidationPipeline();
+        pipeline.rejected(REQUIRED);
+        pipeline.rejected(REQUIRED);
+        pipeline.rejected(BODY);
+        assertThat(pipeline.getRejections(REQUIRED), is(2L));
+        assertThat(pipeline.getRejections(BODY), is(1L));
+        assertThat(pipeline.getRejections(CONTENT_TYPE), is(0L));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.mule.module.apikit.validation.cache.CompiledXmlSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+public class XmlValidationPoolTestCase
+{
+
+    private static final String XSD = "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+                                      "<xs:element name='count' type='xs:int'/></xs:schema>";
+
+    private XmlValidationPool pool = new XmlValidationPool(false, false);
+    private CompiledXmlSchema schema;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        schema = new CompiledXmlSchema(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(new StreamSource(new StringReader(XSD))));
+    }
+
+    private void validate(String xml) throws Exception
+    {
+        schema.getValidator().validate(new SAXSource(pool.getReader(), new InputSource(new StringReader(xml))));
+    }
+
+    @Test
+    public void validatorIsReusedAfterFailure() throws Exception
+    {
+        try
+        {
+            validate("<count>many</count>");
+        }
+        catch (SAXException e)
+        {
+            // expected
+        }
+        validate("<count>1</count>");
+        assertThat(schema.getValidator(), sameInstance(schema.getValidator()));
+    }
+
+    @Test
+    public void validatorsAreHeldPerSchemaEntry() throws Exception
+    {
+        CompiledXmlSchema other = new CompiledXmlSchema(schema.getSchema());
+        assertThat(other.getValidator(), not(sameInstance(schema.getValidator())));
+    }
+
+    @Test(expected = SAXException.class)
+    public void doctypeIsRejected() throws Exception
+    {
+        validate("<!DOCTYPE count [<!ENTITY e SYSTEM 'file:///etc/passwd'>]><count>&e;</count>");
+    }
+
+    @Test
+    public void declaredEncoding()
+    {
+        assertThat(pool.getDeclaredEncoding(new ByteArrayInputStream("<?xml version='1.0' encoding='ISO-8859-1'?><count>1</count>".getBytes())), is("ISO-8859-1"));
+        assertThat(pool.getDeclaredEncoding(new ByteArrayInputStream("<count>1</count>".getBytes())), nullValue());
+    }
+}
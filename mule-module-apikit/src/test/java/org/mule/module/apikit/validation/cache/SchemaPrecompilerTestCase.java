@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.module.apikit.exception.ApikitRuntimeException;
+import org.mule.raml.interfaces.model.IAction;
+import org.mule.raml.interfaces.model.IActionType;
+import org.mule.raml.interfaces.model.IMimeType;
+import org.mule.raml.interfaces.model.IResource;
+import org.mule.raml.interfaces.model.IResponse;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchemaPrecompilerTestCase
+{
+
+    private Set<String> compiled = new ConcurrentSkipListSet<>();
+    private Set<String> failing = new ConcurrentSkipListSet<>();
+    private List<IResource> resources;
+    private LoadingCache<String, String> cache = CacheBuilder.newBuilder().build(new CacheLoader<String, String>()
+    {
+        @Override
+        public String load(String key)
+        {
+            if (failing.contains(key))
+            {
+                throw new IllegalStateException("unresolvable");
+            }
+            compiled.add(key);
+            return key;
+        }
+    });
+
+    @Before
+    public void setUp()
+    {
+        IMimeType mimeType = mock(IMimeType.class);
+        when(mimeType.getSchema()).thenReturn("schema");
+        Map<String, IMimeType> body = new HashMap<>();
+        body.put("application/json", mimeType);
+        body.put("text/plain", mimeType);
+
+        IResponse response = mock(IResponse.class);
+        when(response.hasBody()).thenReturn(true);
+        when(response.getBody()).thenReturn(body);
+
+        IResource resource = mock(IResource.class);
+        when(resource.getUri()).thenReturn("/items");
+        IAction action = mock(IAction.class);
+        when(action.getResource()).thenReturn(resource);
+        when(action.getType()).thenReturn(IActionType.POST);
+        when(action.hasBody()).thenReturn(true);
+        when(action.getBody()).thenReturn(body);
+        when(action.getResponses()).thenReturn(Collections.singletonMap("201", response));
+        when(resource.getActions()).thenReturn(Collections.singletonMap(IActionType.POST, action));
+        resources = Collections.singletonList(resource);
+    }
+
+    @Test
+    public void compilesRequestAndResponseSchemas()
+    {
+        new SchemaPrecompiler(cache, cache, 2).precompile(resources);
+        assertThat(compiled.size(), is(2));
+        assertThat(compiled.contains("/items,POST,application/json"), is(true));
+        assertThat(compiled.contains("/items,POST,application/json,201"), is(true));
+    }
+
+    @Test
+    public void responseSchemaFailureIsNotFatal()
+    {
+        failing.add("/items,POST,application/json,201");
+        new SchemaPrecompiler(cache, cache, 2).precompile(resources);
+        assertThat(compiled.contains("/items,POST,application/json"), is(true));
+    }
+
+    @Test(expected = ApikitRuntimeException.class)
+    public void requestSchemaFailureIsFatal()
+    {
+        failing.add("/items,POST,application/json");
+        new SchemaPrecompiler(cache, cache, 2).precompile(resources);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.io;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.mule.util.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class ReplayBufferTestCase
+{
+
+    private static final String PAYLOAD = "{\"name\": \"Barcelona\", \"homeCity\": \"Barcelona\"}";
+
+    @Test
+    public void replayFromMemory() throws Exception
+    {
+        ReplayBuffer buffer = new ReplayBuffer(new ByteArrayInputStream(PAYLOAD.getBytes()), 1024);
+        assertThat(buffer.read(new byte[10], 0, 10), is(10));
+        buffer.drain();
+        InputStream replay = buffer.replay();
+        assertThat(replay, instanceOf(ByteArrayInputStream.class));
+        assertThat(IOUtils.toString(replay), is(PAYLOAD));
+    }
+
+    @Test
+    public void replayFromFile() throws Exception
+    {
+        ReplayBuffer buffer = new ReplayBuffer(new ByteArrayInputStream(PAYLOAD.getBytes()), 16);
+        buffer.skip(5);
+        buffer.drain();
+        InputStream replay = buffer.replay();
+        assertThat(replay, not(instanceOf(ByteArrayInputStream.class)));
+        assertThat(IOUtils.toString(replay), is(PAYLOAD));
+        replay.close();
+    }
+
+    @Test
+    public void discardDeletesFileOfUnclosedReplay() throws Exception
+    {
+        int retained = retainedFiles();
+        ReplayBuffer buffer = new ReplayBuffer(new ByteArrayInputStream(PAYLOAD.getBytes()), 16);
+        buffer.drain();
+        assertThat(buffer.isFileBacked(), is(true));
+        assertThat(retainedFiles(), is(retained + 1));
+        InputStream replay = buffer.replay();
+        assertThat(replay.read(), is((int) '{'));
+        buffer.discard();
+        assertThat(retainedFiles(), is(retained));
+    }
+
+    @Test
+    public void memoryReplayIsNotFileBacked() throws Exception
+    {
+        ReplayBuffer buffer = new ReplayBuffer(new ByteArrayInputStream(PAYLOAD.getBytes()), 1024);
+        buffer.drain();
+        assertThat(buffer.isFileBacked(), is(false));
+        assertThat(IOUtils.toString(buffer.replay()), is(PAYLOAD));
+        buffer.discard();
+    }
+
+    private static int retainedFiles()
+    {
+        int count = 0;
+        for (String name : new File(System.getProperty("java.io.tmpdir")).list())
+        {
+            if (name.startsWith("apikit-payload"))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+}
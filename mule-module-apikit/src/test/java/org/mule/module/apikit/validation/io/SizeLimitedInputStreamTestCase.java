@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.module.apikit.validation.io;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.module.apikit.validation.io.SizeLimitedInputStream.BodySizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class SizeLimitedInputStreamTestCase
+{
+
+    private static final byte[] PAYLOAD = "{\"name\": \"Barcelona\", \"homeCity\": \"Barcelona\"}".getBytes();
+
+    @Test
+    public void readsUpToTheLimit() throws Exception
+    {
+        InputStream stream = new SizeLimitedInputStream(new ByteArrayInputStream(PAYLOAD), PAYLOAD.length);
+        byte[] buffer = new byte[PAYLOAD.length + 10];
+        assertThat(stream.read(buffer, 0, buffer.length), is(PAYLOAD.length));
+        assertThat(stream.read(), is(-1));
+    }
+
+    @Test
+    public void failsPastTheLimit() throws Exception
+    {
+        InputStream stream = new SizeLimitedInputStream(new ByteArrayInputStream(PAYLOAD), 16);
+        assertThat(stream.skip(10), is(10L));
+        for (int i = 0; i < 6; i++)
+        {
+            stream.read();
+        }
+        try
+        {
+            stream.read();
+            fail("Expected the read past the limit to fail");
+        }
+        catch (BodySizeExceededException e)
+        {
+            assertThat(e.getRestException().getMessage(), is("Request body larger than 16 bytes"));
+        }
+    }
+}
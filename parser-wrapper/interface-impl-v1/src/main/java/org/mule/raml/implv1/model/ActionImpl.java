@@ -201,4 +201,10 @@ public class ActionImpl implements IAction
         action.getIs().add(s);
     }
 
+    public String getAnnotation(String name)
+    {
+        // RAML 0.8 has no annotations
+        return null;
+    }
+
 }
@@ -35,6 +35,20 @@ public class ParserV2Utils
         return wrapApiModel(ramlModelResult);
     }
 
+    /**
+     * Parses the descriptor into a model that can be both validated and built, so the
+     * descriptor is parsed only once. A null content is fetched from the resource loader.
+     */
+    public static RamlModelResult parse(ResourceLoader resourceLoader, String ramlPath, String content)
+    {
+        return new RamlModelBuilder(resourceLoader).buildApi(content, ramlPath);
+    }
+
+    public static IRaml build(RamlModelResult ramlModelResult)
+    {
+        return wrapApiModel(ramlModelResult);
+    }
+
     private static IRaml wrapApiModel(RamlModelResult ramlModelResult)
     {
         if (ramlModelResult.hasErrors())
@@ -54,11 +68,7 @@ public class ParserV2Utils
 
         try
         {
-            RamlModelResult ramlApiResult = new RamlModelBuilder(resourceLoader).buildApi(content, ramlPath);
-            for (ValidationResult validationResult : ramlApiResult.getValidationResults())
-            {
-                result.add(validationResult.toString());
-            }
+            result.addAll(validate(parse(resourceLoader, ramlPath, content)));
         }
         catch (Exception e)
         {
@@ -67,6 +77,16 @@ public class ParserV2Utils
         return result;
     }
 
+    public static List<String> validate(RamlModelResult ramlModelResult)
+    {
+        List<String> result = new ArrayList<>();
+        for (ValidationResult validationResult : ramlModelResult.getValidationResults())
+        {
+            result.add(validationResult.toString());
+        }
+        return result;
+    }
+
     public static List<String> validate(ResourceLoader resourceLoader, String ramlPath)
     {
         return validate(resourceLoader, ramlPath, null);
@@ -185,4 +185,11 @@ public class ActionImpl implements IAction
     {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public String getAnnotation(String name)
+    {
+        // RAML 0.8 has no annotations
+        return null;
+    }
 }
@@ -14,6 +14,7 @@ import org.mule.raml.interfaces.model.IResponse;
 import org.mule.raml.interfaces.model.ISecurityReference;
 import org.mule.raml.interfaces.model.parameter.IParameter;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.Map;
 
 import org.raml.v2.api.model.v10.bodies.Response;
 import org.raml.v2.api.model.v10.datamodel.TypeDeclaration;
+import org.raml.v2.api.model.v10.declarations.AnnotationRef;
 import org.raml.v2.api.model.v10.methods.Method;
 
 public class ActionImpl implements IAction
@@ -179,4 +181,23 @@ public class ActionImpl implements IAction
     {
         throw new UnsupportedOperationException();
     }
+
+    @Override
+    public String getAnnotation(String name)
+    {
+        for (AnnotationRef annotation : method.annotations())
+        {
+            if (annotation.annotation().name().equals(name))
+            {
+                Object value = annotation.structuredValue().value();
+                if (value instanceof Number)
+                {
+                    // number annotations are read as doubles, 1048576 would be rendered as 1048576.0
+                    return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+                }
+                return value != null ? String.valueOf(value) : null;
+            }
+        }
+        return null;
+    }
 }
@@ -12,6 +12,7 @@ import org.raml.v2.api.model.v10.datamodel.ArrayTypeDeclaration;
 import org.raml.v2.api.model.v10.datamodel.ExampleSpec;
 import org.raml.v2.api.model.v10.datamodel.TypeDeclaration;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,27 +20,65 @@ import java.util.Map;
 public class ParameterImpl implements IParameter
 {
 
+    private static final int VALIDATION_CACHE_SIZE = 128;
+
     private TypeDeclaration typeDeclaration;
+    private ScalarValidator scalarValidator;
+    private final Map<String, List<ValidationResult>> validationCache = new LinkedHashMap<String, List<ValidationResult>>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<ValidationResult>> eldest)
+        {
+            return size() > VALIDATION_CACHE_SIZE;
+        }
+    };
 
     public ParameterImpl(TypeDeclaration typeDeclaration)
     {
         this.typeDeclaration = typeDeclaration;
+        this.scalarValidator = ScalarValidator.compile(typeDeclaration);
     }
 
     @Override
     public boolean validate(String value)
     {
-        List<ValidationResult> results = typeDeclaration.validate(value);
+        List<ValidationResult> results = validationResults(value);
         return results.isEmpty();
     }
 
     @Override
     public String message(String value)
     {
-        List<ValidationResult> results = typeDeclaration.validate(value);
+        List<ValidationResult> results = validationResults(value);
         return results.isEmpty() ? "OK" : results.get(0).getMessage();
     }
 
+    /**
+     * Validates the value using the scalar fast path when possible, otherwise the type
+     * declaration, remembering the results of the most recently validated values.
+     */
+    private List<ValidationResult> validationResults(String value)
+    {
+        if (value != null && scalarValidator != null && scalarValidator.accepts(value))
+        {
+            return Collections.emptyList();
+        }
+        List<ValidationResult> results;
+        synchronized (validationCache)
+        {
+            results = validationCache.get(value);
+        }
+        if (results == null)
+        {
+            results = typeDeclaration.validate(value);
+            synchronized (validationCache)
+            {
+                validationCache.put(value, results);
+            }
+        }
+        return results;
+    }
+
     @Override
     public boolean isRequired()
     {
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.raml.implv2.v10.model;
+
+import org.raml.v2.api.model.v10.datamodel.BooleanTypeDeclaration;
+import org.raml.v2.api.model.v10.datamodel.IntegerTypeDeclaration;
+import org.raml.v2.api.model.v10.datamodel.NumberTypeDeclaration;
+import org.raml.v2.api.model.v10.datamodel.StringTypeDeclaration;
+import org.raml.v2.api.model.v10.datamodel.TypeDeclaration;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Fast path for the validation of simple scalar parameters, compiled once from the
+ * type declaration.
+ * <p/>
+ * The fast path only accepts values it can prove valid. Any other value, including
+ * every invalid one, must still be validated by the type declaration, so the messages
+ * reported to the client are the ones of the RAML parser.
+ */
+abstract class ScalarValidator
+{
+
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]{0,17})");
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]{0,17})(\\.[0-9]{1,15})?");
+
+    /**
+     * Returns true if the value is known to be valid, false if it must be validated
+     * by the type declaration.
+     */
+    abstract boolean accepts(String value);
+
+    /**
+     * Compiles the fast path for the given type declaration.
+     *
+     * @return the validator or null if the type is not a simple scalar
+     */
+    static ScalarValidator compile(TypeDeclaration type)
+    {
+        if (type instanceof BooleanTypeDeclaration)
+        {
+            return booleanValidator((BooleanTypeDeclaration) type);
+        }
+        if (type instanceof IntegerTypeDeclaration)
+        {
+            return numberValidator((NumberTypeDeclaration) type, INTEGER);
+        }
+        if (type instanceof NumberTypeDeclaration)
+        {
+            return numberValidator((NumberTypeDeclaration) type, NUMBER);
+        }
+        if (type instanceof StringTypeDeclaration)
+        {
+            return stringValidator((StringTypeDeclaration) type);
+        }
+        return null;
+    }
+
+    private static ScalarValidator booleanValidator(BooleanTypeDeclaration type)
+    {
+        final Set<String> values = new HashSet<>();
+        List<Boolean> enumValues = type.enumValues();
+        if (enumValues == null || enumValues.isEmpty())
+        {
+            values.add("true");
+            values.add("false");
+        }
+        else
+        {
+            for (Boolean value : enumValues)
+            {
+                values.add(String.valueOf(value));
+            }
+        }
+        return new ScalarValidator()
+        {
+            @Override
+            boolean accepts(String value)
+            {
+                return values.contains(value);
+            }
+        };
+    }
+
+    private static ScalarValidator numberValidator(NumberTypeDeclaration type, final Pattern syntax)
+    {
+        List<Number> enumValues = type.enumValues();
+        if ((enumValues != null && !enumValues.isEmpty()) || type.format() != null || type.multipleOf() != null)
+        {
+            return null;
+        }
+        final Double minimum = type.minimum();
+        final Double maximum = type.maximum();
+        return new ScalarValidator()
+        {
+            @Override
+            boolean accepts(String value)
+            {
+                if (!syntax.matcher(value).matches())
+                {
+                    return false;
+                }
+                double number = Double.parseDouble(value);
+                return (minimum == null || number >= minimum) && (maximum == null || number <= maximum);
+            }
+        };
+    }
+
+    private static ScalarValidator stringValidator(StringTypeDeclaration type)
+    {
+        List<String> enumValues = type.enumValues();
+        final Set<String> values = enumValues != null && !enumValues.isEmpty() ? new HashSet<>(enumValues) : null;
+        final Pattern pattern;
+        try
+        {
+            pattern = type.pattern() != null ? Pattern.compile(type.pattern()) : null;
+        }
+        catch (PatternSyntaxException e)
+        {
+            return null;
+        }
+        final Integer minLength = type.minLength();
+        final Integer maxLength = type.maxLength();
+        return new ScalarValidator()
+        {
+            @Override
+            boolean accepts(String value)
+            {
+                // every declared facet applies, enum values included
+                if (values != null && !values.contains(value))
+                {
+                    return false;
+                }
+                int length = value.length();
+                if (length != value.codePointCount(0, length))
+                {
+                    // leave surrogate pairs to the parser
+                    return false;
+                }
+                return (minLength == null || length >= minLength)
+                       && (maxLength == null || length <= maxLength)
+                       && (pattern == null || pattern.matcher(value).matches());
+            }
+        };
+    }
+}
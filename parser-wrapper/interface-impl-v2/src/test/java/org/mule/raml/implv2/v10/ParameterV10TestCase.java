@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.raml.implv2.v10;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.mule.raml.implv2.ParserV2Utils;
+import org.mule.raml.interfaces.model.IRaml;
+import org.mule.raml.interfaces.model.parameter.IParameter;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.raml.v2.api.loader.DefaultResourceLoader;
+
+public class ParameterV10TestCase
+{
+
+    private Map<String, IParameter> queryParameters;
+
+    @Before
+    public void setUp()
+    {
+        IRaml raml = ParserV2Utils.build(new DefaultResourceLoader(), "org/mule/raml/implv2/v10/parameters-1.0.raml");
+        queryParameters = raml.getResources().get("/items").getAction("get").getQueryParameters();
+    }
+
+    @Test
+    public void integer()
+    {
+        IParameter page = queryParameters.get("page");
+        assertThat(page.validate("10"), is(true));
+        assertThat(page.validate("0"), is(false));
+        assertThat(page.validate("101"), is(false));
+        assertThat(page.validate("ten"), is(false));
+        assertThat(page.message("ten"), not(is("OK")));
+    }
+
+    @Test
+    public void booleanAndEnum()
+    {
+        assertThat(queryParameters.get("active").validate("true"), is(true));
+        assertThat(queryParameters.get("active").validate("yes"), is(false));
+        assertThat(queryParameters.get("order").validate("desc"), is(true));
+        assertThat(queryParameters.get("order").validate("random"), is(false));
+    }
+
+    @Test
+    public void stringWithPattern()
+    {
+        IParameter code = queryParameters.get("code");
+        assertThat(code.validate("ABC"), is(true));
+        assertThat(code.validate("abc"), is(false));
+        assertThat(code.validate("ABCD"), is(false));
+    }
+
+    @Test
+    public void enumValuesMustMatchOtherFacets()
+    {
+        IRaml raml = ParserV2Utils.build(new DefaultResourceLoader(), "org/mule/raml/implv2/v10/enum-facets-1.0.raml");
+        IParameter region = raml.getResources().get("/regions").getAction("get").getQueryParameters().get("region");
+        assertThat(region.validate("EU"), is(true));
+        assertThat(region.validate("USA"), is(false));
+        assertThat(region.validate("eu"), is(false));
+        assertThat(region.validate("UK"), is(false));
+    }
+
+    @Test
+    public void repeatedValidationIsConsistent()
+    {
+        IParameter page = queryParameters.get("page");
+        for (int i = 0; i < 3; i++)
+        {
+            assertThat(page.validate("-1"), is(false));
+            assertThat(page.message("5"), is("OK"));
+        }
+    }
+}
@@ -30,4 +30,10 @@ public interface IAction
     void addResponse(String key, IResponse response);
     void addSecurityReference(String securityReferenceName);
     void addIs(String is);
+
+    /**
+     * Returns the value of the given annotation applied to the action, or null if it is not
+     * applied or the RAML version has no annotations.
+     */
+    String getAnnotation(String name);
 }